@@ -0,0 +1,48 @@
+package com.carsoffer.benchmarks;
+
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.common.customvalidations.Alphanumeric;
+import com.carsoffer.common.customvalidations.AlphanumericValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uses the constraints declared on {@link CreateCarDTO}, so the benchmark follows any change to them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlphanumericValidatorBenchmark {
+
+    @Param({"Mercedes-Benz", "  Škoda Octavia_RS  ", "bad$value!"})
+    String value;
+
+    private AlphanumericValidator brandValidator;
+    private AlphanumericValidator colorValidator;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        brandValidator = validatorFor("brand");
+        colorValidator = validatorFor("color");
+    }
+
+    @Benchmark
+    public boolean allowSpecialCharacters() {
+        return brandValidator.isValid(value, null);
+    }
+
+    @Benchmark
+    public boolean alphanumericOnly() {
+        return colorValidator.isValid(value, null);
+    }
+
+    private static AlphanumericValidator validatorFor(String field) throws NoSuchFieldException {
+        AlphanumericValidator validator = new AlphanumericValidator();
+        validator.initialize(CreateCarDTO.class.getDeclaredField(field).getAnnotation(Alphanumeric.class));
+        return validator;
+    }
+}
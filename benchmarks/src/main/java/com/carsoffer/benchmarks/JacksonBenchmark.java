@@ -0,0 +1,85 @@
+package com.carsoffer.benchmarks;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TrimStringDeserializer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response (de)serialization with an {@link ObjectMapper} configured like the Quarkus default one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    private static final String STRING_JSON = "\"   Mercedes-Benz   \"";
+    private static final String CREATE_CAR_JSON = """
+            {"brand":"  BMW ","model":" X5 ","year":2022,"color":" Black ","fuelType":"diesel","vin":" WBA00000000000001 "}""";
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter pageWriter;
+    private ObjectReader createCarReader;
+    private PaginatedResponse<CarDTO> page;
+    private TrimStringDeserializer trimStringDeserializer;
+    private DeserializationContext deserializationContext;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        pageWriter = objectMapper.writerFor(new TypeReference<PaginatedResponse<CarDTO>>() { });
+        createCarReader = objectMapper.readerFor(CreateCarDTO.class);
+
+        List<CarDTO> cars = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            cars.add(new CarDTO(i, "BMW", "X5", 2022, "Black", FuelType.DIESEL, "WBA0000000000" + (1000 + i)));
+        }
+        page = PaginatedResponse.of(cars, 10_000, 3, pageSize);
+
+        trimStringDeserializer = new TrimStringDeserializer();
+        deserializationContext = objectMapper.getDeserializationContext();
+    }
+
+    @Benchmark
+    public byte[] serializePaginatedCars() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CreateCarDTO deserializeCreateCar() throws IOException {
+        return createCarReader.readValue(CREATE_CAR_JSON);
+    }
+
+    @Benchmark
+    public String trimStringDeserializer() throws IOException {
+        try (JsonParser parser = objectMapper.createParser(STRING_JSON)) {
+            parser.nextToken();
+            return trimStringDeserializer.deserialize(parser, deserializationContext);
+        }
+    }
+}
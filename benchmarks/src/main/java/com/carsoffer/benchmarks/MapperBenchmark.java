@@ -0,0 +1,62 @@
+package com.carsoffer.benchmarks;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CarOfferRow;
+import com.carsoffer.car.dto.CarWithOfferDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.entity.Car;
+import com.carsoffer.common.mappers.CarMapper;
+import com.carsoffer.common.mappers.OfferMapper;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.entity.Offer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"1", "50", "500"})
+    int offers;
+
+    private Car car;
+    private Offer offer;
+    private List<CarOfferRow> rows;
+
+    @Setup
+    public void setUp() {
+        car = new Car.Builder().id(1L).brand("BMW").model("X5").year(2022).color("Black")
+                .fuelType(FuelType.DIESEL).vin("WBA00000000000001").build();
+        offer = new Offer.Builder().id(1L).customerFirstName("Ana").customerLastName("Horvat")
+                .price(new BigDecimal("45999.00")).offerDate(LocalDateTime.of(2024, 5, 1, 10, 0)).car(car).build();
+        rows = new ArrayList<>(offers + 1);
+        for (long i = 0; i <= offers; i++) {
+            rows.add(new CarOfferRow(1L, "BMW", "X5", 2022, "Black", FuelType.DIESEL, "WBA00000000000001",
+                    i + 1, "Ana", "Horvat", new BigDecimal("45999.00"), LocalDateTime.of(2024, 5, 1, 10, 0).minusDays(i), null));
+        }
+    }
+
+    @Benchmark
+    public CarDTO carToDTO() {
+        return CarMapper.toDTO(car);
+    }
+
+    @Benchmark
+    public CarWithOfferDTO carToDTOWithOffers() {
+        return CarMapper.toDTOWithOffers(rows, offers);
+    }
+
+    @Benchmark
+    public OfferDTO offerToDTO() {
+        return OfferMapper.toDTO(offer);
+    }
+}
@@ -0,0 +1,80 @@
+package com.carsoffer.benchmarks;
+
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.exceptions.InvalidFuelTypeException;
+import com.carsoffer.common.utils.DateParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-parameter parsing, including the rejection paths, which build an exception per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+    private String fuelType = " diesel ";
+    private String invalidFuelType = "steam";
+    private String date = "2024-09-27";
+    private String invalidDate = "27.09.2024";
+    private String blankDate = " ";
+
+    @Benchmark
+    public FuelType fuelTypeFromString() {
+        return FuelType.fromString(fuelType);
+    }
+
+    @Benchmark
+    public Object fuelTypeFromStringInvalid() {
+        try {
+            return FuelType.fromString(invalidFuelType);
+        } catch (InvalidFuelTypeException e) {
+            return e;
+        }
+    }
+
+    // The valueOf-and-catch parsing FuelType used before its lookup table, kept for comparison.
+    @Benchmark
+    public Object fuelTypeValueOfBaseline() {
+        return valueOfBaseline(fuelType);
+    }
+
+    @Benchmark
+    public Object fuelTypeValueOfBaselineInvalid() {
+        return valueOfBaseline(invalidFuelType);
+    }
+
+    @Benchmark
+    public LocalDate parseDate() {
+        return DateParser.parseDate(date, "Start date");
+    }
+
+    @Benchmark
+    public LocalDate parseDateBlank() {
+        return DateParser.parseDate(blankDate, "Start date");
+    }
+
+    @Benchmark
+    public Object parseDateInvalid() {
+        try {
+            return DateParser.parseDate(invalidDate, "Start date");
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    private static Object valueOfBaseline(String key) {
+        try {
+            return FuelType.valueOf(key.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new IllegalStateException("Invalid fuel type: " + key + ". Allowed values are: " + Arrays.toString(FuelType.values()));
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.carsoffer.car.controller;
 
 import com.carsoffer.car.dto.*;
+import com.carsoffer.car.service.CarExportService;
+import com.carsoffer.car.service.CarImportService;
 import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.common.concurrency.AdmissionControlled;
 import com.carsoffer.common.exceptions.dto.ErrorResponse;
+import com.carsoffer.common.utils.DataFormat;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
@@ -18,28 +26,44 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
+@AdmissionControlled
+@RunOnVirtualThread
 @Path("/cars")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class CarController {
 
     private static final Logger log = LoggerFactory.getLogger(CarController.class);
+    private static final String NDJSON = "application/x-ndjson";
     private final CarServiceImpl carService;
+    private final CarImportService carImportService;
+    private final CarExportService carExportService;
 
     @Inject
-    public CarController(CarServiceImpl carService) {
+    public CarController(CarServiceImpl carService, CarImportService carImportService, CarExportService carExportService) {
         this.carService = carService;
+        this.carImportService = carImportService;
+        this.carExportService = carExportService;
     }
 
     @GET
     @Path("/")
     public Response getAllCars(@QueryParam("page") @DefaultValue("0") @Min(0) int page
-                              ,@QueryParam("pageSize") @DefaultValue("20") @Min(1) int pageSize) {
+                              ,@QueryParam("pageSize") @DefaultValue("20") @Min(1) int pageSize
+                              ,@Parameter(description = "Keyset cursor from a previous response's nextCursor; overrides page")
+                               @QueryParam("cursor") String cursor
+                              ,@Parameter(description = "Set to false to skip the total count")
+                               @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal
+                              ,@Parameter(description = "Report the planner's row estimate instead of an exact total")
+                               @QueryParam("estimateTotal") @DefaultValue("false") boolean estimateTotal) {
         validatePageSize(pageSize);
-        PaginatedResponse<CarDTO> response = carService.getAllCars(page, pageSize);
+        PaginatedResponse<CarDTO> response = cursor != null
+                ? carService.getAllCarsAfter(cursor, pageSize)
+                : carService.getAllCars(page, pageSize, TotalMode.of(includeTotal, estimateTotal));
         if (response.getItems().isEmpty()) {
             ErrorResponse errorResponse = new ErrorResponse(
                     "Nema rezultata.",
@@ -50,6 +74,17 @@ public class CarController {
         return Response.ok(response).build();
     }
 
+    @GET
+    @Path("/export")
+    @Produces({NDJSON, "text/csv"})
+    @Operation(summary = "Export all cars", description = "Streams every car ordered by id as NDJSON or CSV.")
+    public Response exportCars(@Parameter(description = "ndjson or csv")
+                               @QueryParam("format") @DefaultValue("ndjson") String format) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        StreamingOutput cars = output -> carExportService.exportCars(dataFormat, output);
+        return Response.ok(cars, dataFormat.mediaType()).build();
+    }
+
     @GET
     @Path("/{id}")
     public Response getCarById(@PathParam("id") Long id) {
@@ -66,8 +101,12 @@ public class CarController {
 
     @GET
     @Path("/{id}/with-offers")
-    public Response getCarByIdWithOffers(@PathParam("id") Long id) {
-        CarWithOfferDTO carWithOffers = carService.getCarByIdWithOffers(id);
+    public Response getCarByIdWithOffers(@PathParam("id") Long id,
+                                         @Parameter(description = "Maximum number of newest offers to include, default is 50")
+                                         @QueryParam("offerLimit") Integer offerLimit) {
+        CarWithOfferDTO carWithOffers = offerLimit == null
+                ? carService.getCarByIdWithOffers(id)
+                : carService.getCarByIdWithOffers(id, offerLimit);
         if (carWithOffers == null) {
             ErrorResponse errorResponse = new ErrorResponse(
                     String.format("Automobil s ID-om %d i njegovim ponudama nije pronađen.", id),
@@ -95,6 +134,20 @@ public class CarController {
                 .build();
     }
 
+    @Operation(summary = "Bulk import cars",
+            description = "Streams an NDJSON or CSV (with header row) upload and returns one NDJSON result per record. "
+                    + "Records are committed in chunks, so a rejected record does not roll back the rest.")
+    @APIResponse(responseCode = "200", description = "Per-record import results", content = @Content(mediaType = NDJSON))
+    @POST
+    @Path("/bulk")
+    @Consumes({NDJSON, "text/csv"})
+    @Produces(NDJSON)
+    public Response importCars(@HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        DataFormat format = DataFormat.fromContentType(contentType);
+        StreamingOutput results = output -> carImportService.importCars(body, format, output);
+        return Response.ok(results).build();
+    }
+
     @PUT
     @Path("/{id}")
     public Response updateCar(@PathParam("id") Long id, @Valid @RequestBody UpdateCarDTO carDTO) {
@@ -142,13 +195,43 @@ public class CarController {
         return Response.ok(cars).build();
     }
 
+    @GET
+    @Path("/facets")
+    @Operation(summary = "Faceted car search",
+            description = "Exact, case-insensitive filters served from the in-memory facet index, with per-brand, fuel type, color and year counts for the matching cars.")
+    public Response facetedSearch(@QueryParam("brand") String brand,
+                                  @QueryParam("model") String model,
+                                  @QueryParam("fuelType") FuelType fuelType,
+                                  @QueryParam("color") String color,
+                                  @QueryParam("year") Integer year,
+                                  @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+                                  @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+        validatePageSize(size);
+        CarFacetSearchDTO result = carService.facetedSearch(brand, model, fuelType, color, year, page, size);
+        return Response.ok(result).build();
+    }
+
+    @GET
+    @Path("/fulltext")
+    @Operation(summary = "Full-text car search", description = "Matches every word of q against brand, model, color, fuel type and year, best matches first.")
+    public Response fullTextSearch(@Parameter(description = "Search text, e.g. 'golf diesel black 2019'")
+                                   @QueryParam("q") String q,
+                                   @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+                                   @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+        validatePageSize(size);
+        List<CarDTO> cars = carService.fullTextSearch(q, page, size);
+        return Response.ok(cars).build();
+    }
+
     @GET
     @Path("/findByBrandAndModel")
     public Response findByBrandAndModel(@QueryParam("brand") String brand, @QueryParam("model") String model,
                                         @QueryParam("page") @DefaultValue("0")  @Min(0) int page,
-                                        @QueryParam("size") @DefaultValue("10") @Min(1)  int size) {
+                                        @QueryParam("size") @DefaultValue("10") @Min(1)  int size,
+                                        @Parameter(description = "Set to false to skip the total count")
+                                        @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal) {
         validatePageSize(size);
-        PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel(brand, model, page, size);
+        PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel(brand, model, page, size, TotalMode.of(includeTotal, false));
 
         if (cars.getItems().isEmpty()) {
             String modelDisplay = model != null ? model : "null";
@@ -166,14 +249,20 @@ public class CarController {
     @Path("/findByYearRange")
     public Response findCarsByYearRange(@QueryParam("startYear") int startYear, @QueryParam("endYear") int endYear,
                                         @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-                                        @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+                                        @QueryParam("size") @DefaultValue("10") @Min(1) int size,
+                                        @Parameter(description = "Keyset cursor from a previous response's nextCursor; overrides page")
+                                        @QueryParam("cursor") String cursor,
+                                        @Parameter(description = "Set to false to skip the total count")
+                                        @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal) {
         if (startYear > endYear) {
             return Response.status(Response.Status.BAD_REQUEST)
                     .entity("Start year must be less than or equal to end year")
                     .type(MediaType.TEXT_PLAIN)
                     .build();
         }
-        PaginatedResponse<CarDTO> cars = carService.findCarsByYearRange(startYear, endYear, page, size);
+        PaginatedResponse<CarDTO> cars = cursor != null
+                ? carService.findCarsByYearRangeAfter(startYear, endYear, cursor, size)
+                : carService.findCarsByYearRange(startYear, endYear, page, size, TotalMode.of(includeTotal, false));
         if (cars.getItems().isEmpty()) {
             ErrorResponse errorResponse = new ErrorResponse(
                     String.format("Nema rezultata za godine između %d i %d.", startYear, endYear),
@@ -0,0 +1,70 @@
+package com.carsoffer.car.controller;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.service.ReactiveCarService;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+import java.util.List;
+
+/**
+ * Car queries served on the event loop. Only built into the {@code reactive} profile.
+ */
+@IfBuildProfile("reactive")
+@Path("/reactive/cars")
+@Produces(MediaType.APPLICATION_JSON)
+public class ReactiveCarController {
+
+    private final ReactiveCarService carService;
+
+    @Inject
+    public ReactiveCarController(ReactiveCarService carService) {
+        this.carService = carService;
+    }
+
+    @GET
+    @Path("/{id}")
+    public Uni<CarDTO> getCarById(@PathParam("id") Long id) {
+        return carService.getCarById(id);
+    }
+
+    @GET
+    @Path("/search")
+    @Operation(summary = "Search cars without blocking a worker thread")
+    public Uni<List<CarDTO>> searchCars(@QueryParam("brand") String brand,
+                                        @QueryParam("model") String model,
+                                        @QueryParam("year") Integer year,
+                                        @QueryParam("color") String color,
+                                        @QueryParam("fuelType") FuelType fuelType,
+                                        @Parameter(description = "Field to sort by, default is 'id'")
+                                        @QueryParam("sortBy") @DefaultValue("id") String sortBy,
+                                        @QueryParam("asc") @DefaultValue("true") boolean asc,
+                                        @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+                                        @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+        validatePageSize(size);
+        return carService.searchCars(brand, model, year, color, fuelType, sortBy, asc, page, size).collect().asList();
+    }
+
+    @GET
+    @Path("/fulltext")
+    @Operation(summary = "Ranked full-text car search without blocking a worker thread")
+    public Uni<List<CarDTO>> fullTextSearch(@QueryParam("q") String query,
+                                            @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+                                            @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+        validatePageSize(size);
+        return carService.fullTextSearch(query, page, size).collect().asList();
+    }
+
+    private void validatePageSize(int pageSize) {
+        if (pageSize > 100) {
+            throw new IllegalArgumentException("Page size too large. Maximum is 100");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.carsoffer.car.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Fired by the car service for every create, update and delete. {@code previous} is the car as it was before the
+ * write ({@code null} for a create); a {@code null} car means the car was deleted.
+ */
+public record CarChangedEvent(
+        Long id,
+        CarDTO previous,
+        CarDTO car
+) {
+
+    public static CarChangedEvent saved(CarDTO car) {
+        return new CarChangedEvent(car.id(), null, car);
+    }
+
+    public static CarChangedEvent updated(CarDTO previous, CarDTO car) {
+        return new CarChangedEvent(car.id(), previous, car);
+    }
+
+    public static CarChangedEvent deleted(CarDTO previous) {
+        return new CarChangedEvent(previous.id(), previous, null);
+    }
+
+    @JsonIgnore
+    public boolean isDeleted() {
+        return car == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.carsoffer.car.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record CarFacetSearchDTO(
+        List<CarDTO> items,
+        long totalItems,
+        int currentPage,
+        int pageSize,
+        Map<String, Map<String, Integer>> facets
+) {
+}
@@ -0,0 +1,31 @@
+package com.carsoffer.car.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarImportResult(
+        long line,
+        Status status,
+        String vin,
+        Long id,
+        String error
+) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    public static CarImportResult created(long line, String vin, Long id) {
+        return new CarImportResult(line, Status.CREATED, vin, id, null);
+    }
+
+    public static CarImportResult duplicate(long line, String vin) {
+        return new CarImportResult(line, Status.DUPLICATE, vin, null, "Car with VIN already exists: " + vin);
+    }
+
+    public static CarImportResult invalid(long line, String vin, String error) {
+        return new CarImportResult(line, Status.INVALID, vin, null, error);
+    }
+}
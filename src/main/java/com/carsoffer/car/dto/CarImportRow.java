@@ -0,0 +1,7 @@
+package com.carsoffer.car.dto;
+
+public record CarImportRow(
+        long line,
+        CreateCarDTO car
+) {
+}
@@ -0,0 +1,25 @@
+package com.carsoffer.car.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the car-with-offers projection: the car columns repeated next to a single offer.
+ * The offer columns are null when the car has no offers.
+ */
+public record CarOfferRow(
+        Long id,
+        String brand,
+        String model,
+        Integer year,
+        String color,
+        FuelType fuelType,
+        String vin,
+        Long offerId,
+        String customerFirstName,
+        String customerLastName,
+        BigDecimal price,
+        LocalDateTime offerDate,
+        LocalDateTime lastModifiedOffer
+) {
+}
@@ -12,7 +12,8 @@ public record CarWithOfferDTO(
         String color,
         FuelType fuelType,
         String vin,
-        Set<OfferDTO> offers
+        Set<OfferDTO> offers,
+        boolean hasMoreOffers
 
 ) {
 }
@@ -1,12 +1,13 @@
 package com.carsoffer.car.dto;
 
 import com.carsoffer.common.exceptions.InvalidFuelTypeException;
+import com.carsoffer.common.utils.RateLimitedLog;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 @Schema(description = "Type of fuel u lower or upper cases", enumeration = {"DIESEL", "PETROL", "ELECTRIC", "HYBRID"})
@@ -16,17 +17,64 @@ public enum FuelType {
     ELECTRIC,
     HYBRID;
 
-    private static final Logger log = LoggerFactory.getLogger(FuelType.class);
+    private static final RateLimitedLog invalidValueLog = new RateLimitedLog(LoggerFactory.getLogger(FuelType.class), Duration.ofSeconds(10));
+    private static final String ALLOWED_VALUES = Arrays.toString(values());
+
+    // Candidates by upper-case ASCII initial, so a lookup compares against at most a few names.
+    private static final FuelType[][] BY_INITIAL = new FuelType[26][];
+
+    static {
+        for (FuelType type : values()) {
+            int slot = type.name().charAt(0) - 'A';
+            FuelType[] candidates = BY_INITIAL[slot] == null ? new FuelType[0] : BY_INITIAL[slot];
+            FuelType[] extended = Arrays.copyOf(candidates, candidates.length + 1);
+            extended[candidates.length] = type;
+            BY_INITIAL[slot] = extended;
+        }
+    }
 
     @JsonCreator
     public static FuelType fromString(String key) {
-        try {
-            return FuelType.valueOf(key.trim().toUpperCase());
-        } catch (IllegalArgumentException ex) {
-            log.error("Invalid fuel type provided: {}", key);
-            throw new InvalidFuelTypeException(
-                    "Invalid fuel type: " + key + ". Allowed values are: " + Arrays.toString(FuelType.values()));
+        FuelType type = lookup(key);
+        if (type == null) {
+            invalidValueLog.warn("Invalid fuel type provided: {}", key);
+            throw new InvalidFuelTypeException("Invalid fuel type: " + key + ". Allowed values are: " + ALLOWED_VALUES);
+        }
+        return type;
+    }
+
+    /**
+     * Case-insensitive match on the constant name, ignoring surrounding whitespace. Returns {@code null} for
+     * anything else and allocates nothing either way.
+     */
+    public static FuelType lookup(String key) {
+        if (key == null) {
+            return null;
+        }
+        int start = 0;
+        int end = key.length();
+        while (start < end && key.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && key.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+
+        int slot = (key.charAt(start) | 0x20) - 'a';
+        if (slot < 0 || slot >= BY_INITIAL.length || BY_INITIAL[slot] == null) {
+            return null;
+        }
+        int length = end - start;
+        for (FuelType candidate : BY_INITIAL[slot]) {
+            String name = candidate.name();
+            if (name.length() == length && key.regionMatches(true, start, name, 0, length)) {
+                return candidate;
+            }
         }
+        return null;
     }
 
 
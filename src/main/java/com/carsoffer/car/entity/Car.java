@@ -19,14 +19,15 @@ import java.util.Set;
 @Entity
 @Table(name = "cars", indexes = {
         @Index(name = "idx_car_brand_model", columnList = "brand, model"),
-        @Index(name = "idx_year", columnList = "year")
+        @Index(name = "idx_year", columnList = "year"),
+        @Index(name = "idx_year_id", columnList = "year, id")
 })
 @Audited
 public class Car extends PanacheEntityBase {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carsSequence")
-    @SequenceGenerator(name = "carsSequence", sequenceName = "car_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "carsSequence", sequenceName = "car_id_seq", allocationSize = 50)
     @Column(name = "id", updatable = false, nullable = false)
     public Long id;
 
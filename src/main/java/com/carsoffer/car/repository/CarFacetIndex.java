@@ -0,0 +1,248 @@
+package com.carsoffer.car.repository;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.entity.Car;
+import com.carsoffer.common.mappers.CarMapper;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.hibernate.ScrollableResults;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the exact-match car attributes. Every facet value maps to a
+ * compressed bitmap of car ids, so a conjunctive filter is a bitmap intersection and a facet
+ * count is an intersection cardinality; neither touches the database.
+ * <p>
+ * The index is built by streaming the cars table at startup and kept current from
+ * {@link CarChangedEvent}s, which are only applied once the writing transaction has committed.
+ * Values are matched case-insensitively and reported with the spelling first seen.
+ */
+@ApplicationScoped
+public class CarFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CarFacetIndex.class);
+    static final int REBUILD_FETCH_SIZE = 1000;
+
+    public enum Facet {
+        BRAND("brand"),
+        MODEL("model"),
+        COLOR("color"),
+        FUEL_TYPE("fuelType"),
+        YEAR("year");
+
+        private final String label;
+
+        Facet(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    // Models are too many to be a useful sidebar facet; they are filterable but not counted.
+    private static final List<Facet> COUNTED_FACETS = List.of(Facet.BRAND, Facet.FUEL_TYPE, Facet.COLOR, Facet.YEAR);
+
+    public record Hits(List<Long> ids, long total, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private static final class Posting {
+        private final String label;
+        private final RoaringBitmap ids = new RoaringBitmap();
+
+        private Posting(String label) {
+            this.label = label;
+        }
+    }
+
+    private final CarRepository carRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Facet, Map<String, Posting>> postings = new EnumMap<>(Facet.class);
+    private final RoaringBitmap all = new RoaringBitmap();
+    private volatile boolean ready;
+
+    @Inject
+    public CarFacetIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+        for (Facet facet : Facet.values()) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Reloads the whole index from the cars table. Must run inside a transaction so the driver streams
+     * with a server-side cursor; searches and updates wait on the write lock until it finishes.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            long indexed = 0;
+            try (ScrollableResults<Car> cars = carRepository.scrollAll(REBUILD_FETCH_SIZE)) {
+                while (cars.next()) {
+                    add(CarMapper.toDTO(cars.get()));
+                    if (++indexed % REBUILD_FETCH_SIZE == 0) {
+                        carRepository.getEntityManager().clear();
+                    }
+                }
+            }
+            all.runOptimize();
+            postings.values().forEach(values -> values.values().forEach(posting -> posting.ids.runOptimize()));
+            ready = true;
+            log.info("Car facet index built: {} cars", indexed);
+        } catch (RuntimeException e) {
+            clear();
+            ready = false;
+            log.warn("Car facet index rebuild failed, faceted search is unavailable until the next rebuild", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void onCarChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CarChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.id());
+            if (!event.isDeleted()) {
+                add(event.car());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Hits search(String brand, String model, FuelType fuelType, String color, Integer year, int offset, int limit) {
+        if (!ready) {
+            throw new ServiceUnavailableException("Car facet index is not available.");
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = match(Map.of(
+                    Facet.BRAND, Optional.ofNullable(brand),
+                    Facet.MODEL, Optional.ofNullable(model),
+                    Facet.FUEL_TYPE, Optional.ofNullable(fuelType),
+                    Facet.COLOR, Optional.ofNullable(color),
+                    Facet.YEAR, Optional.ofNullable(year)));
+            return new Hits(page(matches, offset, limit), matches.getLongCardinality(), count(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap match(Map<Facet, Optional<?>> filters) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (Map.Entry<Facet, Optional<?>> filter : filters.entrySet()) {
+            Optional<String> key = filter.getValue().map(CarFacetIndex::key).filter(value -> !value.isEmpty());
+            if (key.isEmpty()) {
+                continue;
+            }
+            Posting posting = postings.get(filter.getKey()).get(key.get());
+            if (posting == null) {
+                return new RoaringBitmap();
+            }
+            bitmaps.add(posting.ids);
+        }
+        if (bitmaps.isEmpty()) {
+            return all.clone();
+        }
+        return bitmaps.size() == 1 ? bitmaps.getFirst().clone() : FastAggregation.and(bitmaps.iterator());
+    }
+
+    private List<Long> page(RoaringBitmap matches, int offset, int limit) {
+        if (offset >= matches.getCardinality()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select(offset));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    private Map<String, Map<String, Integer>> count(RoaringBitmap matches) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (Facet facet : COUNTED_FACETS) {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+            for (Posting posting : postings.get(facet).values()) {
+                int count = RoaringBitmap.andCardinality(matches, posting.ids);
+                if (count > 0) {
+                    counts.add(Map.entry(posting.label, count));
+                }
+            }
+            counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> values = new LinkedHashMap<>();
+            counts.forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+            facets.put(facet.label(), values);
+        }
+        return facets;
+    }
+
+    private void add(CarDTO car) {
+        int id = Math.toIntExact(car.id());
+        all.add(id);
+        post(Facet.BRAND, car.brand(), id);
+        post(Facet.MODEL, car.model(), id);
+        post(Facet.COLOR, car.color(), id);
+        post(Facet.FUEL_TYPE, car.fuelType(), id);
+        post(Facet.YEAR, car.year(), id);
+    }
+
+    private void post(Facet facet, Object value, int id) {
+        if (value == null) {
+            return;
+        }
+        postings.get(facet)
+                .computeIfAbsent(key(value), k -> new Posting(value.toString().trim()))
+                .ids.add(id);
+    }
+
+    // The old values of an updated car are not kept, so its id is dropped from every posting.
+    private void remove(Long carId) {
+        int id = Math.toIntExact(carId);
+        if (!all.contains(id)) {
+            return;
+        }
+        all.remove(id);
+        for (Map<String, Posting> values : postings.values()) {
+            values.values().removeIf(posting -> {
+                posting.ids.remove(id);
+                return posting.ids.isEmpty();
+            });
+        }
+    }
+
+    private void clear() {
+        all.clear();
+        postings.values().forEach(Map::clear);
+    }
+
+    private static String key(Object value) {
+        return value.toString().trim().toLowerCase(Locale.ROOT);
+    }
+}
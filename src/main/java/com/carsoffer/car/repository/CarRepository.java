@@ -1,55 +1,99 @@
 package com.carsoffer.car.repository;
 
+import com.carsoffer.car.dto.CarOfferRow;
 import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.entity.Car;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import com.carsoffer.common.metrics.QueryFilter;
+import com.carsoffer.common.metrics.QueryTimed;
+import com.carsoffer.common.utils.LikePatterns;
+import com.carsoffer.common.utils.PagedResult;
+import com.carsoffer.common.utils.TableStatistics;
+import io.quarkus.cache.CacheResult;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
-import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 
 import java.util.*;
 
+@QueryTimed
 @ApplicationScoped
 public class CarRepository implements PanacheRepository<Car> {
 
     private final EntityManager em;
+    private final String schema;
 
     @Inject
-    public CarRepository(EntityManager em) {
+    public CarRepository(EntityManager em,
+                         @ConfigProperty(name = "quarkus.hibernate-orm.database.default-schema", defaultValue = "public") String schema) {
         this.em = em;
+        this.schema = schema;
     }
 
 
-    public PanacheQuery<Car> findByBrandAndModelPaged(String brand, String model, int page, int size) {
-        String query = "select bm from Car bm where 1=1";
+    public PagedResult<Car> findByBrandAndModelPaged(@QueryFilter String brand, @QueryFilter String model, int page, int size, boolean withTotal) {
+        String query = "from Car bm where 1=1";
         Map<String, Object> params = new HashMap<>();
 
         if (brand != null && !brand.isBlank()) {
-            query += " and LOWER(bm.brand) like LOWER(:brand)";
-            params.put("brand", "%" + brand.toLowerCase() + "%");
+            query += " and lower(bm.brand) like :brand escape '!'";
+            params.put("brand", LikePatterns.contains(brand));
         }
         if (model != null && !model.isBlank()) {
-            query += " and LOWER(bm.model) like LOWER(:model)";
-            params.put("model", "%" + model.toLowerCase() + "%");
+            query += " and lower(bm.model) like :model escape '!'";
+            params.put("model", LikePatterns.contains(model));
         }
 
-        return find(query, params).page(Page.of(page, size));
+        return PagedResult.fetch(em, Car.class, "bm", query, params, "bm.id", page, size, withTotal);
     }
 
-    public PanacheQuery<Car> findByYearBetweenPaged(int startYear, int endYear, int page, int size) {
-        return find("year >= :startYear and year <= :endYear",
-                Parameters.with("startYear", startYear).and("endYear", endYear))
-                .page(Page.of(page, size));
+    public PagedResult<Car> findByYearBetweenPaged(int startYear, int endYear, int page, int size, boolean withTotal) {
+        return PagedResult.fetch(em, Car.class, "c", "from Car c where c.year >= :startYear and c.year <= :endYear",
+                Map.of("startYear", startYear, "endYear", endYear), "c.year, c.id", page, size, withTotal);
+    }
 
+    public PagedResult<Car> findAllPaged(int page, int size, boolean withTotal) {
+        return PagedResult.fetch(em, Car.class, "c", "from Car c", Map.of(), "c.id", page, size, withTotal);
     }
 
-    public PanacheQuery<Car> findAllPaged(int page, int size) {
-        return findAll().page(Page.of(page, size));
+    @CacheResult(cacheName = "car-count-estimate-cache")
+    public long estimateCount() {
+        long estimate = TableStatistics.estimateRowCount(em, schema, "cars");
+        return estimate >= 0 ? estimate : count();
+    }
+
+    public ScrollableResults<Car> scrollAll(int fetchSize) {
+        return em.unwrap(Session.class)
+                .createSelectionQuery("from Car c order by c.id", Car.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    public List<Car> findAllAfter(long lastId, int limit) {
+        return find("id > ?1", Sort.by("id"), lastId)
+                .range(0, limit - 1)
+                .list();
+    }
+
+    public List<Car> findByYearBetweenAfter(int startYear, int endYear, int lastYear, long lastId, int limit) {
+        return find("year >= :startYear and year <= :endYear and year >= :lastYear"
+                        + " and (year > :lastYear or (year = :lastYear and id > :lastId))",
+                Sort.by("year").and("id"),
+                Parameters.with("startYear", startYear).and("endYear", endYear)
+                        .and("lastYear", lastYear).and("lastId", lastId))
+                .range(0, limit - 1)
+                .list();
     }
 
 
@@ -57,24 +101,73 @@ public class CarRepository implements PanacheRepository<Car> {
         return find("vin", vin).firstResultOptional().isPresent();
     }
 
+    public Set<String> findExistingVins(Collection<String> vins) {
+        if (vins.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(em.createQuery("select c.vin from Car c where c.vin in :vins", String.class)
+                .setParameter("vins", vins)
+                .getResultList());
+    }
+
+    public List<Car> findByIds(Collection<Long> ids) {
+        return list("id in ?1", Sort.by("id"), ids);
+    }
+
+    /**
+     * Car columns plus its newest offers as constructor-expression rows, in one query and without
+     * loading any entity. At most {@code maxRows} rows are returned; a car without offers yields one row.
+     */
+    public List<CarOfferRow> findWithOffers(Long id, int maxRows) {
+        return em.createQuery("select new com.carsoffer.car.dto.CarOfferRow("
+                        + "c.id, c.brand, c.model, c.year, c.color, c.fuelType, c.vin,"
+                        + " o.id, o.customerFirstName, o.customerLastName, o.price, o.offerDate, o.lastModifiedOffer)"
+                        + " from Car c left join c.offers o where c.id = :id"
+                        + " order by o.offerDate desc nulls last, o.id desc", CarOfferRow.class)
+                .setParameter("id", id)
+                .setMaxResults(maxRows)
+                .getResultList();
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(em.createQuery("select c.id from Car c where c.id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    // search_vector is a generated column (V7) and deliberately not mapped on Car.
+    @SuppressWarnings("unchecked")
+    public List<Car> fullTextSearch(String query, int page, int size) {
+        return em.createNativeQuery("select c.* from {h-schema}cars c, websearch_to_tsquery('simple', :query) q"
+                        + " where c.search_vector @@ q"
+                        + " order by ts_rank(c.search_vector, q) desc, c.id", Car.class)
+                .setParameter("query", query)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+    }
 
-    public List<Car> searchCar(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy, boolean asc, int page, int size) {
+    public List<Car> searchCar(@QueryFilter String brand, @QueryFilter String model, @QueryFilter Integer year,
+                               @QueryFilter String color, @QueryFilter FuelType fuelType, String sortBy, boolean asc, int page, int size) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Car> cq = cb.createQuery(Car.class);
         Root<Car> car = cq.from(Car.class);
         List<Predicate> predicates = new ArrayList<>();
 
         if (brand != null && !brand.isEmpty()) {
-            predicates.add(cb.like(cb.lower(car.get("brand")), "%" + brand.toLowerCase() + "%"));
+            predicates.add(cb.like(cb.lower(car.get("brand")), LikePatterns.contains(brand), LikePatterns.ESCAPE));
         }
         if (model != null && !model.isEmpty()) {
-            predicates.add(cb.like(cb.lower(car.get("model")), "%" + model.toLowerCase() + "%"));
+            predicates.add(cb.like(cb.lower(car.get("model")), LikePatterns.contains(model), LikePatterns.ESCAPE));
         }
         if (year != null) {
             predicates.add(cb.greaterThanOrEqualTo(car.get("year"), year));
         }
         if (color != null && !color.isEmpty()) {
-            predicates.add(cb.like(cb.lower(car.get("color")), "%" + color.toLowerCase() + "%"));
+            predicates.add(cb.like(cb.lower(car.get("color")), LikePatterns.contains(color), LikePatterns.ESCAPE));
         }
         if (fuelType != null) {
             predicates.add(cb.equal(car.get("fuelType"), fuelType));
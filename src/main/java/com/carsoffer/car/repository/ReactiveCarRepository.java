@@ -0,0 +1,123 @@
+package com.carsoffer.car.repository;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.LikePatterns;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only car queries on the reactive Postgres client, for the {@code reactive} build profile.
+ * Rows are mapped straight to {@link CarDTO}s; no entity or session is involved.
+ */
+@IfBuildProfile("reactive")
+@ApplicationScoped
+public class ReactiveCarRepository {
+
+    private static final String COLUMNS = "id, brand, model, year, color, fuel_type, vin";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "brand", "brand",
+            "model", "model",
+            "year", "year",
+            "color", "color",
+            "fuelType", "fuel_type",
+            "vin", "vin");
+
+    private final PgPool client;
+    private final String cars;
+
+    @Inject
+    public ReactiveCarRepository(PgPool client,
+                                 @ConfigProperty(name = "quarkus.hibernate-orm.database.default-schema", defaultValue = "public") String schema) {
+        this.client = client;
+        this.cars = schema + ".cars";
+    }
+
+    public Uni<CarDTO> findById(Long id) {
+        return client.preparedQuery("select " + COLUMNS + " from " + cars + " where id = $1")
+                .execute(Tuple.of(id))
+                .map(rows -> rows.iterator().hasNext() ? toDTO(rows.iterator().next()) : null);
+    }
+
+    public Multi<CarDTO> searchCar(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy, boolean asc, int page, int size) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from " + cars + " where true");
+
+        if (brand != null && !brand.isEmpty()) {
+            params.add(LikePatterns.contains(brand));
+            sql.append(" and lower(brand) like $").append(params.size()).append(" escape '!'");
+        }
+        if (model != null && !model.isEmpty()) {
+            params.add(LikePatterns.contains(model));
+            sql.append(" and lower(model) like $").append(params.size()).append(" escape '!'");
+        }
+        if (year != null) {
+            params.add(year);
+            sql.append(" and year >= $").append(params.size());
+        }
+        if (color != null && !color.isEmpty()) {
+            params.add(LikePatterns.contains(color));
+            sql.append(" and lower(color) like $").append(params.size()).append(" escape '!'");
+        }
+        if (fuelType != null) {
+            params.add(fuelType.name());
+            sql.append(" and fuel_type = $").append(params.size());
+        }
+
+        sql.append(" order by ").append(sortColumn(sortBy)).append(asc ? " asc" : " desc");
+        params.add(size);
+        sql.append(" limit $").append(params.size());
+        params.add((long) page * size);
+        sql.append(" offset $").append(params.size());
+
+        return stream(client.preparedQuery(sql.toString()).execute(Tuple.from(params)));
+    }
+
+    public Multi<CarDTO> fullTextSearch(String query, int page, int size) {
+        return stream(client.preparedQuery("select " + COLUMNS + " from " + cars + " c, websearch_to_tsquery('simple', $1) q"
+                        + " where c.search_vector @@ q"
+                        + " order by ts_rank(c.search_vector, q) desc, c.id"
+                        + " limit $2 offset $3")
+                .execute(Tuple.of(query, size, (long) page * size)));
+    }
+
+    private static String sortColumn(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return "id";
+        }
+        String column = SORT_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Unable to sort by " + sortBy + ". Allowed values are: " + SORT_COLUMNS.keySet());
+        }
+        return column;
+    }
+
+    private static Multi<CarDTO> stream(Uni<RowSet<Row>> rows) {
+        return rows.onItem().transformToMulti(set -> Multi.createFrom().iterable(set))
+                .map(ReactiveCarRepository::toDTO);
+    }
+
+    static CarDTO toDTO(Row row) {
+        return new CarDTO(
+                row.getLong("id"),
+                row.getString("brand"),
+                row.getString("model"),
+                row.getInteger("year"),
+                row.getString("color"),
+                FuelType.valueOf(row.getString("fuel_type")),
+                row.getString("vin"));
+    }
+}
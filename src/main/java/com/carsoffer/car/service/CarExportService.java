@@ -0,0 +1,49 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.entity.Car;
+import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.mappers.CarMapper;
+import com.carsoffer.common.utils.DataFormat;
+import com.carsoffer.common.utils.ExportStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.ScrollableResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@ApplicationScoped
+public class CarExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarExportService.class);
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final CarRepository carRepository;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public CarExportService(CarRepository carRepository, ObjectMapper objectMapper) {
+        this.carRepository = carRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // PostgreSQL only honours the fetch size inside a transaction; outside one the driver buffers the whole result.
+    @Transactional
+    @TransactionConfiguration(timeout = 3600)
+    public long exportCars(DataFormat format, OutputStream output) throws IOException {
+        log.info("Exporting all cars as {}", format);
+        try (ScrollableResults<Car> cars = carRepository.scrollAll(EXPORT_FETCH_SIZE);
+             SequenceWriter writer = format.writer(objectMapper, CarDTO.class, output)) {
+            long exported = ExportStreams.writeAll(cars, CarMapper::toDTO, writer, carRepository.getEntityManager(), EXPORT_FETCH_SIZE);
+            log.info("Exported {} cars", exported);
+            return exported;
+        }
+    }
+}
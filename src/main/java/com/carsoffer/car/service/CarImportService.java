@@ -0,0 +1,152 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarImportResult;
+import com.carsoffer.car.dto.CarImportRow;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.common.utils.DataFormat;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an NDJSON or CSV upload record by record, validates each record and hands them to
+ * {@link CarService#importChunk} in fixed-size chunks, each committed in its own transaction.
+ * One result per record is written to the output as NDJSON, so neither side holds the file in memory.
+ */
+@ApplicationScoped
+public class CarImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarImportService.class);
+    static final int IMPORT_CHUNK_SIZE = 500;
+
+    private final CarServiceImpl carService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public CarImportService(CarServiceImpl carService, Validator validator, ObjectMapper objectMapper) {
+        this.carService = carService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    public void importCars(InputStream input, DataFormat format, OutputStream output) throws IOException {
+        log.info("Starting {} car import", format);
+        List<CarImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        long lines;
+
+        try (SequenceWriter writer = DataFormat.NDJSON.writer(objectMapper, CarImportResult.class, output)) {
+            try {
+                lines = switch (format) {
+                    case NDJSON -> readNdjson(input, chunk, writer);
+                    case CSV -> readCsv(input, chunk, writer);
+                };
+            } finally {
+                // the rows read before a failure are still imported and reported
+                writeChunk(chunk, writer);
+            }
+        }
+        log.info("Finished {} car import, {} lines read", format, lines);
+    }
+
+    /**
+     * Parses each line on its own, so a broken line is reported and the next one starts clean.
+     */
+    private long readNdjson(InputStream input, List<CarImportRow> chunk, SequenceWriter writer) throws IOException {
+        ObjectReader reader = DataFormat.NDJSON.reader(objectMapper, CreateCarDTO.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long line = 0;
+        for (String text = lines.readLine(); text != null; text = lines.readLine()) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            CreateCarDTO car;
+            try {
+                car = reader.readValue(text);
+            } catch (JsonProcessingException e) {
+                writer.write(CarImportResult.invalid(line, null, e.getOriginalMessage()));
+                continue;
+            }
+            accept(line, car, chunk, writer);
+        }
+        return line;
+    }
+
+    /**
+     * A quoted CSV field may span lines, so there is no line to resync at: a record that does not parse ends the import.
+     */
+    private long readCsv(InputStream input, List<CarImportRow> chunk, SequenceWriter writer) throws IOException {
+        long line = 0;
+        try (MappingIterator<CreateCarDTO> records = DataFormat.CSV.reader(objectMapper, CreateCarDTO.class)
+                .readValues(input)) {
+            while (true) {
+                line++;
+                CreateCarDTO car;
+                try {
+                    if (!records.hasNextValue()) {
+                        return line - 1;
+                    }
+                    car = records.nextValue();
+                } catch (JsonParseException e) {
+                    writer.write(CarImportResult.invalid(line, null, e.getOriginalMessage()));
+                    return line;
+                } catch (JsonProcessingException e) {
+                    writer.write(CarImportResult.invalid(line, null, e.getOriginalMessage()));
+                    continue;
+                }
+                accept(line, car, chunk, writer);
+            }
+        }
+    }
+
+    private void accept(long line, CreateCarDTO car, List<CarImportRow> chunk, SequenceWriter writer) throws IOException {
+        if (car == null) {
+            writer.write(CarImportResult.invalid(line, null, "Empty record"));
+            return;
+        }
+        Set<ConstraintViolation<CreateCarDTO>> violations = validator.validate(car);
+        if (!violations.isEmpty()) {
+            writer.write(CarImportResult.invalid(line, car.vin(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+            return;
+        }
+
+        chunk.add(new CarImportRow(line, car));
+        if (chunk.size() == IMPORT_CHUNK_SIZE) {
+            writeChunk(chunk, writer);
+        }
+    }
+
+    private void writeChunk(List<CarImportRow> chunk, SequenceWriter writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<CarImportRow> rows = List.copyOf(chunk);
+        chunk.clear();
+        writer.writeAll(carService.importChunk(rows));
+        writer.flush();
+    }
+}
@@ -2,25 +2,50 @@ package com.carsoffer.car.service;
 
 import com.carsoffer.car.dto.*;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 
 import java.util.List;
 
 public interface CarService {
-    PaginatedResponse<CarDTO> getAllCars(int page, int size);
+    PaginatedResponse<CarDTO> getAllCars(int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<CarDTO> getAllCars(int page, int size) {
+        return getAllCars(page, size, TotalMode.EXACT);
+    }
+
+    PaginatedResponse<CarDTO> getAllCarsAfter(String cursor, int size);
 
     CarDTO getCarById(Long id);
 
     CarWithOfferDTO getCarByIdWithOffers(Long id);
 
+    CarWithOfferDTO getCarByIdWithOffers(Long id, int offerLimit);
+
     CarDTO createCar(CreateCarDTO createCarDTO);
 
+    List<CarImportResult> importChunk(List<CarImportRow> rows);
+
     CarDTO updateCar(Long id, UpdateCarDTO carDTO);
 
     void deleteCar(Long id);
 
-    PaginatedResponse<CarDTO> findByBrandAndModel(String brand, String model, int page, int size);
+    PaginatedResponse<CarDTO> findByBrandAndModel(String brand, String model, int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<CarDTO> findByBrandAndModel(String brand, String model, int page, int size) {
+        return findByBrandAndModel(brand, model, page, size, TotalMode.EXACT);
+    }
 
-    PaginatedResponse<CarDTO> findCarsByYearRange(int startYear, int endYear, int page, int size);
+    PaginatedResponse<CarDTO> findCarsByYearRange(int startYear, int endYear, int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<CarDTO> findCarsByYearRange(int startYear, int endYear, int page, int size) {
+        return findCarsByYearRange(startYear, endYear, page, size, TotalMode.EXACT);
+    }
+
+    PaginatedResponse<CarDTO> findCarsByYearRangeAfter(int startYear, int endYear, String cursor, int size);
 
     List<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy, boolean asc, int page, int size);
+
+    List<CarDTO> fullTextSearch(String query, int page, int size);
+
+    CarFacetSearchDTO facetedSearch(String brand, String model, FuelType fuelType, String color, Integer year, int page, int size);
 }
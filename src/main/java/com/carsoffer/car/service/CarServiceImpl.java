@@ -2,49 +2,80 @@ package com.carsoffer.car.service;
 
 import com.carsoffer.car.dto.*;
 import com.carsoffer.car.entity.Car;
+import com.carsoffer.car.repository.CarFacetIndex;
 import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.cache.RefreshAhead;
+import com.carsoffer.common.cache.SecondTier;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.DuplicateCarException;
 import com.carsoffer.common.mappers.CarMapper;
+import com.carsoffer.common.persistence.ReadOnly;
+import com.carsoffer.common.utils.PageCursor;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
-import io.quarkus.cache.CacheInvalidate;
-import io.quarkus.cache.CacheKey;
+import com.carsoffer.common.utils.TotalMode;
 import io.quarkus.cache.CacheResult;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class CarServiceImpl implements CarService {
 
     private static final Logger log = LoggerFactory.getLogger(CarServiceImpl.class);
+    static final int BULK_CHUNK_SIZE = 50;
+    static final int DEFAULT_OFFER_LIMIT = 50;
+    static final int MAX_OFFER_LIMIT = 500;
     private final CarRepository carRepository;
+    private final CarFacetIndex carFacetIndex;
+    private final Event<CarChangedEvent> carChangedEvent;
 
     @Inject
-    public CarServiceImpl(CarRepository carRepository) {
+    public CarServiceImpl(CarRepository carRepository, CarFacetIndex carFacetIndex, Event<CarChangedEvent> carChangedEvent) {
         this.carRepository = carRepository;
+        this.carFacetIndex = carFacetIndex;
+        this.carChangedEvent = carChangedEvent;
     }
 
 
     @Override
-    public PaginatedResponse<CarDTO> getAllCars(int page, int size) {
-        log.info("Fetching all cars - page {}, size {}", page, size);
-        PanacheQuery<Car> query = carRepository.findAllPaged(page, size);
-        List<CarDTO> carDTOs = query.stream()
+    @ReadOnly
+    public PaginatedResponse<CarDTO> getAllCars(int page, int size, TotalMode totalMode) {
+        log.info("Fetching all cars - page {}, size {}, total {}", page, size, totalMode);
+        PagedResult<Car> result = carRepository.findAllPaged(page, size, totalMode == TotalMode.EXACT);
+        List<CarDTO> carDTOs = result.items().stream()
                 .map(CarMapper::toDTO)
                 .collect(Collectors.toList());
-        return new PaginatedResponse<>(carDTOs, query.count(), query.pageCount(), page, size);
+        long totalItems = totalMode == TotalMode.ESTIMATED ? carRepository.estimateCount() : result.totalItems();
+        return PaginatedResponse.of(carDTOs, totalItems, page, size)
+                .withNextCursor(car -> PageCursor.of(car.id(), car.id()));
     }
 
     @Override
-    @CacheResult(cacheName = "car-cache")
+    @ReadOnly
+    public PaginatedResponse<CarDTO> getAllCarsAfter(String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        log.info("Fetching all cars after ID {}, size {}", after.id(), size);
+        List<CarDTO> carDTOs = carRepository.findAllAfter(after.id(), size + 1).stream()
+                .map(CarMapper::toDTO)
+                .toList();
+        return PaginatedResponse.ofKeyset(carDTOs, size, car -> PageCursor.of(car.id(), car.id()));
+    }
+
+    @Override
+    @RefreshAhead(cacheName = "car-cache")
+    @SecondTier(cacheName = "car-cache")
+    @ReadOnly(replica = false)
     public CarDTO getCarById(Long id) {
         log.info("Fetching car by ID: {}", id);
         return carRepository.findByIdOptional(id)
@@ -53,94 +84,160 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
-    @CacheResult(cacheName = "car-offers-cache")
-    @Transactional(Transactional.TxType.SUPPORTS)
-    public CarWithOfferDTO getCarByIdWithOffers(@CacheKey Long id) {
-        log.info("Fetching car with offers by ID: {}", id);
-        return carRepository.findByIdOptional(id)
-                .map(CarMapper::toDTOWithOffers)
-                .orElseThrow(() -> new CarNotFoundException(id));
+    @RefreshAhead(cacheName = "car-offers-cache")
+    public CarWithOfferDTO getCarByIdWithOffers(Long id) {
+        return getCarByIdWithOffers(id, DEFAULT_OFFER_LIMIT);
+    }
+
+    @Override
+    public CarWithOfferDTO getCarByIdWithOffers(Long id, int offerLimit) {
+        if (offerLimit < 1 || offerLimit > MAX_OFFER_LIMIT) {
+            throw new IllegalArgumentException("offerLimit must be between 1 and " + MAX_OFFER_LIMIT + ".");
+        }
+        log.info("Fetching car with up to {} offers by ID: {}", offerLimit, id);
+        CarWithOfferDTO carWithOffers = CarMapper.toDTOWithOffers(carRepository.findWithOffers(id, offerLimit + 1), offerLimit);
+        if (carWithOffers == null) {
+            throw new CarNotFoundException(id);
+        }
+        return carWithOffers;
     }
 
     @Override
     @Transactional
-    @CacheInvalidate(cacheName = "car-cache")
     public CarDTO createCar(CreateCarDTO createCarDTO) {
         log.info("Creating new car with details: {}", createCarDTO);
         if (carRepository.existsByVin(createCarDTO.vin())) {
             throw new DuplicateCarException("Car with VIN already exists: " + createCarDTO.vin());
         }
 
-        Car car = new Car.Builder()
-                    .brand(createCarDTO.brand())
-                    .model(createCarDTO.model())
-                    .year(createCarDTO.year())
-                    .color(createCarDTO.color())
-                    .fuelType(createCarDTO.fuelType())
-                    .vin(createCarDTO.vin())
-                    .build();
+        Car car = buildCar(createCarDTO);
             carRepository.persist(car);
-            return CarMapper.toDTO(car);
+            return saved(car);
     }
 
     @Override
     @Transactional
-    @CacheInvalidate(cacheName = "car-cache")
-    @CacheInvalidate(cacheName = "car-offers-cache")
-    public CarDTO updateCar(@CacheKey Long id, UpdateCarDTO carDTO) {
+    public CarDTO updateCar(Long id, UpdateCarDTO carDTO) {
         log.info("Updating car ID: {}", id);
         Car car = carRepository.findByIdOptional(id)
                     .orElseThrow(() -> new CarNotFoundException(id));
+            CarDTO previous = CarMapper.toDTO(car);
             car.setBrand(carDTO.brand());
             car.setModel(carDTO.model());
             car.setYear(carDTO.year());
             car.setColor(carDTO.color());
             car.setFuelType(carDTO.fuelType());
-            return CarMapper.toDTO(car);
+            CarDTO updated = CarMapper.toDTO(car);
+            carChangedEvent.fire(CarChangedEvent.updated(previous, updated));
+            return updated;
     }
 
     @Override
     @Transactional
-    @CacheInvalidate(cacheName = "car-cache")
-    public void deleteCar(@CacheKey Long id) {
+    public void deleteCar(Long id) {
         log.info("Deleting car ID: {}", id);
         Car car = carRepository.findByIdOptional(id)
                     .orElseThrow(() -> new EntityNotFoundException("Car with ID " + id + " not found"));
+            CarDTO previous = CarMapper.toDTO(car);
             carRepository.delete(car);
+            carChangedEvent.fire(CarChangedEvent.deleted(previous));
     }
 
     @Override
-    public PaginatedResponse<CarDTO> findByBrandAndModel(String brand, String model, int page, int size) {
+    @Transactional
+    public List<CarImportResult> importChunk(List<CarImportRow> rows) {
+        Set<String> existingVins = carRepository.findExistingVins(rows.stream().map(row -> row.car().vin()).toList());
+        Set<String> seenVins = new HashSet<>();
+        List<CarImportResult> results = new ArrayList<>(rows.size());
+
+        int persisted = 0;
+        for (CarImportRow row : rows) {
+            String vin = row.car().vin();
+            if (existingVins.contains(vin) || !seenVins.add(vin)) {
+                results.add(CarImportResult.duplicate(row.line(), vin));
+                continue;
+            }
+            Car car = buildCar(row.car());
+            carRepository.persist(car);
+            saved(car);
+            results.add(CarImportResult.created(row.line(), vin, car.getId()));
+            if (++persisted % BULK_CHUNK_SIZE == 0) {
+                carRepository.flush();
+                carRepository.getEntityManager().clear();
+            }
+        }
+        carRepository.flush();
+        carRepository.getEntityManager().clear();
+        log.info("Imported chunk of {} rows, {} created", rows.size(), persisted);
+        return results;
+    }
+
+    private CarDTO saved(Car car) {
+        CarDTO carDTO = CarMapper.toDTO(car);
+        carChangedEvent.fire(CarChangedEvent.saved(carDTO));
+        return carDTO;
+    }
+
+    private Car buildCar(CreateCarDTO createCarDTO) {
+        return new Car.Builder()
+                .brand(createCarDTO.brand())
+                .model(createCarDTO.model())
+                .year(createCarDTO.year())
+                .color(createCarDTO.color())
+                .fuelType(createCarDTO.fuelType())
+                .vin(createCarDTO.vin())
+                .build();
+    }
+
+    @Override
+    @ReadOnly
+    public PaginatedResponse<CarDTO> findByBrandAndModel(String brand, String model, int page, int size, TotalMode totalMode) {
         log.info("Searching cars by brand '{}' and model '{}'", brand, model);
         if ((brand == null || brand.isBlank()) && (model == null || model.isBlank())) {
             throw new IllegalArgumentException("Brand or model must be provided.");
         }
-        PanacheQuery<Car> carQuery = carRepository.findByBrandAndModelPaged(brand, model, page, size);
-        long totalItems = carQuery.count();
-        List<CarDTO> carDTOs = carQuery.stream()
+        PagedResult<Car> result = carRepository.findByBrandAndModelPaged(brand, model, page, size, totalMode != TotalMode.NONE);
+        List<CarDTO> carDTOs = result.items().stream()
                 .map(CarMapper::toDTO).toList();
 
-        return new PaginatedResponse<>(carDTOs, totalItems, carQuery.pageCount(), page, size);
+        return PaginatedResponse.of(carDTOs, result.totalItems(), page, size);
     }
 
     @Override
-    public PaginatedResponse<CarDTO> findCarsByYearRange(int startYear, int endYear, int page, int size) {
+    @ReadOnly
+    public PaginatedResponse<CarDTO> findCarsByYearRange(int startYear, int endYear, int page, int size, TotalMode totalMode) {
         log.info("Fetching cars between year range {} and {}", startYear, endYear);
 
         if (startYear <= 0 || endYear <= 0) {
             throw new IllegalArgumentException("At least one of the years (startYear or endYear) must be a valid positive number.");
         }
 
-        PanacheQuery<Car> carQuery = carRepository.findByYearBetweenPaged(startYear, endYear, page, size);
-        long totalItems = carQuery.count();
+        PagedResult<Car> result = carRepository.findByYearBetweenPaged(startYear, endYear, page, size, totalMode != TotalMode.NONE);
+
+        List<CarDTO> carDTOs = result.items()
+                .stream().map(CarMapper::toDTO).toList();
+        return PaginatedResponse.of(carDTOs, result.totalItems(), page, size)
+                .withNextCursor(car -> PageCursor.of(car.year(), car.id()));
+    }
+
+    @Override
+    @ReadOnly
+    public PaginatedResponse<CarDTO> findCarsByYearRangeAfter(int startYear, int endYear, String cursor, int size) {
+        log.info("Fetching cars between year range {} and {} after cursor", startYear, endYear);
+
+        if (startYear <= 0 || endYear <= 0) {
+            throw new IllegalArgumentException("At least one of the years (startYear or endYear) must be a valid positive number.");
+        }
 
-        List<CarDTO> carDTOs = carQuery
+        PageCursor after = PageCursor.decode(cursor);
+        List<CarDTO> carDTOs = carRepository.findByYearBetweenAfter(startYear, endYear, after.sortKeyAsInt(), after.id(), size + 1)
                 .stream().map(CarMapper::toDTO).toList();
-        return new PaginatedResponse<>(carDTOs, totalItems, carQuery.pageCount(), page, size);
+        return PaginatedResponse.ofKeyset(carDTOs, size, car -> PageCursor.of(car.year(), car.id()));
     }
 
     @Override
     @CacheResult(cacheName = "search-cache")
+    @ReadOnly(replica = false)
     public List<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy,
                                    boolean asc, int page, int size) {
         log.info("Searching cars with filters: brand={}, model={}, year={}, color={}", brand, model, year, color);
@@ -150,6 +247,26 @@ public class CarServiceImpl implements CarService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @ReadOnly
+    public List<CarDTO> fullTextSearch(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty.");
+        }
+        log.info("Full-text car search: q={}, page={}, size={}", query, page, size);
+        return carRepository.fullTextSearch(query.trim(), page, size).stream()
+                .map(CarMapper::toDTO)
+                .toList();
+    }
 
+    @Override
+    @ReadOnly
+    public CarFacetSearchDTO facetedSearch(String brand, String model, FuelType fuelType, String color, Integer year, int page, int size) {
+        CarFacetIndex.Hits hits = carFacetIndex.search(brand, model, fuelType, color, year, page * size, size);
+        List<CarDTO> cars = hits.ids().isEmpty()
+                ? List.of()
+                : carRepository.findByIds(hits.ids()).stream().map(CarMapper::toDTO).toList();
+        return new CarFacetSearchDTO(cars, hits.total(), page, size, hits.facets());
+    }
 
 }
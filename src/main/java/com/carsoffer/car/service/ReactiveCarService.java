@@ -0,0 +1,15 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+public interface ReactiveCarService {
+
+    Uni<CarDTO> getCarById(Long id);
+
+    Multi<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy, boolean asc, int page, int size);
+
+    Multi<CarDTO> fullTextSearch(String query, int page, int size);
+}
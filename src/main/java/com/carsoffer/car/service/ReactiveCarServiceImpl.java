@@ -0,0 +1,53 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.repository.ReactiveCarRepository;
+import com.carsoffer.common.exceptions.CarNotFoundException;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking counterpart of the query side of {@link CarServiceImpl}, active in the {@code reactive} build profile.
+ * Writes stay on the blocking service, which owns auditing and cache invalidation.
+ */
+@IfBuildProfile("reactive")
+@ApplicationScoped
+public class ReactiveCarServiceImpl implements ReactiveCarService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCarServiceImpl.class);
+    private final ReactiveCarRepository carRepository;
+
+    @Inject
+    public ReactiveCarServiceImpl(ReactiveCarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @Override
+    public Uni<CarDTO> getCarById(Long id) {
+        log.info("Fetching car by ID: {}", id);
+        return carRepository.findById(id)
+                .onItem().ifNull().failWith(() -> new CarNotFoundException(id));
+    }
+
+    @Override
+    public Multi<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy,
+                                    boolean asc, int page, int size) {
+        log.info("Searching cars with filters: brand={}, model={}, year={}, color={}", brand, model, year, color);
+        return carRepository.searchCar(brand, model, year, color, fuelType, sortBy, asc, page, size);
+    }
+
+    @Override
+    public Multi<CarDTO> fullTextSearch(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            return Multi.createFrom().failure(new IllegalArgumentException("Search query must not be empty."));
+        }
+        log.info("Full-text car search: q={}, page={}, size={}", query, page, size);
+        return carRepository.fullTextSearch(query.trim(), page, size);
+    }
+}
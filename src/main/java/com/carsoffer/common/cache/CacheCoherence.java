@@ -0,0 +1,223 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.offer.dto.OfferChangedEvent;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the caches of all instances sharing the database coherent. The car and offer changes of a transaction are
+ * sent to the other instances as one {@code pg_notify} on {@code carsoffer.cache.coherence.channel}, issued just before
+ * commit: Postgres delivers it only if the transaction commits, after it has committed. Every instance listens on a
+ * dedicated connection and applies the changes of the others through {@link CarCacheDependencies}, as if they had been
+ * written locally.
+ * <p>
+ * A message that would exceed the notification payload limit, or a bulk offer create, is sent as a flush that clears
+ * the caches instead. So does a listener reconnecting, as it may have missed messages while it was away.
+ */
+@ApplicationScoped
+public class CacheCoherence {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCoherence.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+
+    /**
+     * One transaction's changes, or {@code flush} when every cache should be cleared.
+     */
+    public record Invalidation(String node, List<CarChangedEvent> cars, List<OfferChangedEvent> offers, boolean flush) {
+    }
+
+    private final boolean enabled;
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final CarCacheDependencies dependencies;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionSynchronizationRegistry transactions;
+    private final String node = UUID.randomUUID().toString();
+    private CacheCoherenceListener listener;
+
+    @Inject
+    public CacheCoherence(@ConfigProperty(name = "carsoffer.cache.coherence.enabled", defaultValue = "true") boolean enabled,
+                          @ConfigProperty(name = "carsoffer.cache.coherence.channel", defaultValue = "carsoffer_cache") String channel,
+                          @ConfigProperty(name = "quarkus.datasource.jdbc.url") String url,
+                          @ConfigProperty(name = "quarkus.datasource.username") String username,
+                          @ConfigProperty(name = "quarkus.datasource.password") String password,
+                          CarCacheDependencies dependencies, ObjectMapper objectMapper, EntityManager entityManager,
+                          TransactionSynchronizationRegistry transactions) {
+        this.enabled = enabled;
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.dependencies = dependencies;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactions = transactions;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    synchronized void start() {
+        if (!enabled || listener != null) {
+            return;
+        }
+        listener = new CacheCoherenceListener(() -> DriverManager.getConnection(url, username, password), channel,
+                this::receive, dependencies::invalidateAll);
+        listener.start();
+    }
+
+    synchronized void stop() {
+        if (listener != null) {
+            listener.stop();
+            listener = null;
+        }
+    }
+
+    /**
+     * Waits until this instance listens, so a test can publish without losing the first message.
+     */
+    boolean awaitListening(Duration timeout) throws InterruptedException {
+        CacheCoherenceListener current;
+        synchronized (this) {
+            current = listener;
+        }
+        return current != null && current.awaitListening(timeout);
+    }
+
+    void onCarChanged(@Observes CarChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (transactions.getTransactionKey() == null) {
+            publish(new Invalidation(node, List.of(event), List.of(), false));
+        } else {
+            Invalidation pending = pending();
+            if (!pending.flush()) {
+                pending.cars().add(event);
+            }
+        }
+    }
+
+    void onOfferChanged(@Observes OfferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (transactions.getTransactionKey() == null) {
+            publish(new Invalidation(node, List.of(), List.of(event), false));
+        } else {
+            Invalidation pending = pending();
+            if (!pending.flush()) {
+                pending.offers().add(event);
+            }
+        }
+    }
+
+    /**
+     * A bulk create is sent as a flush right away rather than as changes the other instances could apply one by one.
+     */
+    void onOffersCreated(@Observes OffersCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Invalidation flush = new Invalidation(node, List.of(), List.of(), true);
+        if (transactions.getTransactionKey() == null) {
+            publish(flush);
+        } else {
+            pending();
+            transactions.putResource(CacheCoherence.class, flush);
+        }
+    }
+
+    /**
+     * The changes collected for the current transaction. The first change registers their publication before commit.
+     * Once they have turned into a flush, later changes are not collected any more.
+     */
+    private Invalidation pending() {
+        Invalidation pending = (Invalidation) transactions.getResource(CacheCoherence.class);
+        if (pending == null) {
+            Invalidation created = new Invalidation(node, new ArrayList<>(), new ArrayList<>(), false);
+            transactions.putResource(CacheCoherence.class, created);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    publish((Invalidation) transactions.getResource(CacheCoherence.class));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void publish(Invalidation invalidation) {
+        entityManager.createNativeQuery("select pg_notify(?1, ?2)")
+                .setParameter(1, channel)
+                .setParameter(2, encode(invalidation))
+                .getSingleResult();
+    }
+
+    String encode(Invalidation invalidation) {
+        try {
+            String payload = objectMapper.writeValueAsString(invalidation);
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            return objectMapper.writeValueAsString(new Invalidation(node, List.of(), List.of(), true));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cache invalidation", e);
+        }
+    }
+
+    void receive(String payload) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(payload, Invalidation.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation, clearing caches: {}", e.getMessage());
+            dependencies.invalidateAll();
+            return;
+        }
+        if (node.equals(invalidation.node())) {
+            return; // evicted locally after commit already
+        }
+        if (invalidation.flush()) {
+            dependencies.invalidateAll();
+            return;
+        }
+        invalidation.cars().forEach(dependencies::onCarChanged);
+        invalidation.offers().forEach(dependencies::onOfferChanged);
+    }
+}
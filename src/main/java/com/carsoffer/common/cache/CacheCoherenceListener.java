@@ -0,0 +1,124 @@
+package com.carsoffer.common.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Listens on a channel over its own connection, outside the pool, and hands every notification's payload to
+ * {@code onMessage}. A lost connection is reopened with backoff; {@code onReconnect} runs once it listens again, since
+ * notifications sent in between are lost.
+ */
+final class CacheCoherenceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCoherenceListener.class);
+
+    private static final int POLL_MILLIS = 1_000;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory connections;
+    private final String channel;
+    private final Consumer<String> onMessage;
+    private final Runnable onReconnect;
+    private final CountDownLatch listening = new CountDownLatch(1);
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    CacheCoherenceListener(ConnectionFactory connections, String channel, Consumer<String> onMessage, Runnable onReconnect) {
+        this.connections = connections;
+        this.channel = channel;
+        this.onMessage = onMessage;
+        this.onReconnect = onReconnect;
+    }
+
+    void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("cache-coherence-listener").daemon().start(this::run);
+    }
+
+    void stop() {
+        running = false;
+        closeQuietly(connection);
+        thread.interrupt();
+    }
+
+    boolean awaitListening(Duration timeout) throws InterruptedException {
+        return listening.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        Duration backoff = Duration.ofSeconds(1);
+        while (running) {
+            try (Connection opened = connections.open()) {
+                connection = opened;
+                try (Statement statement = opened.createStatement()) {
+                    // channel names are identifiers, not bindable
+                    statement.execute("LISTEN \"" + channel.replace("\"", "\"\"") + "\"");
+                }
+                if (connectedBefore) {
+                    log.info("Listening for cache invalidations again, clearing caches");
+                    onReconnect.run();
+                }
+                connectedBefore = true;
+                backoff = Duration.ofSeconds(1);
+                listening.countDown();
+                poll(opened.unwrap(PGConnection.class));
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener failed, retrying in {}: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void poll(PGConnection listener) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = listener.getNotifications(POLL_MILLIS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    onMessage.accept(notification.getParameter());
+                } catch (RuntimeException e) {
+                    log.warn("Could not apply cache invalidation: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing the listener connection failed: {}", e.getMessage());
+        }
+    }
+}
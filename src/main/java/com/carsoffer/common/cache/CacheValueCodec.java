@@ -0,0 +1,331 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CarWithOfferDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.offer.dto.OfferDTO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Packs cached values into compact bytes and back, for {@link OffHeapStore} and for the near caches through
+ * {@link CacheValuePacker}. Every value starts with a byte of null flags, so absent fields take no space; ids and
+ * counts are variable-length, brands, models and colors are dictionary ids, a VIN is its 17 ASCII bytes, a price of
+ * scale 2 is a count of cents and a timestamp is epoch milliseconds plus the nanoseconds beyond them, almost always
+ * zero. Values that do not fit a compact form, such as a price of another scale, are stored in full, so decoding
+ * always gives back an equal value.
+ * <p>
+ * The tag is stored next to the bytes in {@link OffHeapStore}, so entries can be invalidated by it without decoding them.
+ */
+interface CacheValueCodec<T> {
+
+    boolean accepts(Object value);
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    default long tag(T value) {
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    default byte[] encodeValue(Object value) {
+        return encode((T) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    default long tagValue(Object value) {
+        return tag((T) value);
+    }
+
+    int VIN_LENGTH = 17;
+    // flags after the seven fields of a car and of an offer
+    int VIN_PACKED = 7;
+    int PRICE_IN_CENTS = 7;
+    StringDictionary BRANDS = new StringDictionary(1 << 16);
+    StringDictionary MODELS = new StringDictionary(1 << 16);
+    StringDictionary COLORS = new StringDictionary(1 << 16);
+
+    CacheValueCodec<CarDTO> CAR = new CacheValueCodec<>() {
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof CarDTO;
+        }
+
+        @Override
+        public byte[] encode(CarDTO car) {
+            PackedWriter out = new PackedWriter();
+            writeCar(out, car.id(), car.brand(), car.model(), car.year(), car.color(), car.fuelType(), car.vin());
+            return out.toByteArray();
+        }
+
+        @Override
+        public CarDTO decode(byte[] bytes) {
+            return readCar(new PackedReader(bytes));
+        }
+    };
+
+    CacheValueCodec<OfferDTO> OFFER = new CacheValueCodec<>() {
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof OfferDTO;
+        }
+
+        @Override
+        public byte[] encode(OfferDTO offer) {
+            PackedWriter out = new PackedWriter();
+            writeOffer(out, offer);
+            return out.toByteArray();
+        }
+
+        @Override
+        public OfferDTO decode(byte[] bytes) {
+            return readOffer(new PackedReader(bytes));
+        }
+
+        @Override
+        public long tag(OfferDTO offer) {
+            return offer.carId() == null ? 0 : offer.carId();
+        }
+    };
+
+    CacheValueCodec<CarWithOfferDTO> CAR_WITH_OFFERS = new CacheValueCodec<>() {
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof CarWithOfferDTO car
+                    && (car.offers() == null || car.offers().stream().allMatch(Objects::nonNull));
+        }
+
+        @Override
+        public byte[] encode(CarWithOfferDTO car) {
+            PackedWriter out = new PackedWriter();
+            writeCar(out, car.id(), car.brand(), car.model(), car.year(), car.color(), car.fuelType(), car.vin());
+            out.writeByte(car.hasMoreOffers() ? 1 : 0);
+            writeOffers(out, car.offers());
+            return out.toByteArray();
+        }
+
+        @Override
+        public CarWithOfferDTO decode(byte[] bytes) {
+            PackedReader in = new PackedReader(bytes);
+            CarDTO car = readCar(in);
+            boolean hasMoreOffers = in.readByte() != 0;
+            List<OfferDTO> offers = readOffers(in);
+            return new CarWithOfferDTO(car.id(), car.brand(), car.model(), car.year(), car.color(), car.fuelType(),
+                    car.vin(), offers == null ? null : new LinkedHashSet<>(offers), hasMoreOffers);
+        }
+    };
+
+    /**
+     * A page of offers, as cached by {@code offer-list-cache}.
+     */
+    CacheValueCodec<PaginatedResponse<OfferDTO>> OFFER_PAGE = new CacheValueCodec<>() {
+
+        @Override
+        public boolean accepts(Object value) {
+            return value instanceof PaginatedResponse<?> page
+                    && page.getItems() != null
+                    && page.getItems().stream().allMatch(OfferDTO.class::isInstance);
+        }
+
+        @Override
+        public byte[] encode(PaginatedResponse<OfferDTO> page) {
+            PackedWriter out = new PackedWriter();
+            writeOffers(out, page.getItems());
+            out.writeSigned(page.getTotalItems());
+            out.writeSigned(page.getTotalPages());
+            out.writeSigned(page.getCurrentPage());
+            out.writeSigned(page.getPageSize());
+            out.writeByte(page.getNextCursor() == null ? 0 : 1);
+            if (page.getNextCursor() != null) {
+                out.writeString(page.getNextCursor());
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        public PaginatedResponse<OfferDTO> decode(byte[] bytes) {
+            PackedReader in = new PackedReader(bytes);
+            List<OfferDTO> items = readOffers(in);
+            PaginatedResponse<OfferDTO> page = new PaginatedResponse<>(items, in.readSigned(), (int) in.readSigned(),
+                    (int) in.readSigned(), (int) in.readSigned());
+            if (in.readByte() != 0) {
+                page.setNextCursor(in.readString());
+            }
+            return page;
+        }
+    };
+
+    List<CacheValueCodec<?>> ALL = List.of(CAR, OFFER, CAR_WITH_OFFERS, OFFER_PAGE);
+
+    /**
+     * The codec for {@code value}, or {@code null} if it has none.
+     */
+    static CacheValueCodec<?> forValue(Object value) {
+        for (CacheValueCodec<?> codec : ALL) {
+            if (codec.accepts(value)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    private static int flags(Object... fields) {
+        int flags = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                flags |= 1 << i;
+            }
+        }
+        return flags;
+    }
+
+    private static boolean has(int flags, int field) {
+        return (flags & (1 << field)) != 0;
+    }
+
+    private static void writeCar(PackedWriter out, Long id, String brand, String model, Integer year, String color,
+                                 FuelType fuelType, String vin) {
+        boolean vinPacked = isAsciiVin(vin);
+        out.writeByte(flags(id, brand, model, year, color, fuelType, vin) | (vinPacked ? 1 << VIN_PACKED : 0));
+        if (id != null) {
+            out.writeSigned(id);
+        }
+        if (brand != null) {
+            out.writeInterned(BRANDS, brand);
+        }
+        if (model != null) {
+            out.writeInterned(MODELS, model);
+        }
+        if (year != null) {
+            out.writeSigned(year);
+        }
+        if (color != null) {
+            out.writeInterned(COLORS, color);
+        }
+        if (fuelType != null) {
+            out.writeByte(fuelType.ordinal());
+        }
+        if (vinPacked) {
+            out.writeAscii(vin);
+        } else if (vin != null) {
+            out.writeString(vin);
+        }
+    }
+
+    private static CarDTO readCar(PackedReader in) {
+        int flags = in.readByte();
+        Long id = has(flags, 0) ? in.readSigned() : null;
+        String brand = has(flags, 1) ? in.readInterned(BRANDS) : null;
+        String model = has(flags, 2) ? in.readInterned(MODELS) : null;
+        Integer year = has(flags, 3) ? (int) in.readSigned() : null;
+        String color = has(flags, 4) ? in.readInterned(COLORS) : null;
+        FuelType fuelType = has(flags, 5) ? FuelType.values()[in.readByte()] : null;
+        String vin = has(flags, VIN_PACKED) ? in.readAscii(VIN_LENGTH) : has(flags, 6) ? in.readString() : null;
+        return new CarDTO(id, brand, model, year, color, fuelType, vin);
+    }
+
+    private static boolean isAsciiVin(String vin) {
+        return vin != null && vin.length() == VIN_LENGTH && vin.chars().allMatch(c -> c < 0x80);
+    }
+
+    private static void writeOffer(PackedWriter out, OfferDTO offer) {
+        BigDecimal price = offer.price();
+        boolean inCents = price != null && price.scale() == 2 && price.unscaledValue().bitLength() < Long.SIZE;
+        out.writeByte(flags(offer.id(), offer.customerFirstName(), offer.customerLastName(), price, offer.offerDate(),
+                offer.updatedOffer(), offer.carId()) | (inCents ? 1 << PRICE_IN_CENTS : 0));
+        if (offer.id() != null) {
+            out.writeSigned(offer.id());
+        }
+        if (offer.customerFirstName() != null) {
+            out.writeString(offer.customerFirstName());
+        }
+        if (offer.customerLastName() != null) {
+            out.writeString(offer.customerLastName());
+        }
+        if (inCents) {
+            out.writeSigned(price.unscaledValue().longValue());
+        } else if (price != null) {
+            out.writeSigned(price.scale());
+            out.writeBytes(price.unscaledValue().toByteArray());
+        }
+        if (offer.offerDate() != null) {
+            writeDateTime(out, offer.offerDate());
+        }
+        if (offer.updatedOffer() != null) {
+            writeDateTime(out, offer.updatedOffer());
+        }
+        if (offer.carId() != null) {
+            out.writeSigned(offer.carId());
+        }
+    }
+
+    private static OfferDTO readOffer(PackedReader in) {
+        int flags = in.readByte();
+        Long id = has(flags, 0) ? in.readSigned() : null;
+        String firstName = has(flags, 1) ? in.readString() : null;
+        String lastName = has(flags, 2) ? in.readString() : null;
+        BigDecimal price = null;
+        if (has(flags, PRICE_IN_CENTS)) {
+            price = BigDecimal.valueOf(in.readSigned(), 2);
+        } else if (has(flags, 3)) {
+            int scale = (int) in.readSigned();
+            price = new BigDecimal(new BigInteger(in.readBytes()), scale);
+        }
+        LocalDateTime offerDate = has(flags, 4) ? readDateTime(in) : null;
+        LocalDateTime updatedOffer = has(flags, 5) ? readDateTime(in) : null;
+        Long carId = has(flags, 6) ? in.readSigned() : null;
+        return new OfferDTO(id, firstName, lastName, price, offerDate, updatedOffer, carId);
+    }
+
+    /**
+     * A count plus one followed by the offers, or zero for no collection at all.
+     */
+    private static void writeOffers(PackedWriter out, Collection<OfferDTO> offers) {
+        if (offers == null) {
+            out.writeUnsigned(0);
+            return;
+        }
+        out.writeUnsigned(offers.size() + 1L);
+        offers.forEach(offer -> writeOffer(out, offer));
+    }
+
+    private static List<OfferDTO> readOffers(PackedReader in) {
+        int count = (int) in.readUnsigned() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<OfferDTO> offers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            offers.add(readOffer(in));
+        }
+        return offers;
+    }
+
+    private static void writeDateTime(PackedWriter out, LocalDateTime value) {
+        long seconds = value.toEpochSecond(ZoneOffset.UTC);
+        int nanos = value.getNano();
+        out.writeSigned(seconds * 1_000 + nanos / 1_000_000);
+        out.writeUnsigned(nanos % 1_000_000);
+    }
+
+    private static LocalDateTime readDateTime(PackedReader in) {
+        long millis = in.readSigned();
+        int subMillisecondNanos = (int) in.readUnsigned();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1_000),
+                Math.floorMod(millis, 1_000) * 1_000_000 + subMillisecondNanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,125 @@
+package com.carsoffer.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the values of the {@link RefreshAheadCache} caches as {@link CacheValueCodec} bytes, decoded only when an entry
+ * is read, and bounds each cache by the memory its entries take rather than by their number.
+ * <p>
+ * Quarkus builds its Caffeine caches without a weigher, so the bound is applied through {@code maximum-size}: every
+ * {@value #RESIZE_EVERY} packed values the entry limit is set to {@code carsoffer.cache.packed.<cache>.max-weight}
+ * divided by the average packed size plus {@link #ENTRY_OVERHEAD}. The cache's own {@code maximum-size} is the limit
+ * until the first value is packed and must be set for the limit to be changed. Without a {@code max-weight} values are
+ * still packed and the entry limit is left alone.
+ */
+@ApplicationScoped
+public class CacheValuePacker {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheValuePacker.class);
+
+    public static final String SIZE = "carsoffer.cache.packed.size";
+    static final String PREFIX = "carsoffer.cache.packed.";
+    // the Caffeine node, key, future, Loaded and Packed objects and the array header of an entry, roughly
+    static final int ENTRY_OVERHEAD = 160;
+    static final int RESIZE_EVERY = 256;
+
+    /**
+     * Packed bytes and the codec to decode them with.
+     */
+    record Packed(CacheValueCodec<?> codec, byte[] bytes) {
+
+        Object decode() {
+            return codec.decode(bytes);
+        }
+    }
+
+    private static final class Weight {
+
+        final long maxWeight;
+        final AtomicLong values = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        volatile long maximumSize = -1;
+
+        Weight(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final ToLongFunction<String> maxWeights;
+    private final Map<String, Weight> weights = new ConcurrentHashMap<>();
+
+    @Inject
+    public CacheValuePacker(MeterRegistry registry, Config config) {
+        this(registry, cacheName -> config.getOptionalValue(PREFIX + cacheName + ".max-weight", MemorySize.class)
+                .map(MemorySize::asLongValue)
+                .orElse(0L));
+    }
+
+    CacheValuePacker(MeterRegistry registry, ToLongFunction<String> maxWeights) {
+        this.registry = registry;
+        this.maxWeights = maxWeights;
+    }
+
+    /**
+     * The value to store in {@code cache}: packed if there is a codec for it, otherwise {@code value} itself.
+     */
+    Object pack(Cache cache, Object value) {
+        CacheValueCodec<?> codec = CacheValueCodec.forValue(value);
+        if (codec == null) {
+            return value;
+        }
+        byte[] bytes = codec.encodeValue(value);
+        registry.summary(SIZE, "cache", cache.getName()).record(bytes.length);
+        weigh(cache, bytes.length);
+        return new Packed(codec, bytes);
+    }
+
+    /**
+     * The value a stored entry stands for, decoding it if it was packed.
+     */
+    static Object unpack(Object stored) {
+        return stored instanceof Packed packed ? packed.decode() : stored;
+    }
+
+    private void weigh(Cache cache, int bytes) {
+        Weight weight = weights.computeIfAbsent(cache.getName(),
+                cacheName -> new Weight(maxWeights.applyAsLong(cacheName)));
+        if (weight.maxWeight <= 0) {
+            return;
+        }
+        long values = weight.values.incrementAndGet();
+        long totalBytes = weight.bytes.addAndGet(bytes);
+        if (weight.maximumSize >= 0 && values % RESIZE_EVERY != 0) {
+            return;
+        }
+        long averageWeight = totalBytes / values + ENTRY_OVERHEAD;
+        long maximumSize = Math.max(1, weight.maxWeight / averageWeight);
+        long current = weight.maximumSize;
+        // small drifts in the average are not worth Caffeine re-evaluating the cache
+        if (current >= 0 && Math.abs(maximumSize - current) * 10 < current) {
+            return;
+        }
+        try {
+            cache.as(CaffeineCache.class).setMaximumSize(maximumSize);
+            weight.maximumSize = maximumSize;
+            log.debug("Bounded {} to {} entries of about {} bytes", cache.getName(), maximumSize, averageWeight);
+        } catch (IllegalStateException e) {
+            log.warn("Cannot bound {} by weight: {}", cache.getName(), e.getMessage());
+            weights.put(cache.getName(), new Weight(0));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.offer.dto.OfferChangedEvent;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.cache.CompositeCacheKey;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Evicts the cache entries a committed car or offer write affects, and only those:
+ * <ul>
+ *     <li>{@code car-cache} and {@code car-offers-cache} by car id, for the car itself and for both the old and the new
+ *     car of an offer;</li>
+ *     <li>{@code search-cache} entries whose filters match the car before or after the write, since only those can
+ *     gain, lose or show the car;</li>
+ *     <li>{@code offer-cache} and the {@code offer-list-cache} pages holding the offer, or every offer of a deleted car.
+ *     Creates and deletes shift the pages and totals, so they clear {@code offer-list-cache};</li>
+ *     <li>{@code offer-facets-cache} when an offer's price or car, or a car's brand, fuel type or year changes.</li>
+ * </ul>
+ * The {@link OffHeapTier} behind {@code car-cache} and {@code offer-cache} is evicted along with them, and every eviction
+ * is counted in {@link InvalidationGenerations} first, so a load that raced it is not cached afterwards.
+ * Eviction runs after commit, so a read racing the write cannot cache the state the transaction is about to replace.
+ */
+@ApplicationScoped
+public class CarCacheDependencies {
+
+    private static final Logger log = LoggerFactory.getLogger(CarCacheDependencies.class);
+
+    private final Cache carCache;
+    private final Cache carOffersCache;
+    private final Cache searchCache;
+    private final Cache offerCache;
+    private final Cache offerListCache;
+    private final Cache offerFacetsCache;
+    private final OffHeapTier offHeapTier;
+    private final InvalidationGenerations generations;
+
+    @Inject
+    public CarCacheDependencies(@CacheName("car-cache") Cache carCache,
+                                @CacheName("car-offers-cache") Cache carOffersCache,
+                                @CacheName("search-cache") Cache searchCache,
+                                @CacheName("offer-cache") Cache offerCache,
+                                @CacheName("offer-list-cache") Cache offerListCache,
+                                @CacheName("offer-facets-cache") Cache offerFacetsCache,
+                                OffHeapTier offHeapTier,
+                                InvalidationGenerations generations) {
+        this.carCache = carCache;
+        this.carOffersCache = carOffersCache;
+        this.searchCache = searchCache;
+        this.offerCache = offerCache;
+        this.offerListCache = offerListCache;
+        this.offerFacetsCache = offerFacetsCache;
+        this.offHeapTier = offHeapTier;
+        this.generations = generations;
+    }
+
+    void onCarChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) CarChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        invalidate(carCache, event.id());
+        offHeapTier.invalidate(carCache.getName(), event.id());
+        invalidate(carOffersCache, event.id());
+        invalidateWhere(searchCache, (key, value) -> key instanceof CompositeCacheKey search
+                && (SearchKey.of(search).matches(event.previous()) || SearchKey.of(search).matches(event.car())));
+
+        if (event.isDeleted()) {
+            // the car's offers are deleted with it
+            invalidateWhere(offerCache, (key, value) -> value instanceof OfferDTO offer && event.id().equals(offer.carId()));
+            // the tier's offers are found by tag, not key, so loads of any offer in flight are dropped
+            generations.invalidatedAll(offerCache.getName());
+            offHeapTier.invalidateTagged(offerCache.getName(), event.id());
+            invalidateAll(offerListCache);
+            invalidateAll(offerFacetsCache);
+        } else if (event.previous() != null && facetsChanged(event.previous(), event.car())) {
+            invalidateAll(offerFacetsCache);
+        }
+    }
+
+    void onOfferChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) OfferChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        invalidate(offerCache, event.id());
+        offHeapTier.invalidate(offerCache.getName(), event.id());
+        Stream.of(event.previous(), event.offer())
+                .filter(Objects::nonNull)
+                .map(OfferDTO::carId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(carId -> invalidate(carOffersCache, carId));
+
+        if (event.isCreated() || event.isDeleted()) {
+            invalidateAll(offerListCache);
+            invalidateAll(offerFacetsCache);
+            return;
+        }
+        invalidateWhere(offerListCache, (key, value) -> value instanceof PaginatedResponse<?> page
+                && page.getItems().stream().anyMatch(item -> item instanceof OfferDTO offer && event.id().equals(offer.id())));
+        if (!Objects.equals(event.previous().carId(), event.offer().carId())
+                || event.previous().price().compareTo(event.offer().price()) != 0) {
+            invalidateAll(offerFacetsCache);
+        }
+    }
+
+    /**
+     * A bulk create adds offers to a known set of cars: new offers are in no offer cache yet, but they shift every page
+     * and total.
+     */
+    void onOffersCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) OffersCreatedEvent event) {
+        event.carIds().forEach(carId -> invalidate(carOffersCache, carId));
+        invalidateAll(offerListCache);
+        invalidateAll(offerFacetsCache);
+    }
+
+    /**
+     * Clears every cache this class maintains, for changes whose extent is unknown.
+     */
+    public void invalidateAll() {
+        Stream.of(carCache, carOffersCache, searchCache, offerCache, offerListCache, offerFacetsCache)
+                .forEach(this::invalidateAll);
+        offHeapTier.invalidateAll();
+        log.debug("Cleared all car and offer caches");
+    }
+
+    private static boolean facetsChanged(CarDTO previous, CarDTO car) {
+        return !Objects.equals(previous.brand(), car.brand())
+                || previous.fuelType() != car.fuelType()
+                || !Objects.equals(previous.year(), car.year());
+    }
+
+    private void invalidate(Cache cache, Object key) {
+        generations.invalidated(cache.getName(), key);
+        cache.invalidate(key).await().indefinitely();
+    }
+
+    private void invalidateAll(Cache cache) {
+        generations.invalidatedAll(cache.getName());
+        cache.invalidateAll().await().indefinitely();
+    }
+
+    /**
+     * Invalidates the entries matching {@code affected}. Entries still being computed are invalidated too, as their value
+     * may have been read before the write.
+     */
+    private void invalidateWhere(Cache cache, BiPredicate<Object, Object> affected) {
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        int evicted = 0;
+        for (Object key : caffeineCache.keySet()) {
+            CompletableFuture<Object> value = caffeineCache.getIfPresent(key);
+            Object cached = value != null && value.isDone() && !value.isCompletedExceptionally()
+                    ? RefreshAheadCache.unwrap(value.getNow(null)) : null;
+            if (cached == null || affected.test(key, cached)) {
+                invalidate(cache, key);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} entries from {}", evicted, cache.getName());
+        }
+    }
+
+    /**
+     * The arguments of {@code CarServiceImpl.searchCars}, in order, and the repository's filter semantics: case-insensitive
+     * substring for text, minimum for year, exact fuel type, blank text meaning no filter.
+     */
+    record SearchKey(String brand, String model, Integer year, String color, FuelType fuelType) {
+
+        static SearchKey of(CompositeCacheKey key) {
+            Object[] elements = key.getKeyElements();
+            return new SearchKey((String) elements[0], (String) elements[1], (Integer) elements[2],
+                    (String) elements[3], (FuelType) elements[4]);
+        }
+
+        boolean matches(CarDTO car) {
+            return car != null
+                    && contains(car.brand(), brand)
+                    && contains(car.model(), model)
+                    && (year == null || (car.year() != null && car.year() >= year))
+                    && contains(car.color(), color)
+                    && (fuelType == null || fuelType == car.fuelType());
+        }
+
+        private static boolean contains(String value, String filter) {
+            if (filter == null || filter.isEmpty()) {
+                return true;
+            }
+            return value != null && value.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT));
+        }
+    }
+}
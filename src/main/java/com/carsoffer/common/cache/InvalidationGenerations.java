@@ -0,0 +1,57 @@
+package com.carsoffer.common.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the invalidations of each cache key, so a value loaded while its key was invalidated is dropped instead of
+ * cached over the eviction. Evictions are counted before the entry is removed. A writer reads {@link #current} before
+ * loading and stores only if it is unchanged. The check and the store are not atomic, so the writer checks again after
+ * storing and invalidates its own entry if the key was evicted in between.
+ * <p>
+ * Keys share counters by hash, so an eviction occasionally drops an unrelated load as well, which only costs a miss.
+ */
+@ApplicationScoped
+public class InvalidationGenerations {
+
+    static final int STRIPES = 1024;
+
+    private static final class Generations {
+
+        final AtomicLong all = new AtomicLong();
+        final AtomicLongArray keys = new AtomicLongArray(STRIPES);
+    }
+
+    private final Map<String, Generations> byCache = new ConcurrentHashMap<>();
+
+    /**
+     * Changes whenever {@code key} or the whole cache is invalidated; both counters only grow, so neither change can
+     * cancel out the other.
+     */
+    public long current(String cacheName, Object key) {
+        Generations generations = of(cacheName);
+        return generations.all.get() + generations.keys.get(stripe(key));
+    }
+
+    public void invalidated(String cacheName, Object key) {
+        of(cacheName).keys.incrementAndGet(stripe(key));
+    }
+
+    public void invalidatedAll(String cacheName) {
+        of(cacheName).all.incrementAndGet();
+    }
+
+    private Generations of(String cacheName) {
+        return byCache.computeIfAbsent(cacheName, name -> new Generations());
+    }
+
+    private static int stripe(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (STRIPES - 1);
+    }
+}
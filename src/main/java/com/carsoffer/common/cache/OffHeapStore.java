@@ -0,0 +1,345 @@
+package com.carsoffer.common.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Byte values keyed by {@code long}, held entirely in direct memory so the garbage collector never traces them.
+ * <p>
+ * Values are appended to a ring of fixed-size pages, each record as {@code length, key, tag, written at, bytes}. When
+ * the ring or the index is full, the oldest records are dropped first, so eviction frees exactly the bytes the new
+ * value needs whether it evicts one large record or many small ones. A value written again supersedes its old record,
+ * which is reclaimed when the ring comes round to it.
+ * <p>
+ * The index is an open-addressing table of {@code key, position} pairs in direct memory as well. The tag is a caller
+ * chosen {@code long} (e.g. an offer's car id) that {@link #removeIf(LongPredicate)} can match without decoding values.
+ * <p>
+ * The index is allocated up front, the pages only when the ring first reaches them.
+ */
+final class OffHeapStore {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES * 3;
+    private static final int KEY = Integer.BYTES;
+    private static final int TAG = KEY + Long.BYTES;
+    private static final int WRITTEN_AT = TAG + Long.BYTES;
+    // where the next record did not fit on the page; a record starts with its length, never negative
+    private static final int END_OF_PAGE = -1;
+
+    private final ByteBuffer[] pages;
+    private final int pageSize;
+    private final long capacity;
+    private final LongBuffer index;
+    private final int mask;
+    private final int maxEntries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long head;
+    private long tail;
+    private long usedBytes;
+    private int size;
+
+    OffHeapStore(long capacityBytes, int pageSize, int maxEntries) {
+        if (pageSize <= HEADER_BYTES || capacityBytes < pageSize) {
+            throw new IllegalArgumentException("Capacity must hold at least one page larger than a record header");
+        }
+        int pageCount = Math.toIntExact(capacityBytes / pageSize);
+        this.pages = new ByteBuffer[pageCount];
+        this.pageSize = pageSize;
+        this.capacity = (long) pageCount * pageSize;
+        int slots = slots(maxEntries);
+        this.index = ByteBuffer.allocateDirect(Math.multiplyExact(slots, Long.BYTES * 2)).asLongBuffer();
+        this.mask = slots - 1;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The direct memory a store of these dimensions takes once every page is in use.
+     */
+    static long directBytes(long capacityBytes, int pageSize, int maxEntries) {
+        return capacityBytes / pageSize * pageSize + (long) slots(maxEntries) * Long.BYTES * 2;
+    }
+
+    private static int slots(int maxEntries) {
+        // at most half full, so probes stay short
+        return Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+    }
+
+    /**
+     * The value stored under {@code key} if it was written at or after {@code notBefore}, in the caller's clock.
+     */
+    byte[] get(long key, long notBefore) {
+        lock.readLock().lock();
+        try {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            long position = position(slot);
+            ByteBuffer page = page(position);
+            int offset = offset(position);
+            if (page.getLong(offset + WRITTEN_AT) < notBefore) {
+                return null;
+            }
+            byte[] value = new byte[page.getInt(offset)];
+            page.get(offset + HEADER_BYTES, value, 0, value.length);
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores {@code value}, evicting the oldest records as needed. Returns {@code false} for a value larger than a page.
+     */
+    boolean put(long key, long tag, byte[] value, long writtenAt) {
+        int recordBytes = HEADER_BYTES + value.length;
+        if (recordBytes > pageSize) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int pageRemaining = pageSize - offset(head);
+            int needed = recordBytes <= pageRemaining ? recordBytes : pageRemaining + recordBytes;
+            while (capacity - usedBytes < needed) {
+                evictOldest();
+                if (usedBytes == 0) {
+                    // empty, start over at the first page rather than skipping the rest of this one
+                    head = 0;
+                    tail = 0;
+                    pageRemaining = pageSize;
+                    needed = recordBytes;
+                }
+            }
+            int slot = find(key);
+            while (slot < 0 && size >= maxEntries) {
+                evictOldest();
+            }
+            if (recordBytes > pageRemaining) {
+                if (pageRemaining >= HEADER_BYTES) {
+                    writablePage(head).putInt(offset(head), END_OF_PAGE);
+                }
+                usedBytes += pageRemaining;
+                head = advance(head, pageRemaining);
+            }
+            ByteBuffer page = writablePage(head);
+            int offset = offset(head);
+            page.putInt(offset, value.length);
+            page.putLong(offset + KEY, key);
+            page.putLong(offset + TAG, tag);
+            page.putLong(offset + WRITTEN_AT, writtenAt);
+            page.put(offset + HEADER_BYTES, value, 0, value.length);
+
+            // evicting may have dropped the key or moved it within the index
+            slot = find(key);
+            if (slot < 0) {
+                insert(key, head);
+                size++;
+            } else {
+                index.put(slot * 2 + 1, head + 1);
+            }
+            usedBytes += recordBytes;
+            head = advance(head, recordBytes);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(key);
+            if (slot >= 0) {
+                removeSlot(slot);
+                size--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every live record whose tag matches. Only record headers are read.
+     */
+    int removeIf(LongPredicate tagMatches) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            long position = tail;
+            long remaining = usedBytes;
+            while (remaining > 0) {
+                int pageRemaining = pageSize - offset(position);
+                ByteBuffer page = page(position);
+                int offset = offset(position);
+                if (pageRemaining < HEADER_BYTES || page.getInt(offset) == END_OF_PAGE) {
+                    remaining -= pageRemaining;
+                    position = advance(position, pageRemaining);
+                    continue;
+                }
+                long key = page.getLong(offset + KEY);
+                int recordBytes = HEADER_BYTES + page.getInt(offset);
+                int slot = find(key);
+                if (slot >= 0 && position(slot) == position && tagMatches.test(page.getLong(offset + TAG))) {
+                    removeSlot(slot);
+                    size--;
+                    removed++;
+                }
+                remaining -= recordBytes;
+                position = advance(position, recordBytes);
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < index.capacity(); i++) {
+                index.put(i, 0);
+            }
+            head = 0;
+            tail = 0;
+            usedBytes = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * The bytes of the pages allocated so far.
+     */
+    long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            long allocated = 0;
+            for (ByteBuffer page : pages) {
+                if (page != null) {
+                    allocated += pageSize;
+                }
+            }
+            return allocated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void evictOldest() {
+        int pageRemaining = pageSize - offset(tail);
+        ByteBuffer page = page(tail);
+        int offset = offset(tail);
+        if (pageRemaining < HEADER_BYTES || page.getInt(offset) == END_OF_PAGE) {
+            usedBytes -= pageRemaining;
+            tail = advance(tail, pageRemaining);
+            return;
+        }
+        long key = page.getLong(offset + KEY);
+        int recordBytes = HEADER_BYTES + page.getInt(offset);
+        int slot = find(key);
+        if (slot >= 0 && position(slot) == tail) {
+            removeSlot(slot);
+            size--;
+        }
+        usedBytes -= recordBytes;
+        tail = advance(tail, recordBytes);
+    }
+
+    private long advance(long position, int bytes) {
+        long next = position + bytes;
+        return next >= capacity ? next - capacity : next;
+    }
+
+    private ByteBuffer page(long position) {
+        return pages[(int) (position / pageSize)];
+    }
+
+    private ByteBuffer writablePage(long position) {
+        int page = (int) (position / pageSize);
+        if (pages[page] == null) {
+            pages[page] = ByteBuffer.allocateDirect(pageSize);
+        }
+        return pages[page];
+    }
+
+    private int offset(long position) {
+        return (int) (position % pageSize);
+    }
+
+    private long position(int slot) {
+        return index.get(slot * 2 + 1) - 1;
+    }
+
+    private int find(long key) {
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long reference = index.get(slot * 2 + 1);
+            if (reference == 0) {
+                return -1;
+            }
+            if (index.get(slot * 2) == key) {
+                return slot;
+            }
+        }
+    }
+
+    private void insert(long key, long position) {
+        int slot = home(key);
+        while (index.get(slot * 2 + 1) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.put(slot * 2, key);
+        index.put(slot * 2 + 1, position + 1);
+    }
+
+    /**
+     * Linear probing removal: later entries of the probe run move back into the gap unless their home slot lies
+     * cyclically after it.
+     */
+    private void removeSlot(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & mask; index.get(next * 2 + 1) != 0; next = (next + 1) & mask) {
+            int home = home(index.get(next * 2));
+            boolean staysPut = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+            if (!staysPut) {
+                index.put(gap * 2, index.get(next * 2));
+                index.put(gap * 2 + 1, index.get(next * 2 + 1));
+                gap = next;
+            }
+        }
+        index.put(gap * 2, 0);
+        index.put(gap * 2 + 1, 0);
+    }
+
+    private int home(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,160 @@
+package com.carsoffer.common.cache;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Off-heap second tier behind the Caffeine caches of single entities by id, {@code car-cache} and {@code offer-cache}.
+ * The Caffeine cache stays the small near cache of hot entries; this tier keeps the long tail in an {@link OffHeapStore}
+ * of {@code carsoffer.cache.off-heap.<cache>.capacity} bytes, so it can grow to gigabytes without adding to the heap the
+ * garbage collector has to trace. Entries are dropped after {@code .ttl}, like the near cache's, and evicted by
+ * {@link CarCacheDependencies} along with it. A cache without a capacity has no second tier.
+ * <p>
+ * Direct memory is limited by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size. Pages are
+ * allocated as the tier fills, but startup fails if the configured tiers could outgrow the limit once full.
+ */
+@ApplicationScoped
+public class OffHeapTier {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapTier.class);
+
+    public static final String REQUESTS = "carsoffer.cache.off-heap.requests";
+    static final String PREFIX = "carsoffer.cache.off-heap.";
+    static final int PAGE_SIZE = 64 * 1024 * 1024;
+
+    private static final Map<String, CacheValueCodec<?>> CODECS = Map.of(
+            "car-cache", CacheValueCodec.CAR,
+            "offer-cache", CacheValueCodec.OFFER);
+
+    record Tier<T>(OffHeapStore store, CacheValueCodec<T> codec, Duration ttl) {
+    }
+
+    private final MeterRegistry registry;
+    private final Map<String, Tier<?>> tiers;
+    private final LongSupplier ticker;
+
+    @Inject
+    public OffHeapTier(MeterRegistry registry, Config config) {
+        this(registry, tiers(config), System::nanoTime);
+    }
+
+    OffHeapTier(MeterRegistry registry, Map<String, Tier<?>> tiers, LongSupplier ticker) {
+        this.registry = registry;
+        this.tiers = tiers;
+        this.ticker = ticker;
+        tiers.forEach((cacheName, tier) -> {
+            OffHeapStore store = tier.store();
+            Gauge.builder("carsoffer.cache.off-heap.entries", store, OffHeapStore::size)
+                    .tag("cache", cacheName).register(registry);
+            Gauge.builder("carsoffer.cache.off-heap.used", store, OffHeapStore::usedBytes)
+                    .tag("cache", cacheName).baseUnit("bytes").register(registry);
+            Gauge.builder("carsoffer.cache.off-heap.capacity", store, OffHeapStore::capacity)
+                    .tag("cache", cacheName).baseUnit("bytes").register(registry);
+            Gauge.builder("carsoffer.cache.off-heap.allocated", store, OffHeapStore::allocatedBytes)
+                    .tag("cache", cacheName).baseUnit("bytes").register(registry);
+        });
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        // created at startup, so a tier too large for direct memory fails here instead of on the first read
+        log.debug("Off-heap tiers for {}", tiers.keySet());
+    }
+
+    private static Map<String, Tier<?>> tiers(Config config) {
+        Map<String, Tier<?>> tiers = new HashMap<>();
+        long[] directBytes = {0};
+        CODECS.forEach((cacheName, codec) -> {
+            long capacity = config.getOptionalValue(PREFIX + cacheName + ".capacity", MemorySize.class)
+                    .map(MemorySize::asLongValue)
+                    .orElse(0L);
+            if (capacity <= 0) {
+                return;
+            }
+            int pageSize = (int) Math.min(PAGE_SIZE, capacity);
+            int maxEntries = config.getOptionalValue(PREFIX + cacheName + ".max-entries", Integer.class).orElse(1_000_000);
+            Duration ttl = config.getOptionalValue(PREFIX + cacheName + ".ttl", Duration.class).orElse(Duration.ofHours(1));
+            directBytes[0] += OffHeapStore.directBytes(capacity, pageSize, maxEntries);
+            tiers.put(cacheName, new Tier<>(new OffHeapStore(capacity, pageSize, maxEntries), codec, ttl));
+            log.info("Off-heap tier for {}: {} bytes, up to {} entries", cacheName, capacity, maxEntries);
+        });
+        if (!tiers.isEmpty()) {
+            checkDirectMemory(directBytes[0], maxDirectMemory());
+        }
+        return Map.copyOf(tiers);
+    }
+
+    static void checkDirectMemory(long required, long limit) {
+        if (required > limit) {
+            throw new IllegalStateException("The off-heap cache tiers need up to " + required
+                    + " bytes of direct memory, more than the " + limit + " bytes -XX:MaxDirectMemorySize allows."
+                    + " Lower " + PREFIX + "<cache>.capacity or .max-entries, or raise -XX:MaxDirectMemorySize");
+        }
+    }
+
+    private static long maxDirectMemory() {
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        long configured = hotSpot == null ? 0 : Long.parseLong(hotSpot.getVMOption("MaxDirectMemorySize").getValue());
+        return configured > 0 ? configured : Runtime.getRuntime().maxMemory();
+    }
+
+    public boolean handles(String cacheName) {
+        return tiers.containsKey(cacheName);
+    }
+
+    /**
+     * The value cached under {@code id}, or {@code null}.
+     */
+    public Object get(String cacheName, long id) {
+        Tier<?> tier = tiers.get(cacheName);
+        if (tier == null) {
+            return null;
+        }
+        byte[] bytes = tier.store().get(id, ticker.getAsLong() - tier.ttl().toNanos());
+        registry.counter(REQUESTS, "cache", cacheName, "result", bytes == null ? "miss" : "hit").increment();
+        return bytes == null ? null : tier.codec().decode(bytes);
+    }
+
+    public void put(String cacheName, long id, Object value) {
+        Tier<?> tier = tiers.get(cacheName);
+        if (tier != null && tier.codec().accepts(value)) {
+            tier.store().put(id, tier.codec().tagValue(value), tier.codec().encodeValue(value), ticker.getAsLong());
+        }
+    }
+
+    public void invalidate(String cacheName, long id) {
+        Tier<?> tier = tiers.get(cacheName);
+        if (tier != null) {
+            tier.store().remove(id);
+        }
+    }
+
+    /**
+     * Invalidates the entries tagged {@code tag}, e.g. the offers of a car.
+     */
+    public void invalidateTagged(String cacheName, long tag) {
+        Tier<?> tier = tiers.get(cacheName);
+        if (tier != null) {
+            int removed = tier.store().removeIf(entryTag -> entryTag == tag);
+            log.debug("Evicted {} off-heap entries tagged {} from {}", removed, tag, cacheName);
+        }
+    }
+
+    public void invalidateAll() {
+        tiers.values().forEach(tier -> tier.store().clear());
+    }
+}
@@ -0,0 +1,62 @@
+package com.carsoffer.common.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads back what {@link PackedWriter} wrote, in the same order.
+ */
+final class PackedReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    PackedReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    int readByte() {
+        return bytes[position++] & 0xFF;
+    }
+
+    long readUnsigned() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    long readSigned() {
+        long zigzag = readUnsigned();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    byte[] readBytes() {
+        int length = Math.toIntExact(readUnsigned());
+        byte[] value = new byte[length];
+        System.arraycopy(bytes, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    String readString() {
+        int length = Math.toIntExact(readUnsigned());
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    String readAscii(int length) {
+        String value = new String(bytes, position, length, StandardCharsets.ISO_8859_1);
+        position += length;
+        return value;
+    }
+
+    String readInterned(StringDictionary dictionary) {
+        long reference = readUnsigned();
+        return reference == 0 ? readString() : dictionary.string((int) reference - 1);
+    }
+}
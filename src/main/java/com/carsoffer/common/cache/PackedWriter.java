@@ -0,0 +1,85 @@
+package com.carsoffer.common.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Appends values to a growing byte array for {@link CacheValueCodec}: integers as variable-length quantities, so small
+ * ids and counts take one or two bytes, strings as their UTF-8 length and bytes.
+ */
+final class PackedWriter {
+
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    void writeByte(int value) {
+        ensure(1);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Seven bits per byte, low bits first; the high bit marks that more bytes follow. Negative values take ten bytes,
+     * use {@link #writeSigned(long)} for those.
+     */
+    void writeUnsigned(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Zigzag encoded, so small negative values stay short too.
+     */
+    void writeSigned(long value) {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    void writeBytes(byte[] value) {
+        writeUnsigned(value.length);
+        writeRaw(value);
+    }
+
+    void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The chars of a string known to be ASCII, one byte each and without a length.
+     */
+    void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * The dictionary id of {@code value} plus one, or zero followed by the string when the dictionary is full.
+     */
+    void writeInterned(StringDictionary dictionary, String value) {
+        int id = dictionary.idOf(value);
+        writeUnsigned(id + 1L);
+        if (id < 0) {
+            writeString(value);
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private void writeRaw(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+    }
+
+    private void ensure(int more) {
+        if (size + more > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.carsoffer.common.cache;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the method's result like {@code @CacheResult}, under the same keys, but refreshes entries before they expire
+ * and keeps serving an expired entry while it is reloaded in the background. See {@link RefreshAheadCache}.
+ */
+@InterceptorBinding
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RefreshAhead {
+
+    @Nonbinding
+    String cacheName() default "";
+}
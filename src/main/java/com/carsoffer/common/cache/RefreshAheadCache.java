@@ -0,0 +1,239 @@
+package com.carsoffer.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Loads cache entries once per key and refreshes them before they go stale, so a hot entry expiring does not send every
+ * request for it to the database at once:
+ * <ul>
+ *     <li>concurrent misses for a key wait for the one load in flight instead of running their own;</li>
+ *     <li>an entry is refreshed early with a probability that grows as it nears {@code fresh-for} and with how long it
+ *     took to load (XFetch), so usually one request reloads it while the others keep reading the cached value;</li>
+ *     <li>an entry older than {@code fresh-for} is still served for up to {@code stale-for} while it is reloaded in the
+ *     background. Older entries are loaded again by the caller.</li>
+ * </ul>
+ * Per-cache settings are read from {@code carsoffer.cache.refresh-ahead.<cache>.fresh-for}, {@code .stale-for} and
+ * {@code .beta}; the cache's own {@code expire-after-write} should cover {@code fresh-for} plus {@code stale-for}.
+ * <p>
+ * Entries are stored as {@link Loaded} in the named Quarkus cache, so they are invalidated by key as usual. A reload only
+ * replaces the entry it was started from and only if {@link InvalidationGenerations} saw no eviction of its key since it
+ * started, so it does not bring back an entry invalidated while it ran. Values are packed
+ * by {@link CacheValuePacker} and decoded again on every read.
+ */
+@ApplicationScoped
+public class RefreshAheadCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    public static final String COUNTER = "carsoffer.cache.refresh-ahead";
+    static final String PREFIX = "carsoffer.cache.refresh-ahead.";
+
+    record Policy(Duration freshFor, Duration staleFor, double beta) {
+    }
+
+    /**
+     * A cached value, possibly packed, with the time it was loaded at and how long loading it took, both in ticker
+     * nanoseconds.
+     */
+    record Loaded(Object value, long loadedAt, long loadNanos) {
+    }
+
+    private record InFlight(String cacheName, Object key) {
+    }
+
+    private final MeterRegistry registry;
+    private final CacheValuePacker packer;
+    private final InvalidationGenerations generations;
+    private final Function<String, Policy> policies;
+    private final ExecutorService reloader;
+    private final LongSupplier ticker;
+    private final DoubleSupplier random;
+    private final Map<String, Policy> policyByCache = new ConcurrentHashMap<>();
+    private final Map<InFlight, Boolean> loading = new ConcurrentHashMap<>();
+    private final Map<InFlight, Boolean> reloading = new ConcurrentHashMap<>();
+
+    @Inject
+    public RefreshAheadCache(MeterRegistry registry, CacheValuePacker packer, InvalidationGenerations generations,
+                             Config config) {
+        this(registry, packer, generations, cacheName -> policy(config, cacheName),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-refresh-", 0).factory()),
+                System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RefreshAheadCache(MeterRegistry registry, CacheValuePacker packer, InvalidationGenerations generations,
+                      Function<String, Policy> policies, ExecutorService reloader, LongSupplier ticker,
+                      DoubleSupplier random) {
+        this.registry = registry;
+        this.packer = packer;
+        this.generations = generations;
+        this.policies = policies;
+        this.reloader = reloader;
+        this.ticker = ticker;
+        this.random = random;
+    }
+
+    private static Policy policy(Config config, String cacheName) {
+        return new Policy(
+                config.getOptionalValue(PREFIX + cacheName + ".fresh-for", Duration.class).orElse(Duration.ofMinutes(5)),
+                config.getOptionalValue(PREFIX + cacheName + ".stale-for", Duration.class).orElse(Duration.ofMinutes(1)),
+                config.getOptionalValue(PREFIX + cacheName + ".beta", Double.class).orElse(1.0));
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        reloader.shutdownNow();
+    }
+
+    /**
+     * The cached value of a {@link Loaded} entry, or {@code cached} itself for entries not stored through this class.
+     */
+    public static Object unwrap(Object cached) {
+        return cached instanceof Loaded loaded ? CacheValuePacker.unpack(loaded.value()) : cached;
+    }
+
+    /**
+     * Returns the value cached under {@code key}, calling {@code load} on this thread if there is none, and scheduling
+     * {@code reload} on a background thread when the entry is due for a refresh.
+     */
+    public Object get(Cache cache, Object key, Callable<Object> load, Callable<Object> reload) throws Exception {
+        Policy policy = policyByCache.computeIfAbsent(cache.getName(), policies);
+        long freshNanos = policy.freshFor().toNanos();
+        long maxAgeNanos = freshNanos + policy.staleFor().toNanos();
+
+        Loaded loaded = getOrLoad(cache, key, load);
+        long age = ticker.getAsLong() - loaded.loadedAt();
+        if (age >= maxAgeNanos) {
+            // too stale to serve, e.g. the cache's expire-after-write is longer than the policy
+            cache.invalidate(key).await().indefinitely();
+            loaded = getOrLoad(cache, key, load);
+        } else if (age >= freshNanos) {
+            count(cache, "stale-served");
+            reload(cache, key, loaded, reload);
+        } else if (age + xfetchGap(loaded, policy) >= freshNanos) {
+            count(cache, "early-refresh");
+            reload(cache, key, loaded, reload);
+        }
+        return CacheValuePacker.unpack(loaded.value());
+    }
+
+    /**
+     * How far ahead of expiry this read refreshes: {@code -loadNanos * beta * ln(random)}, usually a small multiple of
+     * the load time, occasionally much more.
+     */
+    private long xfetchGap(Loaded loaded, Policy policy) {
+        double uniform = random.getAsDouble();
+        if (uniform <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) (-loaded.loadNanos() * policy.beta() * Math.log(uniform));
+    }
+
+    private Loaded getOrLoad(Cache cache, Object key, Callable<Object> load) throws Exception {
+        InFlight inFlight = new InFlight(cache.getName(), key);
+        if (loading.containsKey(inFlight)) {
+            count(cache, "coalesced");
+        }
+        try {
+            return cache.get(key, k -> load(cache, inFlight, load)).await().indefinitely();
+        } catch (LoadFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    private Loaded load(Cache cache, InFlight inFlight, Callable<Object> load) {
+        loading.put(inFlight, Boolean.TRUE);
+        long start = ticker.getAsLong();
+        try {
+            Object value = load.call();
+            long end = ticker.getAsLong();
+            return new Loaded(packer.pack(cache, value), end, end - start);
+        } catch (Exception e) {
+            throw new LoadFailure(e);
+        } finally {
+            loading.remove(inFlight);
+        }
+    }
+
+    private void reload(Cache cache, Object key, Loaded current, Callable<Object> reload) {
+        InFlight inFlight = new InFlight(cache.getName(), key);
+        if (reloading.putIfAbsent(inFlight, Boolean.TRUE) != null) {
+            return;
+        }
+        long generation = generations.current(cache.getName(), key);
+        try {
+            reloader.execute(() -> {
+                try {
+                    long start = ticker.getAsLong();
+                    Object value = reload.call();
+                    long end = ticker.getAsLong();
+                    replace(cache, key, current, generation, new Loaded(packer.pack(cache, value), end, end - start));
+                } catch (Exception e) {
+                    count(cache, "refresh-failed");
+                    log.warn("Could not refresh {} entry {}: {}", cache.getName(), key, e.getMessage());
+                } finally {
+                    reloading.remove(inFlight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reloading.remove(inFlight);
+        }
+    }
+
+    private void replace(Cache cache, Object key, Loaded current, long generation, Loaded reloaded) {
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        CompletableFuture<Object> cached = caffeineCache.getIfPresent(key);
+        if (evictedSince(cache, key, generation) || cached == null || !cached.isDone()
+                || cached.isCompletedExceptionally() || cached.getNow(null) != current) {
+            // invalidated or reloaded by someone else while this reload ran
+            count(cache, "refresh-discarded");
+            return;
+        }
+        caffeineCache.put(key, CompletableFuture.completedFuture(reloaded));
+        if (evictedSince(cache, key, generation)) {
+            // evicted between the check and the put, which may have restored the value the eviction was for
+            cache.invalidate(key).await().indefinitely();
+            count(cache, "refresh-discarded");
+        }
+    }
+
+    private boolean evictedSince(Cache cache, Object key, long generation) {
+        return generations.current(cache.getName(), key) != generation;
+    }
+
+    private void count(Cache cache, String event) {
+        registry.counter(COUNTER, "cache", cache.getName(), "event", event).increment();
+    }
+
+    private static final class LoadFailure extends RuntimeException {
+
+        LoadFailure(Exception cause) {
+            super(null, cause, false, false);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.carsoffer.common.cache;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheKey;
+import io.quarkus.cache.CacheManager;
+import io.quarkus.cache.CompositeCacheKey;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serves {@link RefreshAhead} methods from {@link RefreshAheadCache}. Keys are built like {@code @CacheResult} builds
+ * them, so the entries can be invalidated by key as before.
+ * <p>
+ * A background reload calls the method again through its bean, on a thread with its own request context, so the
+ * reload runs the same interceptors ({@code @ReadOnly}, query timing) as a request would.
+ */
+@RefreshAhead
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 2)
+public class RefreshAheadInterceptor {
+
+    private static final ThreadLocal<Boolean> RELOADING = new ThreadLocal<>();
+
+    private final CacheManager cacheManager;
+    private final RefreshAheadCache refreshAheadCache;
+
+    @Inject
+    public RefreshAheadInterceptor(CacheManager cacheManager, RefreshAheadCache refreshAheadCache) {
+        this.cacheManager = cacheManager;
+        this.refreshAheadCache = refreshAheadCache;
+    }
+
+    @AroundInvoke
+    Object cached(InvocationContext context) throws Exception {
+        if (RELOADING.get() == Boolean.TRUE) {
+            // nested cached calls made by the reload are served as usual
+            RELOADING.set(Boolean.FALSE);
+            return context.proceed();
+        }
+        RefreshAhead binding = context.getInterceptorBinding(RefreshAhead.class);
+        Cache cache = cacheManager.getCache(binding.cacheName())
+                .orElseThrow(() -> new IllegalStateException("Unknown cache " + binding.cacheName()));
+        Object target = context.getTarget();
+        Method method = context.getMethod();
+        Object[] arguments = context.getParameters().clone();
+        return refreshAheadCache.get(cache, key(cache, method, arguments), context::proceed,
+                () -> reload(target, method, arguments));
+    }
+
+    /**
+     * Whether the current thread is reloading an entry in the background.
+     */
+    public static boolean isReloading() {
+        return RELOADING.get() != null;
+    }
+
+    private static Object reload(Object target, Method method, Object[] arguments) throws Exception {
+        ManagedContext requestContext = Arc.container().requestContext();
+        requestContext.activate();
+        RELOADING.set(Boolean.TRUE);
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            RELOADING.remove();
+            requestContext.terminate();
+        }
+    }
+
+    /**
+     * The {@link CacheKey} arguments if any are annotated, all arguments otherwise; a single element is the key itself.
+     */
+    static Object key(Cache cache, Method method, Object[] arguments) {
+        Parameter[] parameters = method.getParameters();
+        List<Object> elements = new ArrayList<>(arguments.length);
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAnnotationPresent(CacheKey.class)) {
+                elements.add(arguments[i]);
+            }
+        }
+        if (elements.isEmpty()) {
+            elements = Arrays.asList(arguments);
+        }
+        return switch (elements.size()) {
+            case 0 -> cache.getDefaultKey();
+            case 1 -> elements.get(0);
+            default -> new CompositeCacheKey(elements.toArray());
+        };
+    }
+}
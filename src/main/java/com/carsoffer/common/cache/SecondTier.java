@@ -0,0 +1,22 @@
+package com.carsoffer.common.cache;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts the {@link OffHeapTier} behind the named cache of a method looking an entity up by its {@code Long} id. A miss
+ * in the near cache is served from the tier if it holds the entity, and loaded entities are written to it.
+ */
+@InterceptorBinding
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SecondTier {
+
+    @Nonbinding
+    String cacheName() default "";
+}
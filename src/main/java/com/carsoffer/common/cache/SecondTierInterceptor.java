@@ -0,0 +1,52 @@
+package com.carsoffer.common.cache;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Runs inside the cache interceptors, so it is only reached on a near-cache miss, and before {@code @ReadOnly}, so a hit
+ * opens no session. A background refresh reads the database, not the tier it would otherwise refresh from. A value
+ * whose key was evicted while it loaded is not written to the tier, as it may predate the write behind the eviction.
+ */
+@SecondTier
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class SecondTierInterceptor {
+
+    private final OffHeapTier offHeapTier;
+    private final InvalidationGenerations generations;
+
+    @Inject
+    public SecondTierInterceptor(OffHeapTier offHeapTier, InvalidationGenerations generations) {
+        this.offHeapTier = offHeapTier;
+        this.generations = generations;
+    }
+
+    @AroundInvoke
+    Object tiered(InvocationContext context) throws Exception {
+        String cacheName = context.getInterceptorBinding(SecondTier.class).cacheName();
+        Object[] parameters = context.getParameters();
+        if (!offHeapTier.handles(cacheName) || parameters.length != 1 || !(parameters[0] instanceof Long id)) {
+            return context.proceed();
+        }
+        long generation = generations.current(cacheName, id);
+        if (!RefreshAheadInterceptor.isReloading()) {
+            Object cached = offHeapTier.get(cacheName, id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Object value = context.proceed();
+        if (generations.current(cacheName, id) == generation) {
+            offHeapTier.put(cacheName, id, value);
+            if (generations.current(cacheName, id) != generation) {
+                // evicted between the check and the put
+                offHeapTier.invalidate(cacheName, id);
+            }
+        }
+        return value;
+    }
+}
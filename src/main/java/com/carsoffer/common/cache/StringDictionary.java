@@ -0,0 +1,58 @@
+package com.carsoffer.common.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers the distinct values of a low-cardinality field, such as car brands, so packed cache values store a small id
+ * instead of the string. Ids are never reused or removed, which keeps every packed value decodable for the life of the
+ * process; once {@code maxSize} values are known, new ones get no id and are stored inline by the caller.
+ */
+final class StringDictionary {
+
+    private final int maxSize;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[64];
+    private int size;
+
+    StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The id of {@code value}, assigning the next one if it is new, or {@code -1} when the dictionary is full.
+     */
+    int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (size >= maxSize) {
+                return -1;
+            }
+            String[] current = strings;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            // published before the id, so whoever reads the id can read the string
+            current[size] = value;
+            strings = current;
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    String string(int id) {
+        return strings[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.carsoffer.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests that run at the same time, sized to the JDBC pool by default. With virtual threads
+ * nothing else bounds concurrency, so without it every request would queue inside the pool until its acquisition
+ * timeout. A request that cannot get a permit within {@code carsoffer.admission.max-wait} is turned away instead.
+ * <p>
+ * The time spent waiting for a permit is timed as {@value #WAIT}, tagged with whether the request got in, and the
+ * requests turned away are counted as {@value #SHED}.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    public static final String WAIT = "carsoffer.admission.wait";
+    public static final String SHED = "carsoffer.admission.shed";
+
+    public record Stats(int permits, int available, int waiting, long admitted, long rejected) {
+    }
+
+    private final int permits;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final Semaphore semaphore;
+    private final Timer admittedWait;
+    private final Timer rejectedWait;
+    private final Counter shed;
+
+    @Inject
+    public AdmissionController(MeterRegistry registry,
+                               @ConfigProperty(name = "carsoffer.admission.permits", defaultValue = "20") int permits,
+                               @ConfigProperty(name = "carsoffer.admission.max-wait", defaultValue = "250ms") Duration maxWait,
+                               @ConfigProperty(name = "carsoffer.admission.retry-after", defaultValue = "1s") Duration retryAfter) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("carsoffer.admission.permits must be at least 1.");
+        }
+        this.permits = permits;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.semaphore = new Semaphore(permits, true);
+        this.admittedWait = Timer.builder(WAIT).tag("result", "admitted").register(registry);
+        this.rejectedWait = Timer.builder(WAIT).tag("result", "rejected").register(registry);
+        this.shed = Counter.builder(SHED).register(registry);
+        Gauge.builder("carsoffer.admission.available", semaphore, Semaphore::availablePermits).register(registry);
+        Gauge.builder("carsoffer.admission.waiting", semaphore, Semaphore::getQueueLength).register(registry);
+    }
+
+    /**
+     * Waits up to the configured maximum for a permit. Every successful call must be paired with {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        long start = System.nanoTime();
+        try {
+            if (semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                admittedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        shed.increment();
+        return false;
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1, retryAfter.toSeconds());
+    }
+
+    public Stats stats() {
+        return new Stats(permits, semaphore.availablePermits(), semaphore.getQueueLength(), admittedWait.count(), (long) shed.count());
+    }
+}
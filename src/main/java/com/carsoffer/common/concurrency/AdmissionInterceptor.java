@@ -0,0 +1,72 @@
+package com.carsoffer.common.concurrency;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Sheds load with 503 and a {@code Retry-After} header when {@link AdmissionController} has no permit to give.
+ * It runs before transactions and caching so a rejected request never touches the pool.
+ * <p>
+ * A {@link StreamingOutput} body does its work after the method has returned, while the response is written, so it
+ * takes a permit of its own when the write starts and holds it until the write completes.
+ */
+@AdmissionControlled
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class AdmissionInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionInterceptor.class);
+    private final AdmissionController admissionController;
+
+    @Inject
+    public AdmissionInterceptor(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @AroundInvoke
+    Object admit(InvocationContext context) throws Exception {
+        Method method = context.getMethod();
+        acquire(method);
+        Object result;
+        try {
+            result = context.proceed();
+        } finally {
+            admissionController.release();
+        }
+        if (result instanceof StreamingOutput body) {
+            return admitted(body, method);
+        }
+        if (result instanceof Response response && response.getEntity() instanceof StreamingOutput body) {
+            return Response.fromResponse(response).entity(admitted(body, method)).build();
+        }
+        return result;
+    }
+
+    private StreamingOutput admitted(StreamingOutput body, Method method) {
+        return output -> {
+            acquire(method);
+            try {
+                body.write(output);
+            } finally {
+                admissionController.release();
+            }
+        };
+    }
+
+    private void acquire(Method method) {
+        if (!admissionController.tryAcquire()) {
+            log.warn("Rejected {}.{}: no admission permit available", method.getDeclaringClass().getSimpleName(), method.getName());
+            throw new ServiceUnavailableException("Server is busy, please retry later.", admissionController.retryAfterSeconds());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.carsoffer.common.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the JFR {@code jdk.VirtualThreadPinned} events, raised when a virtual thread blocks while pinned to its
+ * carrier (inside {@code synchronized} or native code) for longer than the threshold. A pinned virtual thread holds
+ * a carrier and, when it waits on the pool, a permit, so a rising count is the first thing to check under load.
+ * Each event is recorded in the {@value #PINNED} timer, whose count and total time are the pinned events and the time
+ * spent pinned.
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    public static final String PINNED = "carsoffer.virtual-threads.pinned";
+
+    public record Stats(long pinnedEvents, long pinnedMillis) {
+    }
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Timer pinned;
+    private RecordingStream recording;
+
+    @Inject
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @ConfigProperty(name = "carsoffer.virtual-threads.pinning-monitor.enabled", defaultValue = "true") boolean enabled,
+                                       @ConfigProperty(name = "carsoffer.virtual-threads.pinning-monitor.threshold", defaultValue = "20ms") Duration threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.pinned = Timer.builder(PINNED).register(registry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    public synchronized void start() {
+        if (!enabled || recording != null) {
+            return;
+        }
+        try {
+            recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::record);
+            recording.startAsync();
+        } catch (RuntimeException e) {
+            recording = null;
+            log.warn("JFR is not available, virtual thread pinning is not monitored", e);
+        }
+    }
+
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(pinned.count(), (long) pinned.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    void record(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+            log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                    frames.isEmpty() ? "unknown" : frames.getFirst().getMethod().getType().getName() + "." + frames.getFirst().getMethod().getName());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.carsoffer.common.controller;
+
+import com.carsoffer.common.concurrency.AdmissionController;
+import com.carsoffer.common.concurrency.VirtualThreadPinningMonitor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.Map;
+
+/**
+ * Serves a snapshot of the admission control and virtual thread pinning counters at {@value #PATH} on the management
+ * interface. The same numbers are exported as meters, see {@link AdmissionController} and
+ * {@link VirtualThreadPinningMonitor}.
+ */
+@ApplicationScoped
+public class RuntimeStatsController {
+
+    static final String PATH = "/admin/runtime";
+
+    private final AdmissionController admissionController;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public RuntimeStatsController(AdmissionController admissionController, VirtualThreadPinningMonitor pinningMonitor,
+                                  ObjectMapper objectMapper) {
+        this.admissionController = admissionController;
+        this.pinningMonitor = pinningMonitor;
+        this.objectMapper = objectMapper;
+    }
+
+    void registerRoutes(@Observes ManagementInterface managementInterface) {
+        managementInterface.router().get(PATH).handler(this::stats);
+    }
+
+    void stats(RoutingContext context) {
+        try {
+            context.response()
+                    .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                    .end(objectMapper.writeValueAsString(Map.of(
+                            "admission", admissionController.stats(),
+                            "virtualThreads", pinningMonitor.stats())));
+        } catch (JsonProcessingException e) {
+            context.fail(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.carsoffer.common.controller;
+
+import com.carsoffer.common.persistence.SlowQueryLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Serves the slowest statement fingerprints, with their sampled EXPLAIN (ANALYZE, BUFFERS) plans, at
+ * {@value #PATH}. The plans carry real bind values, so the routes live on the management interface
+ * ({@code quarkus.management.port}) rather than next to the public API; {@code DELETE} forgets the recorded statements.
+ */
+@ApplicationScoped
+public class SlowQueryController {
+
+    static final String PATH = "/admin/slow-queries";
+
+    private final SlowQueryLog slowQueryLog;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public SlowQueryController(SlowQueryLog slowQueryLog, ObjectMapper objectMapper) {
+        this.slowQueryLog = slowQueryLog;
+        this.objectMapper = objectMapper;
+    }
+
+    void registerRoutes(@Observes ManagementInterface managementInterface) {
+        managementInterface.router().get(PATH).handler(this::slowQueries);
+        managementInterface.router().delete(PATH).handler(this::clear);
+    }
+
+    void slowQueries(RoutingContext context) {
+        try {
+            context.response()
+                    .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                    .end(objectMapper.writeValueAsString(slowQueryLog.top()));
+        } catch (JsonProcessingException e) {
+            context.fail(e);
+        }
+    }
+
+    void clear(RoutingContext context) {
+        slowQueryLog.clear();
+        context.response().setStatusCode(204).end();
+    }
+}
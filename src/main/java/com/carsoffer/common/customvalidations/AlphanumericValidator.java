@@ -3,8 +3,18 @@ package com.carsoffer.common.customvalidations;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
+/**
+ * Accepts letters in the range {@code A}–{@code ž} (Basic Latin through Latin Extended-A, which covers the
+ * Croatian diacritics), plus digits unless {@code lettersOnly}, plus whitespace, {@code -} and {@code _} when
+ * {@code allowSpecialCharacters}. Surrounding whitespace is ignored, both for the check and for the length bounds.
+ * <p>
+ * The value is scanned in place, so validation neither compiles a pattern nor copies the string.
+ */
 public class AlphanumericValidator implements ConstraintValidator<Alphanumeric, String> {
 
+    private static final char FIRST_LETTER = 'A';
+    private static final char LAST_LETTER = 'ž';
+
     private int min;
     private int max;
     private boolean allowSpecialCharacters;
@@ -21,20 +31,45 @@ public class AlphanumericValidator implements ConstraintValidator<Alphanumeric,
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        if (value == null || value.trim().isEmpty()) {
+        if (value == null) {
             return true;
         }
 
-        value = value.trim();
-
-        String regex = lettersOnly
-                ? "^[A-Ža-ž]+$"
-                : (allowSpecialCharacters
-                ? "^[A-Ža-ž0-9\\s-_]+$"
-                : "^[A-Ža-ž0-9]+$");
+        // Same bounds as String.trim(): everything up to and including ' ' is stripped.
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return true;
+        }
 
-        return value.matches(regex) && value.length() >= min && value.length() <= max;
+        int length = end - start;
+        if (length < min || length > max) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isAllowed(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
-
+    private boolean isAllowed(char c) {
+        if (c >= FIRST_LETTER && c <= LAST_LETTER) {
+            return true;
+        }
+        if (lettersOnly) {
+            return false;
+        }
+        if (c >= '0' && c <= '9') {
+            return true;
+        }
+        return allowSpecialCharacters && (c == '-' || c == ' ' || (c >= '\t' && c <= '\r'));
+    }
 }
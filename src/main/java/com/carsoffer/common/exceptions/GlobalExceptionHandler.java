@@ -3,7 +3,9 @@ package com.carsoffer.common.exceptions;
 import com.carsoffer.common.exceptions.dto.ErrorResponse;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -28,6 +30,7 @@ public class GlobalExceptionHandler implements ExceptionMapper<Throwable> {
             case DuplicateCarException duplicateCarException -> handleDuplicateCarException(duplicateCarException);
             case IllegalArgumentException illegalArgumentException -> handleIllegalArgumentException(illegalArgumentException);
             case EntityNotFoundException entityNotFoundException -> handleEntityNotFoundException(entityNotFoundException);
+            case ServiceUnavailableException serviceUnavailableException -> handleServiceUnavailableException(serviceUnavailableException);
             case WebApplicationException webAppException -> handleWebApplicationException(webAppException);
             default -> handleGenericException(exception);
         };
@@ -57,6 +60,15 @@ public class GlobalExceptionHandler implements ExceptionMapper<Throwable> {
     }
 
 
+    private Response handleServiceUnavailableException(ServiceUnavailableException exception) {
+        log.warn("Service unavailable: {}", exception.getMessage());
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity(new ErrorResponse("Service unavailable", exception.getMessage()))
+                .header(HttpHeaders.RETRY_AFTER, exception.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER))
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
     private Response handleCarNotFoundException(CarNotFoundException exception) {
         log.warn("Car not found: ID = {}", exception.getCarId());
         ErrorResponse errorResponse = new ErrorResponse(
@@ -1,7 +1,10 @@
 package com.carsoffer.common.exceptions;
 
+/**
+ * Thrown for client input, where the message says everything; the stack trace is not filled in.
+ */
 public class InvalidFuelTypeException extends RuntimeException {
     public InvalidFuelTypeException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,10 +1,13 @@
 package com.carsoffer.common.mappers;
 
 import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CarOfferRow;
 import com.carsoffer.car.dto.CarWithOfferDTO;
 import com.carsoffer.car.entity.Car;
 import com.carsoffer.offer.dto.OfferDTO;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,23 +31,32 @@ public class CarMapper {
 
     }
 
-    public static CarWithOfferDTO toDTOWithOffers(Car car) {
-        if (car == null) {
+    /**
+     * Folds the rows of the car-with-offers projection into one DTO. The rows are expected newest offer first
+     * and fetched as {@code offerLimit + 1}, so a surplus row only sets {@code hasMoreOffers}.
+     */
+    public static CarWithOfferDTO toDTOWithOffers(List<CarOfferRow> rows, int offerLimit) {
+        if (rows.isEmpty()) {
             return null;
         }
-        Set<OfferDTO> offerDTOs = car.getOffers().stream()
-                .map(OfferMapper::toDTOWithoutCar)
-                .collect(Collectors.toSet());
+        CarOfferRow car = rows.getFirst();
+        Set<OfferDTO> offerDTOs = rows.stream()
+                .filter(row -> row.offerId() != null)
+                .limit(offerLimit)
+                .map(row -> new OfferDTO(row.offerId(), row.customerFirstName(), row.customerLastName(),
+                        row.price(), row.offerDate(), row.lastModifiedOffer(), null))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         return new CarWithOfferDTO(
-                car.getId(),
-                car.getBrand(),
-                car.getModel(),
-                car.getYear(),
-                car.getColor(),
-                car.getFuelType(),
-                car.getVin(),
-                offerDTOs
+                car.id(),
+                car.brand(),
+                car.model(),
+                car.year(),
+                car.color(),
+                car.fuelType(),
+                car.vin(),
+                offerDTOs,
+                rows.size() > offerLimit
         );
     }
 
@@ -0,0 +1,54 @@
+package com.carsoffer.common.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+
+public class MetricsConfiguration {
+
+    /**
+     * Publishes latency histograms for endpoints and repository queries so percentiles can be aggregated in Prometheus.
+     */
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("http.server.requests") || id.getName().equals(QueryTimedInterceptor.TIMER)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                            .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    /**
+     * Buckets the per-request statement and entity load counts, so endpoints drifting into N+1 show up as a shifted histogram.
+     */
+    @Produces
+    @Singleton
+    public MeterFilter queryBudgetHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals(QueryBudgetFilter.STATEMENTS) || id.getName().equals(QueryBudgetFilter.ENTITY_LOADS)) {
+                    return DistributionStatisticConfig.builder()
+                            .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.carsoffer.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.BeforeDestroyed;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Reports each request's {@link RequestQueryStats}: always as the {@code carsoffer.request.statements} and
+ * {@code carsoffer.request.entity-loads} histograms per endpoint, and, when {@code carsoffer.query-budget.headers}
+ * is on, as the {@code X-Query-Count} and {@code X-Entity-Load-Count} response headers.
+ * <p>
+ * The histograms are recorded when the request context ends, after the response body has been written, so the
+ * statements a {@code StreamingOutput} runs are counted. The headers go out before the body and only count the work
+ * done up to then.
+ */
+public class QueryBudgetFilter {
+
+    public static final String STATEMENTS = "carsoffer.request.statements";
+    public static final String ENTITY_LOADS = "carsoffer.request.entity-loads";
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+    private final RequestQueryStats stats;
+    private final MeterRegistry registry;
+    private final boolean headers;
+
+    @Inject
+    public QueryBudgetFilter(RequestQueryStats stats, MeterRegistry registry,
+                             @ConfigProperty(name = "carsoffer.query-budget.headers", defaultValue = "false") boolean headers) {
+        this.stats = stats;
+        this.registry = registry;
+        this.headers = headers;
+    }
+
+    @ServerResponseFilter
+    public void report(ContainerResponseContext response, SimpleResourceInfo resource) {
+        if (resource == null || resource.getResourceClass() == null) {
+            return;
+        }
+        stats.endpoint(resource.getResourceClass().getSimpleName() + "." + resource.getMethodName());
+        if (headers) {
+            response.getHeaders().putSingle(QUERY_COUNT_HEADER, stats.statements());
+            response.getHeaders().putSingle(ENTITY_LOAD_COUNT_HEADER, stats.entityLoads());
+        }
+    }
+
+    void record(@Observes @BeforeDestroyed(RequestScoped.class) Object event) {
+        String endpoint = stats.endpoint();
+        if (endpoint == null) {
+            return;
+        }
+        DistributionSummary.builder(STATEMENTS).tag("endpoint", endpoint).register(registry).record(stats.statements());
+        DistributionSummary.builder(ENTITY_LOADS).tag("endpoint", endpoint).register(registry).record(stats.entityLoads());
+    }
+}
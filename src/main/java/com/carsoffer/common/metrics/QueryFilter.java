@@ -0,0 +1,16 @@
+package com.carsoffer.common.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an optional search filter. A {@link QueryTimed} call is tagged with the marked parameters that were
+ * present, so each search shape gets its own timer. On a record parameter, the record's marked components
+ * are used instead.
+ */
+@Target({ ElementType.PARAMETER, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryFilter {
+}
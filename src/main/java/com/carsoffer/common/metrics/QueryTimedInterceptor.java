@@ -0,0 +1,97 @@
+package com.carsoffer.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times repository calls, tagged by repository, method, outcome and the {@link QueryFilter} parameters that were
+ * present. It runs after the cache interceptors, so only calls that reach the database are recorded.
+ */
+@QueryTimed
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_AFTER)
+public class QueryTimedInterceptor {
+
+    public static final String TIMER = "carsoffer.repository.query";
+    static final String NO_FILTERS = "none";
+
+    private final MeterRegistry registry;
+    private final Map<Method, List<Filter>> filtersByMethod = new ConcurrentHashMap<>();
+
+    @Inject
+    public QueryTimedInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @AroundInvoke
+    Object time(InvocationContext context) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            Object result = context.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            Method method = context.getMethod();
+            sample.stop(Timer.builder(TIMER)
+                    .tag("repository", method.getDeclaringClass().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("filters", filterShape(method, context.getParameters()))
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    String filterShape(Method method, Object[] arguments) throws ReflectiveOperationException {
+        List<Filter> filters = filtersByMethod.computeIfAbsent(method, QueryTimedInterceptor::filtersOf);
+        StringJoiner shape = new StringJoiner("+");
+        for (Filter filter : filters) {
+            Object value = arguments[filter.parameter()];
+            if (value != null && filter.component() != null) {
+                value = filter.component().invoke(value);
+            }
+            if (value != null && !(value instanceof String text && text.isBlank())) {
+                shape.add(filter.name());
+            }
+        }
+        return shape.length() == 0 ? NO_FILTERS : shape.toString();
+    }
+
+    private static List<Filter> filtersOf(Method method) {
+        List<Filter> filters = new ArrayList<>();
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            if (!parameter.isAnnotationPresent(QueryFilter.class)) {
+                continue;
+            }
+            if (parameter.getType().isRecord()) {
+                for (RecordComponent component : parameter.getType().getRecordComponents()) {
+                    if (component.getAccessor().isAnnotationPresent(QueryFilter.class)) {
+                        filters.add(new Filter(component.getName(), i, component.getAccessor()));
+                    }
+                }
+            } else {
+                filters.add(new Filter(parameter.getName(), i, null));
+            }
+        }
+        return List.copyOf(filters);
+    }
+
+    private record Filter(String name, int parameter, Method component) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.carsoffer.common.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.CallbackException;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the statements Hibernate prepares and the entities it loads into {@link RequestQueryStats}. Work done
+ * outside a request (startup, schedulers) is not counted.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RequestQueryCounter implements StatementInspector, Interceptor {
+
+    private final RequestQueryStats stats;
+
+    @Inject
+    public RequestQueryCounter(RequestQueryStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (Arc.container().requestContext().isActive()) {
+            stats.statementPrepared();
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        if (Arc.container().requestContext().isActive()) {
+            stats.entityLoaded();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package com.carsoffer.common.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * SQL statements prepared and entities loaded by Hibernate while serving the current request.
+ */
+@RequestScoped
+public class RequestQueryStats {
+
+    private int statements;
+    private int entityLoads;
+    private String endpoint;
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int entityLoads() {
+        return entityLoads;
+    }
+
+    void endpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * The resource method serving the request, once it has been matched; {@code null} for other requests.
+     */
+    String endpoint() {
+        return endpoint;
+    }
+}
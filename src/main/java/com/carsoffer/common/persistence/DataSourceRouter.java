@@ -0,0 +1,96 @@
+package com.carsoffer.common.persistence;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which datasource serves the next connection Hibernate acquires. Connections acquired while a
+ * {@link ReadOnly} method routes to replicas are spread round-robin over the configured replicas; everything else,
+ * including every transaction, uses the primary.
+ * <p>
+ * A replica that fails to hand out a connection is skipped for {@code carsoffer.datasource.replica-retry-after}
+ * and then tried again by the next read. With no replica available reads fall back to the primary.
+ */
+@ApplicationScoped
+public class DataSourceRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceRouter.class);
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = ThreadLocal.withInitial(() -> false);
+
+    private final List<String> replicas;
+    private final Duration retryAfter;
+    private final Clock clock;
+    private final Map<String, Instant> downUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Inject
+    public DataSourceRouter(@ConfigProperty(name = "carsoffer.datasource.replicas") Optional<List<String>> replicas,
+                            @ConfigProperty(name = "carsoffer.datasource.replica-retry-after", defaultValue = "30s") Duration retryAfter) {
+        this(replicas.orElse(List.of()), retryAfter, Clock.systemUTC());
+    }
+
+    DataSourceRouter(List<String> replicas, Duration retryAfter, Clock clock) {
+        this.replicas = List.copyOf(replicas);
+        this.retryAfter = retryAfter;
+        this.clock = clock;
+    }
+
+    public List<String> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Turns replica routing on or off for connections acquired by the current thread and returns the previous setting.
+     */
+    public boolean routeReadsToReplica(boolean enabled) {
+        boolean previous = REPLICA_READS.get();
+        REPLICA_READS.set(enabled);
+        return previous;
+    }
+
+    public String resolveTarget() {
+        return REPLICA_READS.get() ? nextReplica() : PRIMARY;
+    }
+
+    String nextReplica() {
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            String replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (isAvailable(replica)) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    public boolean isAvailable(String replica) {
+        Instant until = downUntil.get(replica);
+        return until == null || !clock.instant().isBefore(until);
+    }
+
+    void markDown(String replica, SQLException cause) {
+        downUntil.put(replica, clock.instant().plus(retryAfter));
+        log.warn("Replica datasource {} is unavailable, routing its reads to the primary for {}: {}",
+                replica, retryAfter, cause.getMessage());
+    }
+
+    void markUp(String replica) {
+        if (downUntil.remove(replica) != null) {
+            log.info("Replica datasource {} is available again", replica);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.carsoffer.common.persistence;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Quarkus only lets an application supply Hibernate's connections through its database-per-tenant support, so the
+ * persistence unit is multi-tenant with exactly one tenant. Which datasource serves a connection is decided when it is
+ * acquired, by {@link RoutingConnectionResolver}, never when a session is opened.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class PrimaryTenantResolver implements TenantResolver {
+
+    @Override
+    public String getDefaultTenantId() {
+        return DataSourceRouter.PRIMARY;
+    }
+
+    @Override
+    public String resolveTenantId() {
+        return DataSourceRouter.PRIMARY;
+    }
+}
@@ -0,0 +1,25 @@
+package com.carsoffer.common.persistence;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a query-only method. Entities it loads are read-only, so Hibernate keeps no dirty-checking
+ * snapshot for them, and the session never flushes. Its reads go to a replica unless {@link #replica()} is
+ * turned off for callers that must see their own writes. Methods whose result is cached turn it off too: the entries
+ * a write evicts would otherwise be reloaded from a replica that has not applied the write yet, and then kept.
+ * See {@link ReadOnlyInterceptor}.
+ */
+@InterceptorBinding
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+
+    @Nonbinding
+    boolean replica() default true;
+}
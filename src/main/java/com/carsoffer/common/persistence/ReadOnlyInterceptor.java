@@ -0,0 +1,95 @@
+package com.carsoffer.common.persistence;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+
+/**
+ * Switches the request's session to read-only defaults for the duration of a {@link ReadOnly} method and
+ * restores them afterwards. If the method allows it, the connections it acquires come from a replica.
+ * <p>
+ * Outside a transaction the session keeps its connection until the request ends, so a method that changes where
+ * reads go gives the session's connection back before and after it runs: a replica read acquires a replica
+ * connection, and the reads the request makes afterwards acquire a primary one again and see the request's own writes.
+ * <p>
+ * Inside a caller's transaction the method runs unchanged: entities it loads there may be modified by that
+ * transaction, and marking them read-only would silently drop those changes.
+ */
+@ReadOnly
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 300)
+public class ReadOnlyInterceptor {
+
+    private final EntityManager entityManager;
+    private final TransactionManager transactionManager;
+    private final DataSourceRouter router;
+
+    @Inject
+    public ReadOnlyInterceptor(EntityManager entityManager, TransactionManager transactionManager, DataSourceRouter router) {
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+        this.router = router;
+    }
+
+    @AroundInvoke
+    Object readOnly(InvocationContext context) throws Exception {
+        if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION) {
+            return context.proceed();
+        }
+
+        ReadOnly binding = context.getInterceptorBinding(ReadOnly.class);
+        boolean replica = (binding == null || binding.replica()) && !router.replicas().isEmpty();
+        boolean routedToReplica = router.routeReadsToReplica(replica);
+        try {
+            return readOnly(context, session(), replica != routedToReplica);
+        } finally {
+            router.routeReadsToReplica(routedToReplica);
+        }
+    }
+
+    private SessionImplementor session() {
+        try {
+            return entityManager.unwrap(SessionImplementor.class);
+        } catch (ContextNotActiveException e) {
+            return null;
+        }
+    }
+
+    private Object readOnly(InvocationContext context, SessionImplementor session, boolean switchesDataSource) throws Exception {
+        if (session == null) {
+            return context.proceed();
+        }
+        boolean wasReadOnly = session.isDefaultReadOnly();
+        FlushMode previousFlushMode = session.getHibernateFlushMode();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        if (switchesDataSource) {
+            releaseConnection(session);
+        }
+        try {
+            return context.proceed();
+        } finally {
+            if (switchesDataSource) {
+                releaseConnection(session);
+            }
+            session.setDefaultReadOnly(wasReadOnly);
+            session.setHibernateFlushMode(previousFlushMode);
+        }
+    }
+
+    private static void releaseConnection(SessionImplementor session) {
+        LogicalConnectionImplementor connection = session.getJdbcCoordinator().getLogicalConnection();
+        if (connection.isPhysicallyConnected()) {
+            connection.manualDisconnect();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.carsoffer.common.persistence;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * Picks a datasource each time Hibernate acquires a connection: one of the replicas while the acquiring thread is
+ * inside a {@link ReadOnly} method that allows it, the primary otherwise. A replica that cannot hand out a connection
+ * is marked down and the primary answers instead. Statements are timed by {@link SlowQueryLog} unless it is disabled.
+ */
+class RoutingConnectionProvider implements ConnectionProvider {
+
+    private final DataSource primary;
+    private final Function<String, DataSource> replicas;
+    private final DataSourceRouter router;
+    private final SlowQueryLog slowQueryLog;
+
+    RoutingConnectionProvider(DataSource primary, Function<String, DataSource> replicas, DataSourceRouter router,
+                              SlowQueryLog slowQueryLog) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.router = router;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String target = router.resolveTarget();
+        if (!DataSourceRouter.PRIMARY.equals(target)) {
+            DataSource replica = replicas.apply(target);
+            try {
+                Connection connection = replica.getConnection();
+                router.markUp(target);
+                return timed(connection, replica);
+            } catch (SQLException e) {
+                router.markDown(target, e);
+            }
+        }
+        return timed(primary.getConnection(), primary);
+    }
+
+    private Connection timed(Connection connection, DataSource explainSource) {
+        return slowQueryLog.isEnabled() ? slowQueryLog.wrap(connection, explainSource) : connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this) || DataSource.class.equals(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        if (DataSource.class.equals(type)) {
+            return (T) primary;
+        }
+        throw new UnknownUnwrapTypeException(type);
+    }
+}
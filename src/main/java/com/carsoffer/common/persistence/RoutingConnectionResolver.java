@@ -0,0 +1,42 @@
+package com.carsoffer.common.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands Hibernate a {@link RoutingConnectionProvider} over the default datasource and the named replica datasources
+ * listed in {@code carsoffer.datasource.replicas}.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RoutingConnectionResolver implements TenantConnectionResolver {
+
+    private final ConnectionProvider provider;
+
+    @Inject
+    public RoutingConnectionResolver(AgroalDataSource primary, @Any Instance<AgroalDataSource> dataSources, DataSourceRouter router,
+                                     SlowQueryLog slowQueryLog) {
+        Map<String, AgroalDataSource> replicas = new ConcurrentHashMap<>();
+        this.provider = new RoutingConnectionProvider(primary,
+                replica -> replicas.computeIfAbsent(replica, name -> dataSources.select(new DataSource.DataSourceLiteral(name)).get()),
+                router, slowQueryLog);
+    }
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        if (!DataSourceRouter.PRIMARY.equals(tenantId)) {
+            throw new IllegalStateException("Unknown tenant: " + tenantId);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,38 @@
+package com.carsoffer.common.persistence;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+
+/**
+ * Quarkus skips {@code quarkus.hibernate-orm.database.generation} for a multi-tenant persistence unit, and ours is
+ * multi-tenant only to plug in {@link RoutingConnectionResolver}. This runs the validation it would have run, after
+ * Flyway has migrated, so a mapping that drifted from the schema still fails startup.
+ */
+@ApplicationScoped
+public class SchemaValidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final String generation;
+
+    @Inject
+    public SchemaValidator(EntityManagerFactory entityManagerFactory,
+                           @ConfigProperty(name = "quarkus.hibernate-orm.database.generation", defaultValue = "none") String generation) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.generation = generation;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        validate();
+    }
+
+    void validate() {
+        if ("validate".equals(generation)) {
+            entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.carsoffer.common.persistence;
+
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the statements that ran longer than {@code carsoffer.slow-query.threshold}, grouped by fingerprint (the SQL
+ * with literals and {@code IN} lists collapsed). The first slow run of a {@code SELECT}, and again once the plan is
+ * older than {@code carsoffer.slow-query.explain-interval}, is re-run on a background thread under
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} with the same bind values, inside a read-only transaction that is rolled back.
+ * <p>
+ * Statements are timed by the connections {@link #wrap(Connection, DataSource) wrapped} in
+ * {@link RoutingConnectionProvider}.
+ */
+@ApplicationScoped
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public record SlowQuery(String fingerprint, String sql, long count, long totalMillis, long maxMillis,
+                            Instant lastSeen, String plan, Instant planCapturedAt) {
+    }
+
+    record Bind(Method setter, Object[] arguments) {
+    }
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int top;
+    private final int capacity;
+    private final Duration explainInterval;
+    private final Duration explainTimeout;
+    private final ExecutorService explainer;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Inject
+    public SlowQueryLog(@ConfigProperty(name = "carsoffer.slow-query.enabled", defaultValue = "true") boolean enabled,
+                        @ConfigProperty(name = "carsoffer.slow-query.threshold", defaultValue = "200ms") Duration threshold,
+                        @ConfigProperty(name = "carsoffer.slow-query.top", defaultValue = "20") int top,
+                        @ConfigProperty(name = "carsoffer.slow-query.capacity", defaultValue = "500") int capacity,
+                        @ConfigProperty(name = "carsoffer.slow-query.explain-interval", defaultValue = "10m") Duration explainInterval,
+                        @ConfigProperty(name = "carsoffer.slow-query.explain-timeout", defaultValue = "5s") Duration explainTimeout) {
+        this(enabled, threshold, top, capacity, explainInterval, explainTimeout, singleExplainThread(), Clock.systemUTC());
+    }
+
+    SlowQueryLog(boolean enabled, Duration threshold, int top, int capacity, Duration explainInterval,
+                 Duration explainTimeout, ExecutorService explainer, Clock clock) {
+        this.enabled = enabled;
+        this.thresholdNanos = threshold.toNanos();
+        this.top = top;
+        this.capacity = capacity;
+        this.explainInterval = explainInterval;
+        this.explainTimeout = explainTimeout;
+        this.explainer = explainer;
+        this.clock = clock;
+    }
+
+    private static ExecutorService singleExplainThread() {
+        // a burst of slow queries should not queue up explains behind each other, later ones are simply dropped
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                Thread.ofPlatform().name("slow-query-explain").daemon().factory(), new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        explainer.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a connection whose statements report to this log. Plans are sampled on a connection from {@code explainSource}.
+     */
+    public Connection wrap(Connection connection, DataSource explainSource) {
+        return TimedStatements.connection(connection, this, explainSource);
+    }
+
+    /**
+     * The slowest statements by total time spent in them, with their most recent plan.
+     */
+    public List<SlowQuery> top() {
+        return entries.values().stream()
+                .map(Entry::snapshot)
+                .sorted(Comparator.comparingLong(SlowQuery::totalMillis).reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    void record(String sql, List<Bind> binds, long elapsedNanos, DataSource explainSource) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        Entry entry = entries.computeIfAbsent(fingerprint, key -> new Entry(key, sql));
+        Instant now = clock.instant();
+        entry.add(elapsedNanos, now);
+        if (entries.size() > capacity) {
+            evictCheapest();
+        }
+        if (binds != null && isSelect(sql) && entry.claimExplain(now, explainInterval)) {
+            List<Bind> replay = List.copyOf(binds);
+            try {
+                explainer.execute(() -> explain(entry, sql, replay, explainSource));
+            } catch (RejectedExecutionException e) {
+                entry.releaseExplain();
+            }
+        }
+    }
+
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    static boolean isSelect(String sql) {
+        String statement = sql.stripLeading();
+        return statement.regionMatches(true, 0, "select", 0, 6) || statement.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private void evictCheapest() {
+        entries.values().stream()
+                .min(Comparator.comparingLong(Entry::totalNanos))
+                .ifPresent(cheapest -> entries.remove(cheapest.fingerprint, cheapest));
+    }
+
+    private void explain(Entry entry, String sql, List<Bind> binds, DataSource explainSource) {
+        try (Connection connection = explainSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("SET TRANSACTION READ ONLY");
+                    settings.execute("SET LOCAL statement_timeout = " + explainTimeout.toMillis());
+                }
+                entry.plan(plan(connection, sql, binds), clock.instant());
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            log.warn("Could not explain slow query {}: {}", entry.fingerprint, e.getMessage());
+            entry.plan("EXPLAIN failed: " + e.getMessage(), clock.instant());
+        }
+    }
+
+    private static String plan(Connection connection, String sql, List<Bind> binds) throws SQLException, ReflectiveOperationException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            for (Bind bind : binds) {
+                bind.setter().invoke(explain, bind.arguments());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final String sql;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private Instant lastSeen;
+        private String plan;
+        private Instant planCapturedAt;
+        private boolean explaining;
+
+        Entry(String fingerprint, String sql) {
+            this.fingerprint = fingerprint;
+            this.sql = sql;
+        }
+
+        synchronized void add(long elapsedNanos, Instant now) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastSeen = now;
+        }
+
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        synchronized boolean claimExplain(Instant now, Duration interval) {
+            if (explaining || (planCapturedAt != null && planCapturedAt.plus(interval).isAfter(now))) {
+                return false;
+            }
+            explaining = true;
+            return true;
+        }
+
+        synchronized void releaseExplain() {
+            explaining = false;
+        }
+
+        synchronized void plan(String plan, Instant capturedAt) {
+            this.plan = plan;
+            this.planCapturedAt = capturedAt;
+            this.explaining = false;
+        }
+
+        synchronized SlowQuery snapshot() {
+            return new SlowQuery(fingerprint, sql, count, Duration.ofNanos(totalNanos).toMillis(),
+                    Duration.ofNanos(maxNanos).toMillis(), lastSeen, plan, planCapturedAt);
+        }
+    }
+}
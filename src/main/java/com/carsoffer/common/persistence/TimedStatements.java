@@ -0,0 +1,114 @@
+package com.carsoffer.common.persistence;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC proxies that time statement execution and report it to {@link SlowQueryLog}. Bind values of prepared
+ * {@code SELECT}s are kept as the setter calls that made them, so the statement can be replayed under EXPLAIN.
+ */
+final class TimedStatements {
+
+    private TimedStatements() {
+    }
+
+    static Connection connection(Connection connection, SlowQueryLog slowQueryLog, DataSource explainSource) {
+        return proxy(Connection.class, connection, new ConnectionHandler(connection, slowQueryLog, explainSource));
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TimedStatements.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection connection, SlowQueryLog slowQueryLog, DataSource explainSource) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TimedStatements.invoke(connection, method, args);
+            if (result instanceof CallableStatement) {
+                return result;
+            }
+            if (result instanceof PreparedStatement statement) {
+                String sql = (String) args[0];
+                List<SlowQueryLog.Bind> binds = SlowQueryLog.isSelect(sql) ? new ArrayList<>() : null;
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, sql, binds, this));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, new StatementHandler(statement, null, null, this));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private static final int MAX_BINDS = 1000;
+
+        private final Statement statement;
+        private final String preparedSql;
+        private final ConnectionHandler connection;
+        private List<SlowQueryLog.Bind> binds;
+
+        StatementHandler(Statement statement, String preparedSql, List<SlowQueryLog.Bind> binds, ConnectionHandler connection) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.binds = binds;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                boolean prepared = args == null || args.length == 0 || !(args[0] instanceof String);
+                String sql = prepared ? preparedSql : (String) args[0];
+                long start = System.nanoTime();
+                try {
+                    return TimedStatements.invoke(statement, method, args);
+                } finally {
+                    if (sql != null) {
+                        connection.slowQueryLog().record(sql, prepared ? binds : null, System.nanoTime() - start,
+                                connection.explainSource());
+                    }
+                }
+            }
+            if (binds != null) {
+                if (name.equals("clearParameters")) {
+                    binds.clear();
+                } else if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                    keepBind(method, args);
+                }
+            }
+            return TimedStatements.invoke(statement, method, args);
+        }
+
+        private void keepBind(Method setter, Object[] args) {
+            if (args[1] instanceof InputStream || args[1] instanceof Reader || binds.size() >= MAX_BINDS) {
+                // streams are consumed by the execution and cannot be replayed; a statement reused without
+                // clearParameters stops being explained rather than growing its bind list without bound
+                binds = null;
+                return;
+            }
+            binds.add(new SlowQueryLog.Bind(setter, args.clone()));
+        }
+    }
+}
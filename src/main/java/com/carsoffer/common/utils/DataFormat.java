@@ -0,0 +1,68 @@
+package com.carsoffer.common.utils;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Line-oriented formats used for bulk import and export. Both are read and written one record
+ * at a time, NDJSON through the application {@link ObjectMapper} and CSV through a header-row schema.
+ */
+public enum DataFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private final String mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith(CSV.mediaType)) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+
+    public static DataFormat fromName(String name) {
+        for (DataFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name + ". Allowed values are: ndjson, csv");
+    }
+
+    public ObjectReader reader(ObjectMapper objectMapper, Class<?> type) {
+        return switch (this) {
+            case CSV -> CSV_MAPPER.readerFor(type).with(CsvSchema.emptySchema().withHeader());
+            case NDJSON -> objectMapper.readerFor(type);
+        };
+    }
+
+    public SequenceWriter writer(ObjectMapper objectMapper, Class<?> type, OutputStream output) throws IOException {
+        return switch (this) {
+            case CSV -> CSV_MAPPER.writer(CSV_MAPPER.schemaFor(type).withHeader()).writeValues(output);
+            case NDJSON -> objectMapper.writer().withRootValueSeparator("\n").writeValues(output);
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.carsoffer.common.utils;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollableResults;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+public final class ExportStreams {
+
+    private ExportStreams() {
+    }
+
+    /**
+     * Writes every row of a forward-only cursor through the mapper. The persistence context is cleared
+     * and the writer flushed once per fetch batch, so neither the session nor the response buffer grows with the row count.
+     */
+    public static <E, D> long writeAll(ScrollableResults<E> rows, Function<E, D> mapper, SequenceWriter writer,
+                                       EntityManager entityManager, int batchSize) throws IOException {
+        long written = 0;
+        while (rows.next()) {
+            writer.write(mapper.apply(rows.get()));
+            if (++written % batchSize == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,27 @@
+package com.carsoffer.common.utils;
+
+import java.util.Locale;
+
+/**
+ * Builds substring patterns for {@code lower(column) like :pattern escape '!'} predicates, the shape the
+ * pg_trgm GIN expression indexes from V6 are built on. User input is lowered here and its wildcards escaped,
+ * so a search for "50%" matches the literal text instead of widening the scan.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '!';
+
+    private LikePatterns() {
+    }
+
+    public static String contains(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 2).append('%');
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.carsoffer.common.utils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last row a client has seen.
+ * Encoded as URL-safe Base64 so clients treat it as a token and never build it themselves.
+ */
+public record PageCursor(String sortKey, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor of(Object sortKey, Long id) {
+        return new PageCursor(String.valueOf(sortKey), id);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new IllegalArgumentException("Cursor must not be empty.");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new PageCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public int sortKeyAsInt() {
+        try {
+            return Integer.parseInt(sortKey);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public BigDecimal sortKeyAsDecimal() {
+        try {
+            return new BigDecimal(sortKey);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
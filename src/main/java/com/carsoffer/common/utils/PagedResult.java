@@ -0,0 +1,41 @@
+package com.carsoffer.common.utils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of entities plus the total row count, fetched in a single statement.
+ * With {@code withTotal} the count comes from a {@code count(*) over()} window on the page query itself,
+ * so no separate COUNT round trip is made. Page entities are loaded read-only; callers only map them to DTOs.
+ */
+public record PagedResult<T>(List<T> items, long totalItems) {
+
+    public static <T> PagedResult<T> fetch(EntityManager em, Class<T> type, String alias, String fromWhere,
+                                           Map<String, Object> params, String orderBy,
+                                           int page, int size, boolean withTotal) {
+        if (!withTotal) {
+            TypedQuery<T> query = em.createQuery("select " + alias + " " + fromWhere + " order by " + orderBy, type)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+            params.forEach(query::setParameter);
+            List<T> items = query.setFirstResult(page * size).setMaxResults(size).getResultList();
+            return new PagedResult<>(items, PaginatedResponse.UNKNOWN);
+        }
+
+        TypedQuery<Object[]> query = em.createQuery(
+                "select " + alias + ", count(*) over() " + fromWhere + " order by " + orderBy, Object[].class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        params.forEach(query::setParameter);
+        List<Object[]> rows = query.setFirstResult(page * size).setMaxResults(size).getResultList();
+
+        if (rows.isEmpty()) {
+            // past the last page the window has no row to ride on; only page 0 proves the set is empty
+            return new PagedResult<>(List.of(), page == 0 ? 0 : PaginatedResponse.UNKNOWN);
+        }
+        List<T> items = rows.stream().map(row -> type.cast(row[0])).toList();
+        return new PagedResult<>(items, ((Number) rows.getFirst()[1]).longValue());
+    }
+}
@@ -1,13 +1,17 @@
 package com.carsoffer.common.utils;
 
 import java.util.List;
+import java.util.function.Function;
 
 public class PaginatedResponse<T> {
+    public static final int UNKNOWN = -1;
+
     private List<T> items;
     private long totalItems;
     private int totalPages;
     private int currentPage;
     private int pageSize;
+    private String nextCursor;
 
     public PaginatedResponse(List<T> items, long totalItems, int totalPages, int currentPage, int pageSize) {
         this.items = items;
@@ -17,6 +21,35 @@ public class PaginatedResponse<T> {
         this.pageSize = pageSize;
     }
 
+    public static <T> PaginatedResponse<T> of(List<T> items, long totalItems, int currentPage, int pageSize) {
+        int totalPages = totalItems < 0 ? UNKNOWN : (int) ((totalItems + pageSize - 1) / pageSize);
+        return new PaginatedResponse<>(items, totalItems, totalPages, currentPage, pageSize);
+    }
+
+    /**
+     * Builds a keyset page from {@code size + 1} fetched rows. The extra row only tells us whether
+     * another page exists; totals and page numbers are unknown in keyset mode.
+     */
+    public static <T> PaginatedResponse<T> ofKeyset(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        PaginatedResponse<T> response = new PaginatedResponse<>(items, UNKNOWN, UNKNOWN, UNKNOWN, size);
+        if (hasMore) {
+            response.setNextCursor(cursorOf.apply(items.getLast()).encode());
+        }
+        return response;
+    }
+
+    /**
+     * Lets an offset page hand over to keyset mode: a full page gets the cursor of its last item.
+     */
+    public PaginatedResponse<T> withNextCursor(Function<T, PageCursor> cursorOf) {
+        if (!items.isEmpty() && items.size() == pageSize) {
+            this.nextCursor = cursorOf.apply(items.getLast()).encode();
+        }
+        return this;
+    }
+
     public List<T> getItems() {
         return items;
     }
@@ -56,4 +89,12 @@ public class PaginatedResponse<T> {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,39 @@
+package com.carsoffer.common.utils;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes at most one warning per interval and reports how many were dropped in between, for messages that
+ * clients can trigger at will (e.g. invalid query parameters) and that would otherwise flood the log.
+ */
+public final class RateLimitedLog {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public RateLimitedLog(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowed = new AtomicLong(System.nanoTime());
+    }
+
+    public void warn(String format, Object argument) {
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next < 0 || !nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long dropped = suppressed.getAndSet(0);
+        if (dropped > 0) {
+            log.warn(format + " ({} similar messages suppressed)", argument, dropped);
+        } else {
+            log.warn(format, argument);
+        }
+    }
+}
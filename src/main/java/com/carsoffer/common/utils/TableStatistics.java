@@ -0,0 +1,27 @@
+package com.carsoffer.common.utils;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+public class TableStatistics {
+
+    /**
+     * Planner row estimate from {@code pg_class.reltuples}. Returns -1 when the table has never been
+     * analyzed, in which case callers should fall back to an exact count.
+     */
+    public static long estimateRowCount(EntityManager em, String schema, String table) {
+        List<?> result = em.createNativeQuery("""
+                        SELECT CAST(c.reltuples AS BIGINT)
+                        FROM pg_class c
+                        JOIN pg_namespace n ON n.oid = c.relnamespace
+                        WHERE n.nspname = :schema AND c.relname = :table""")
+                .setParameter("schema", schema)
+                .setParameter("table", table)
+                .getResultList();
+        if (result.isEmpty() || result.getFirst() == null) {
+            return -1;
+        }
+        return ((Number) result.getFirst()).longValue();
+    }
+}
@@ -0,0 +1,18 @@
+package com.carsoffer.common.utils;
+
+/**
+ * How a paged query reports its total. EXACT folds a {@code count(*) over()} window into the page query,
+ * ESTIMATED reads the planner's row estimate (unfiltered lists only), NONE skips totals entirely.
+ */
+public enum TotalMode {
+    EXACT,
+    ESTIMATED,
+    NONE;
+
+    public static TotalMode of(boolean includeTotal, boolean estimateTotal) {
+        if (!includeTotal) {
+            return NONE;
+        }
+        return estimateTotal ? ESTIMATED : EXACT;
+    }
+}
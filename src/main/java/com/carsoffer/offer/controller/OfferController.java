@@ -1,18 +1,24 @@
 package com.carsoffer.offer.controller;
 
+import com.carsoffer.common.concurrency.AdmissionControlled;
 import com.carsoffer.common.exceptions.dto.ErrorResponse;
+import com.carsoffer.common.utils.DataFormat;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
 import com.carsoffer.offer.dto.UpdateOfferDTO;
+import com.carsoffer.offer.service.OfferExportService;
 import com.carsoffer.offer.service.OfferServiceImpl;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
@@ -26,24 +32,36 @@ import java.util.Map;
 
 import static com.carsoffer.common.utils.DateParser.parseDate;
 
+@AdmissionControlled
+@RunOnVirtualThread
 @Path("/offers")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class OfferController {
 
     private OfferServiceImpl offerService;
+    private OfferExportService offerExportService;
 
     @Inject
-    public OfferController(OfferServiceImpl offerService){
+    public OfferController(OfferServiceImpl offerService, OfferExportService offerExportService){
         this.offerService = offerService;
+        this.offerExportService = offerExportService;
     }
 
     @GET
     @Path("/")
     public Response getAllOffers(@QueryParam("page") @DefaultValue("0")  @Min(0) int page,
-                                                    @QueryParam("size") @DefaultValue("10")  @Min(1) int size) {
+                                                    @QueryParam("size") @DefaultValue("10")  @Min(1) int size,
+                                                    @Parameter(description = "Keyset cursor from a previous response's nextCursor; overrides page")
+                                                    @QueryParam("cursor") String cursor,
+                                                    @Parameter(description = "Set to false to skip the total count")
+                                                    @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal,
+                                                    @Parameter(description = "Report the planner's row estimate instead of an exact total")
+                                                    @QueryParam("estimateTotal") @DefaultValue("false") boolean estimateTotal) {
        validatePageSize(size);
-        PaginatedResponse<OfferDTO> response = offerService.getAllOffer(page, size);
+        PaginatedResponse<OfferDTO> response = cursor != null
+                ? offerService.getAllOfferAfter(cursor, size)
+                : offerService.getAllOffer(page, size, TotalMode.of(includeTotal, estimateTotal));
         if (response.getItems().isEmpty()) {
             ErrorResponse errorResponse = new ErrorResponse(
                     "Nema dostupnih ponuda.",
@@ -55,6 +73,24 @@ public class OfferController {
         return  Response.ok(response).build();
     }
 
+    @GET
+    @Path("/export")
+    @Produces({"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Export all offers", description = "Streams every offer ordered by id as NDJSON or CSV.")
+    public Response exportOffers(@Parameter(description = "ndjson or csv")
+                                 @QueryParam("format") @DefaultValue("ndjson") String format) {
+        DataFormat dataFormat = DataFormat.fromName(format);
+        StreamingOutput offers = output -> offerExportService.exportOffers(dataFormat, output);
+        return Response.ok(offers, dataFormat.mediaType()).build();
+    }
+
+    @GET
+    @Path("/facets")
+    @Operation(summary = "Offer facets", description = "Offer count and min/avg/max price per car brand, fuel type and year.")
+    public Response getOfferFacets() {
+        return Response.ok(offerService.getOfferFacets()).build();
+    }
+
     @GET
     @Path("/{id}")
     public Response getOfferById(@PathParam("id") Long id) {
@@ -94,6 +130,19 @@ public class OfferController {
                 .build();
     }
 
+    @POST
+    @Path("/bulk")
+    public Response createOffers(@Valid @RequestBody List<@Valid CreateOfferDTO> createOfferDTOs) {
+        int created = offerService.createOffers(createOfferDTOs);
+        Map<String, Object> response = Map.of(
+                "message", "Offers successfully created",
+                "count", created
+        );
+        return Response.status(Response.Status.CREATED)
+                .entity(response)
+                .build();
+    }
+
     @PUT
     @Path("/{id}")
     public Response updateOffer(@PathParam("id") Long id, @Valid @RequestBody UpdateOfferDTO updateOfferDTO) {
@@ -148,11 +197,13 @@ public class OfferController {
     @Path("/findByCustomerNames")
     public Response findCustomerByFirstAndLastName(@QueryParam("firstName") String firstName, @QueryParam("lastName") String lastName,
                                         @QueryParam("page") @DefaultValue("0")  @Min(0) int page,
-                                        @QueryParam("size") @DefaultValue("10") @Min(1)  int size) {
+                                        @QueryParam("size") @DefaultValue("10") @Min(1)  int size,
+                                        @Parameter(description = "Set to false to skip the total count")
+                                        @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal) {
         validatePageSize(size);
         validateCustomerName(firstName, "firstName");
         validateCustomerName(lastName, "lastName");
-        PaginatedResponse<OfferDTO> offers = offerService.getOffersByCustomerName(firstName, lastName, page, size);
+        PaginatedResponse<OfferDTO> offers = offerService.getOffersByCustomerName(firstName, lastName, page, size, TotalMode.of(includeTotal, false));
         if (offers.getItems().isEmpty()) {
             ErrorResponse errorResponse = new ErrorResponse(
                     String.format("Nema ponuda za kupca s imenom '%s' i prezimenom '%s'", firstName, lastName),
@@ -167,9 +218,15 @@ public class OfferController {
     @Path("/findByPricesBetween")
     public Response offersByPriceRange(@QueryParam("minPrice") BigDecimal minPrice,@QueryParam("maxPrice") BigDecimal maxPrice,
                                                    @QueryParam("page") @DefaultValue("0")  @Min(0) int page,
-                                                   @QueryParam("size") @DefaultValue("10") @Min(1)  int size) {
+                                                   @QueryParam("size") @DefaultValue("10") @Min(1)  int size,
+                                                   @Parameter(description = "Keyset cursor from a previous response's nextCursor; overrides page")
+                                                   @QueryParam("cursor") String cursor,
+                                                   @Parameter(description = "Set to false to skip the total count")
+                                                   @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal) {
         validatePageSize(size);
-        PaginatedResponse<OfferDTO> offers = offerService.getOffersByPriceRange(minPrice, maxPrice, page, size);
+        PaginatedResponse<OfferDTO> offers = cursor != null
+                ? offerService.getOffersByPriceRangeAfter(minPrice, maxPrice, cursor, size)
+                : offerService.getOffersByPriceRange(minPrice, maxPrice, page, size, TotalMode.of(includeTotal, false));
 
         if (offers.getItems().isEmpty()) {
             ErrorResponse errorResponse = new ErrorResponse(
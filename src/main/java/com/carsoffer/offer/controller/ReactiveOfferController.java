@@ -0,0 +1,73 @@
+package com.carsoffer.offer.controller;
+
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.service.ReactiveOfferService;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.carsoffer.common.utils.DateParser.parseDate;
+
+/**
+ * Offer queries served on the event loop. Only built into the {@code reactive} profile.
+ */
+@IfBuildProfile("reactive")
+@Path("/reactive/offers")
+@Produces(MediaType.APPLICATION_JSON)
+public class ReactiveOfferController {
+
+    private final ReactiveOfferService offerService;
+
+    @Inject
+    public ReactiveOfferController(ReactiveOfferService offerService) {
+        this.offerService = offerService;
+    }
+
+    @GET
+    @Path("/{id}")
+    public Uni<OfferDTO> findOfferById(@PathParam("id") Long id) {
+        return offerService.findOfferById(id);
+    }
+
+    @GET
+    @Path("/search")
+    @Operation(summary = "Search offers without blocking a worker thread")
+    public Uni<Response> searchOffers(@QueryParam("customerFirstName") String customerFirstName,
+                                      @QueryParam("customerLastName") String customerLastName,
+                                      @QueryParam("minPrice") Double minPrice,
+                                      @QueryParam("maxPrice") Double maxPrice,
+                                      @QueryParam("startDate") String startDate,
+                                      @QueryParam("endDate") String endDate,
+                                      @Parameter(description = "Field to sort by, default is 'id'")
+                                      @QueryParam("sortBy") @DefaultValue("id") String sortBy,
+                                      @QueryParam("asc") @DefaultValue("true") boolean asc,
+                                      @QueryParam("page") @DefaultValue("0") int page,
+                                      @QueryParam("size") @DefaultValue("10") int size) {
+        LocalDate parsedStartDate = parseDate(startDate, "Start date");
+        LocalDate parsedEndDate = parseDate(endDate, "End date");
+
+        if (parsedStartDate != null && parsedEndDate != null && parsedStartDate.isAfter(parsedEndDate)) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("message", "Start date cannot be after end date.")).build());
+        }
+
+        OfferSearchCriteria criteria = new OfferSearchCriteria(
+                customerFirstName, customerLastName, minPrice, maxPrice, parsedStartDate,
+                parsedEndDate, sortBy, asc, page, size
+        );
+        return offerService.searchOffers(criteria).collect().asList()
+                .map(offers -> offers.isEmpty()
+                        ? Response.status(Response.Status.NOT_FOUND)
+                                .entity(Map.of("message", "No offers found for the given search criteria.")).build()
+                        : Response.ok(offers).build());
+    }
+}
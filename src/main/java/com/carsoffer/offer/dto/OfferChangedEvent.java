@@ -0,0 +1,36 @@
+package com.carsoffer.offer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Fired by the offer service for every create, update and delete. {@code previous} is the offer as it was before the
+ * write ({@code null} for a create); a {@code null} offer means the offer was deleted.
+ */
+public record OfferChangedEvent(
+        Long id,
+        OfferDTO previous,
+        OfferDTO offer
+) {
+
+    public static OfferChangedEvent created(OfferDTO offer) {
+        return new OfferChangedEvent(offer.id(), null, offer);
+    }
+
+    public static OfferChangedEvent updated(OfferDTO previous, OfferDTO offer) {
+        return new OfferChangedEvent(offer.id(), previous, offer);
+    }
+
+    public static OfferChangedEvent deleted(OfferDTO previous) {
+        return new OfferChangedEvent(previous.id(), previous, null);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return previous == null;
+    }
+
+    @JsonIgnore
+    public boolean isDeleted() {
+        return offer == null;
+    }
+}
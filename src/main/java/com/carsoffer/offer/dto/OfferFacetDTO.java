@@ -0,0 +1,12 @@
+package com.carsoffer.offer.dto;
+
+import java.math.BigDecimal;
+
+public record OfferFacetDTO(
+        String value,
+        long count,
+        BigDecimal minPrice,
+        BigDecimal avgPrice,
+        BigDecimal maxPrice
+) {
+}
@@ -0,0 +1,10 @@
+package com.carsoffer.offer.dto;
+
+import java.util.List;
+
+public record OfferFacetsDTO(
+        List<OfferFacetDTO> brands,
+        List<OfferFacetDTO> fuelTypes,
+        List<OfferFacetDTO> years
+) {
+}
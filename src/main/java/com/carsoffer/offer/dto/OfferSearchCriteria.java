@@ -1,14 +1,16 @@
 package com.carsoffer.offer.dto;
 
+import com.carsoffer.common.metrics.QueryFilter;
+
 import java.time.LocalDate;
 
 public record OfferSearchCriteria(
-        String customerFirstName,
-        String customerLastName,
-        Double minPrice,
-        Double maxPrice,
-        LocalDate startDate,
-        LocalDate endDate,
+        @QueryFilter String customerFirstName,
+        @QueryFilter String customerLastName,
+        @QueryFilter Double minPrice,
+        @QueryFilter Double maxPrice,
+        @QueryFilter LocalDate startDate,
+        @QueryFilter LocalDate endDate,
         String sortBy,
         boolean asc,
         int page,
@@ -0,0 +1,13 @@
+package com.carsoffer.offer.dto;
+
+import java.util.Set;
+
+/**
+ * Fired once by a bulk offer create instead of an {@link OfferChangedEvent} per offer. It names only the cars that
+ * gained offers, so its size does not grow with the number of offers created.
+ */
+public record OffersCreatedEvent(
+        int count,
+        Set<Long> carIds
+) {
+}
@@ -14,6 +14,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "offers", indexes = {
         @Index(name = "idx_offer_price", columnList = "price"),
+        @Index(name = "idx_offer_price_id", columnList = "price, id"),
         @Index(name = "idx_offer_car_id", columnList = "car_id"),
         @Index(name = "idx_customer_name", columnList = "customer_first_name, customer_last_name")
 })
@@ -25,7 +26,7 @@ public class Offer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offerSeq")
-    @SequenceGenerator(name = "offerSeq", sequenceName = "offer_seq", allocationSize = 1)
+    @SequenceGenerator(name = "offerSeq", sequenceName = "offer_seq", allocationSize = 50)
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
 
@@ -1,56 +1,115 @@
 package com.carsoffer.offer.repository;
 
+import com.carsoffer.common.metrics.QueryFilter;
+import com.carsoffer.common.metrics.QueryTimed;
+import com.carsoffer.common.utils.LikePatterns;
+import com.carsoffer.common.utils.PagedResult;
+import com.carsoffer.common.utils.TableStatistics;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
 import com.carsoffer.offer.entity.Offer;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.cache.CacheResult;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
-import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 
 import java.math.BigDecimal;
 import java.util.*;
 
+@QueryTimed
 @ApplicationScoped
 public class OfferRepository implements PanacheRepository<Offer> {
 
     private final EntityManager entityManager;
+    private final String schema;
 
     @Inject
-    public OfferRepository(EntityManager em) {
+    public OfferRepository(EntityManager em,
+                           @ConfigProperty(name = "quarkus.hibernate-orm.database.default-schema", defaultValue = "public") String schema) {
         this.entityManager = em;
+        this.schema = schema;
     }
 
-    public PanacheQuery<Offer> findByCustomerByFirstNameAndCustomerByLastNamePaged(String firstName, String lastName, int page, int size) {
-        String query = "select o from Offer o where 1=1";
+    public PagedResult<Offer> findByCustomerByFirstNameAndCustomerByLastNamePaged(@QueryFilter String firstName, @QueryFilter String lastName, int page, int size, boolean withTotal) {
+        String query = "from Offer o where 1=1";
         Map<String, Object> parameters = new HashMap<>();
 
         if (firstName != null && !firstName.isEmpty()) {
-            query += " and lower(o.customerFirstName) like :firstName";
-            parameters.put("firstName", "%" + firstName.toLowerCase() + "%");
+            query += " and lower(o.customerFirstName) like :firstName escape '!'";
+            parameters.put("firstName", LikePatterns.contains(firstName));
         }
 
         if (lastName != null && !lastName.isEmpty()) {
-            query += " and lower(o.customerLastName) like :lastName";
-            parameters.put("lastName", "%" + lastName.toLowerCase() + "%");
+            query += " and lower(o.customerLastName) like :lastName escape '!'";
+            parameters.put("lastName", LikePatterns.contains(lastName));
         }
 
-        return find(query, parameters).page(Page.of(page, size));
+        return PagedResult.fetch(entityManager, Offer.class, "o", query, parameters, "o.id", page, size, withTotal);
     }
 
 
-    public PanacheQuery<Offer> findByPriceBetweenPaged(BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
-        return find("price >= :minPrice and price <= :maxPrice",
-                Parameters.with("minPrice", minPrice).and("maxPrice", maxPrice))
-                .page(Page.of(page, size));
+    public PagedResult<Offer> findByPriceBetweenPaged(BigDecimal minPrice, BigDecimal maxPrice, int page, int size, boolean withTotal) {
+        return PagedResult.fetch(entityManager, Offer.class, "o", "from Offer o where o.price >= :minPrice and o.price <= :maxPrice",
+                Map.of("minPrice", minPrice, "maxPrice", maxPrice), "o.price, o.id", page, size, withTotal);
     }
 
-    public PanacheQuery<Offer> findAllPaged(int page, int size) {
-        return findAll().page(Page.of(page, size));
+    public PagedResult<Offer> findAllPaged(int page, int size, boolean withTotal) {
+        return PagedResult.fetch(entityManager, Offer.class, "o", "from Offer o", Map.of(), "o.id", page, size, withTotal);
+    }
+
+    @CacheResult(cacheName = "offer-count-estimate-cache")
+    public long estimateCount() {
+        long estimate = TableStatistics.estimateRowCount(entityManager, schema, "offers");
+        return estimate >= 0 ? estimate : count();
+    }
+
+    public ScrollableResults<Offer> scrollAll(int fetchSize) {
+        return entityManager.unwrap(Session.class)
+                .createSelectionQuery("from Offer o order by o.id", Offer.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    public List<Offer> findAllAfter(long lastId, int limit) {
+        return find("id > ?1", Sort.by("id"), lastId)
+                .range(0, limit - 1)
+                .list();
+    }
+
+    public List<Offer> findByPriceBetweenAfter(BigDecimal minPrice, BigDecimal maxPrice, BigDecimal lastPrice, long lastId, int limit) {
+        return find("price >= :minPrice and price <= :maxPrice and price >= :lastPrice"
+                        + " and (price > :lastPrice or (price = :lastPrice and id > :lastId))",
+                Sort.by("price").and("id"),
+                Parameters.with("minPrice", minPrice).and("maxPrice", maxPrice)
+                        .and("lastPrice", lastPrice).and("lastId", lastId))
+                .range(0, limit - 1)
+                .list();
+    }
+
+    /**
+     * Offer count and min/avg/max price per car brand, fuel type and year in a single scan.
+     * Each row belongs to exactly one grouping set; the columns outside that set come back null.
+     * Columns: brand, fuel_type, year, count, min, avg, max.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> aggregateFacets() {
+        return entityManager.createNativeQuery("select c.brand, c.fuel_type, c.year, count(*),"
+                        + " min(o.price), round(avg(o.price), 2), max(o.price)"
+                        + " from {h-schema}offers o join {h-schema}cars c on c.id = o.car_id"
+                        + " group by grouping sets ((c.brand), (c.fuel_type), (c.year))"
+                        + " order by count(*) desc")
+                .getResultList();
     }
 
     public Optional<Offer> findOfferWithCarById(Long offerId) {
@@ -60,7 +119,7 @@ public class OfferRepository implements PanacheRepository<Offer> {
     }
 
 
-    public List<Offer> searchOffers(OfferSearchCriteria criteria) {
+    public List<Offer> searchOffers(@QueryFilter OfferSearchCriteria criteria) {
 
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Offer> criteriaQuery = criteriaBuilder.createQuery(Offer.class);
@@ -83,11 +142,11 @@ public class OfferRepository implements PanacheRepository<Offer> {
 
         Optional.ofNullable(criteria.customerFirstName())
                 .filter(name -> !name.isEmpty())
-                .ifPresent(name -> predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("customerFirstName")), "%" + name.toLowerCase() + "%")));
+                .ifPresent(name -> predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("customerFirstName")), LikePatterns.contains(name), LikePatterns.ESCAPE)));
 
         Optional.ofNullable(criteria.customerLastName())
                 .filter(name -> !name.isEmpty())
-                .ifPresent(name -> predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("customerLastName")), "%" + name.toLowerCase() + "%")));
+                .ifPresent(name -> predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("customerLastName")), LikePatterns.contains(name), LikePatterns.ESCAPE)));
 
         if (criteria.minPrice() != null || criteria.maxPrice() != null) {
             Double effectiveMinPrice = Optional.ofNullable(criteria.minPrice()).orElse(0.0);
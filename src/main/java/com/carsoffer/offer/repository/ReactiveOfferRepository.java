@@ -0,0 +1,125 @@
+package com.carsoffer.offer.repository;
+
+import com.carsoffer.common.utils.LikePatterns;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only offer queries on the reactive Postgres client, for the {@code reactive} build profile.
+ */
+@IfBuildProfile("reactive")
+@ApplicationScoped
+public class ReactiveOfferRepository {
+
+    private static final String COLUMNS = "id, customer_first_name, customer_last_name, price, offer_date, last_modified_offer, car_id";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "customerFirstName", "customer_first_name",
+            "customerLastName", "customer_last_name",
+            "price", "price",
+            "offerDate", "offer_date",
+            "lastModifiedOffer", "last_modified_offer");
+
+    private final PgPool client;
+    private final String offers;
+
+    @Inject
+    public ReactiveOfferRepository(PgPool client,
+                                   @ConfigProperty(name = "quarkus.hibernate-orm.database.default-schema", defaultValue = "public") String schema) {
+        this.client = client;
+        this.offers = schema + ".offers";
+    }
+
+    public Uni<OfferDTO> findById(Long id) {
+        return client.preparedQuery("select " + COLUMNS + " from " + offers + " where id = $1")
+                .execute(Tuple.of(id))
+                .map(rows -> rows.iterator().hasNext() ? toDTO(rows.iterator().next()) : null);
+    }
+
+    public Multi<OfferDTO> searchOffers(OfferSearchCriteria criteria) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select " + COLUMNS + " from " + offers + " where true");
+
+        Optional.ofNullable(criteria.customerFirstName())
+                .filter(name -> !name.isEmpty())
+                .ifPresent(name -> {
+                    params.add(LikePatterns.contains(name));
+                    sql.append(" and lower(customer_first_name) like $").append(params.size()).append(" escape '!'");
+                });
+
+        Optional.ofNullable(criteria.customerLastName())
+                .filter(name -> !name.isEmpty())
+                .ifPresent(name -> {
+                    params.add(LikePatterns.contains(name));
+                    sql.append(" and lower(customer_last_name) like $").append(params.size()).append(" escape '!'");
+                });
+
+        if (criteria.minPrice() != null) {
+            params.add(BigDecimal.valueOf(criteria.minPrice()));
+            sql.append(" and price >= $").append(params.size());
+        }
+        if (criteria.maxPrice() != null) {
+            params.add(BigDecimal.valueOf(criteria.maxPrice()));
+            sql.append(" and price <= $").append(params.size());
+        }
+        if (criteria.startDate() != null) {
+            params.add(criteria.startDate().atStartOfDay());
+            sql.append(" and offer_date >= $").append(params.size());
+        }
+        if (criteria.endDate() != null) {
+            params.add(criteria.endDate().atStartOfDay());
+            sql.append(" and offer_date <= $").append(params.size());
+        }
+
+        sql.append(" order by ").append(sortColumn(criteria.sortBy())).append(criteria.asc() ? " asc" : " desc");
+        params.add(criteria.size());
+        sql.append(" limit $").append(params.size());
+        params.add((long) criteria.page() * criteria.size());
+        sql.append(" offset $").append(params.size());
+
+        return stream(client.preparedQuery(sql.toString()).execute(Tuple.from(params)));
+    }
+
+    private static String sortColumn(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return "id";
+        }
+        String column = SORT_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Unable to sort by " + sortBy + ". Allowed values are: " + SORT_COLUMNS.keySet());
+        }
+        return column;
+    }
+
+    private static Multi<OfferDTO> stream(Uni<RowSet<Row>> rows) {
+        return rows.onItem().transformToMulti(set -> Multi.createFrom().iterable(set))
+                .map(ReactiveOfferRepository::toDTO);
+    }
+
+    static OfferDTO toDTO(Row row) {
+        return new OfferDTO(
+                row.getLong("id"),
+                row.getString("customer_first_name"),
+                row.getString("customer_last_name"),
+                row.getBigDecimal("price"),
+                row.getLocalDateTime("offer_date"),
+                row.getLocalDateTime("last_modified_offer"),
+                row.getLong("car_id"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.entity.Offer;
+import com.carsoffer.offer.repository.OfferRepository;
+import com.carsoffer.common.mappers.OfferMapper;
+import com.carsoffer.common.utils.DataFormat;
+import com.carsoffer.common.utils.ExportStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.ScrollableResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@ApplicationScoped
+public class OfferExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OfferExportService.class);
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final OfferRepository offerRepository;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public OfferExportService(OfferRepository offerRepository, ObjectMapper objectMapper) {
+        this.offerRepository = offerRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    @TransactionConfiguration(timeout = 3600)
+    public long exportOffers(DataFormat format, OutputStream output) throws IOException {
+        log.info("Exporting all offers as {}", format);
+        try (ScrollableResults<Offer> offers = offerRepository.scrollAll(EXPORT_FETCH_SIZE);
+             SequenceWriter writer = format.writer(objectMapper, OfferDTO.class, output)) {
+            long exported = ExportStreams.writeAll(offers, OfferMapper::toDTO, writer, offerRepository.getEntityManager(), EXPORT_FETCH_SIZE);
+            log.info("Exported {} offers", exported);
+            return exported;
+        }
+    }
+}
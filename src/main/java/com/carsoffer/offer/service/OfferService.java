@@ -1,8 +1,10 @@
 package com.carsoffer.offer.service;
 
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferFacetsDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
 import com.carsoffer.offer.dto.UpdateOfferDTO;
 
@@ -11,21 +13,41 @@ import java.util.List;
 
 public interface OfferService {
 
-    PaginatedResponse<OfferDTO> getAllOffer(int page, int size);
+    PaginatedResponse<OfferDTO> getAllOffer(int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<OfferDTO> getAllOffer(int page, int size) {
+        return getAllOffer(page, size, TotalMode.EXACT);
+    }
+
+    PaginatedResponse<OfferDTO> getAllOfferAfter(String cursor, int size);
 
     OfferDTO findOfferById(Long id);
 
     OfferDTO createOffer(CreateOfferDTO createOfferDTO);
 
+    int createOffers(List<CreateOfferDTO> createOfferDTOs);
+
     OfferDTO updateOffer(Long id, UpdateOfferDTO updateOfferDTO);
 
     void deleteOffer(Long id);
 
-    PaginatedResponse<OfferDTO> getOffersByCustomerName(String firstName, String lastName, int page, int size);
+    PaginatedResponse<OfferDTO> getOffersByCustomerName(String firstName, String lastName, int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<OfferDTO> getOffersByCustomerName(String firstName, String lastName, int page, int size) {
+        return getOffersByCustomerName(firstName, lastName, page, size, TotalMode.EXACT);
+    }
 
-    PaginatedResponse<OfferDTO> getOffersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size);
+    PaginatedResponse<OfferDTO> getOffersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size, TotalMode totalMode);
+
+    default PaginatedResponse<OfferDTO> getOffersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        return getOffersByPriceRange(minPrice, maxPrice, page, size, TotalMode.EXACT);
+    }
+
+    PaginatedResponse<OfferDTO> getOffersByPriceRangeAfter(BigDecimal minPrice, BigDecimal maxPrice, String cursor, int size);
 
     List<OfferDTO> searchOffers(OfferSearchCriteria offerSearchCriteria);
 
+    OfferFacetsDTO getOfferFacets();
+
 
 }
@@ -2,23 +2,31 @@ package com.carsoffer.offer.service;
 
 import com.carsoffer.car.entity.Car;
 import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.cache.RefreshAhead;
+import com.carsoffer.common.cache.SecondTier;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
 import com.carsoffer.common.mappers.OfferMapper;
+import com.carsoffer.common.persistence.ReadOnly;
+import com.carsoffer.common.utils.PageCursor;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import com.carsoffer.offer.dto.CreateOfferDTO;
+import com.carsoffer.offer.dto.OfferChangedEvent;
 import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferFacetDTO;
+import com.carsoffer.offer.dto.OfferFacetsDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
 import com.carsoffer.offer.dto.UpdateOfferDTO;
 import com.carsoffer.offer.entity.Offer;
 import com.carsoffer.offer.repository.OfferRepository;
-import io.quarkus.cache.CacheInvalidate;
-import io.quarkus.cache.CacheInvalidateAll;
-import io.quarkus.cache.CacheKey;
 import io.quarkus.cache.CacheResult;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
@@ -26,43 +34,61 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @ApplicationScoped
 public class OfferServiceImpl implements OfferService {
 
     private static final Logger log = LoggerFactory.getLogger(OfferServiceImpl.class);
+    static final int BULK_CHUNK_SIZE = 50;
     private final OfferRepository offerRepository;
     private final CarRepository carRepository;
+    private final Event<OfferChangedEvent> offerChangedEvent;
+    private final Event<OffersCreatedEvent> offersCreatedEvent;
 
 
     @Inject
-    public OfferServiceImpl(OfferRepository offerRepository, CarRepository carRepository) {
+    public OfferServiceImpl(OfferRepository offerRepository, CarRepository carRepository, Event<OfferChangedEvent> offerChangedEvent,
+                            Event<OffersCreatedEvent> offersCreatedEvent) {
         this.offerRepository = offerRepository;
         this.carRepository = carRepository;
+        this.offerChangedEvent = offerChangedEvent;
+        this.offersCreatedEvent = offersCreatedEvent;
     }
 
 
     @Override
-    @CacheResult(cacheName = "offer-list-cache")
-    public PaginatedResponse<OfferDTO> getAllOffer(int page, int size) {
-        log.info("Fetching all offers - page {}, size {}", page, size);
-        PanacheQuery<Offer> offersQuery = offerRepository.findAllPaged(page, size);
+    @RefreshAhead(cacheName = "offer-list-cache")
+    @ReadOnly(replica = false)
+    public PaginatedResponse<OfferDTO> getAllOffer(int page, int size, TotalMode totalMode) {
+        log.info("Fetching all offers - page {}, size {}, total {}", page, size, totalMode);
+        PagedResult<Offer> result = offerRepository.findAllPaged(page, size, totalMode == TotalMode.EXACT);
 
-        List<OfferDTO> offerDTOS = offersQuery.stream()
+        List<OfferDTO> offerDTOS = result.items().stream()
                 .map(OfferMapper::toDTO).toList();
 
-        long totalItems = offersQuery.count();
-        return new PaginatedResponse<>(
-                    offerDTOS,
-                    totalItems,
-                   offersQuery.pageCount(),
-                  page, size
-        );
+        long totalItems = totalMode == TotalMode.ESTIMATED ? offerRepository.estimateCount() : result.totalItems();
+        return PaginatedResponse.of(offerDTOS, totalItems, page, size)
+                .withNextCursor(offer -> PageCursor.of(offer.id(), offer.id()));
+    }
+
+    @Override
+    @ReadOnly
+    public PaginatedResponse<OfferDTO> getAllOfferAfter(String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        log.info("Fetching all offers after ID {}, size {}", after.id(), size);
+        List<OfferDTO> offerDTOS = offerRepository.findAllAfter(after.id(), size + 1).stream()
+                .map(OfferMapper::toDTO).toList();
+        return PaginatedResponse.ofKeyset(offerDTOS, size, offer -> PageCursor.of(offer.id(), offer.id()));
     }
 
     @Override
     @CacheResult(cacheName = "offer-cache")
+    @SecondTier(cacheName = "offer-cache")
+    @ReadOnly(replica = false)
     public OfferDTO findOfferById(Long id) {
         log.info("Fetching offer by ID: {}", id);
         return offerRepository.findByIdOptional(id)
@@ -72,14 +98,60 @@ public class OfferServiceImpl implements OfferService {
 
     @Override
     @Transactional
-    @CacheInvalidateAll(cacheName = "offer-cache")
-    @CacheInvalidateAll(cacheName = "offer-list-cache")
     public OfferDTO createOffer(CreateOfferDTO createOfferDTO) {
         log.info("Creating new offer with details: {}", createOfferDTO);
         Car car = carRepository.findByIdOptional(createOfferDTO.carId())
                 .orElseThrow(() -> new CarNotFoundException(createOfferDTO.carId()));
 
-        Offer offer = new Offer.Builder()
+        Offer offer = buildOffer(createOfferDTO, car);
+        offerRepository.persist(offer);
+        return created(offer);
+    }
+
+    @Override
+    @Transactional
+    public int createOffers(List<CreateOfferDTO> createOfferDTOs) {
+        log.info("Bulk creating {} offers", createOfferDTOs.size());
+        Set<Long> allCarIds = new HashSet<>();
+
+        for (int from = 0; from < createOfferDTOs.size(); from += BULK_CHUNK_SIZE) {
+            List<CreateOfferDTO> chunk = createOfferDTOs.subList(from, Math.min(from + BULK_CHUNK_SIZE, createOfferDTOs.size()));
+            Set<Long> carIds = new HashSet<>();
+            for (CreateOfferDTO createOfferDTO : chunk) {
+                if (createOfferDTO.carId() == null) {
+                    throw new CarNotFoundException(null);
+                }
+                carIds.add(createOfferDTO.carId());
+            }
+            Set<Long> existingCarIds = carRepository.findExistingIds(carIds);
+            for (Long carId : carIds) {
+                if (!existingCarIds.contains(carId)) {
+                    throw new CarNotFoundException(carId);
+                }
+            }
+            allCarIds.addAll(carIds);
+
+            EntityManager entityManager = offerRepository.getEntityManager();
+            for (CreateOfferDTO createOfferDTO : chunk) {
+                Car car = entityManager.getReference(Car.class, createOfferDTO.carId());
+                offerRepository.persist(buildOffer(createOfferDTO, car));
+            }
+            offerRepository.flush();
+            entityManager.clear();
+        }
+        // one event for the whole batch: per-offer events would be held until commit and evict the caches per offer
+        offersCreatedEvent.fire(new OffersCreatedEvent(createOfferDTOs.size(), Set.copyOf(allCarIds)));
+        return createOfferDTOs.size();
+    }
+
+    private OfferDTO created(Offer offer) {
+        OfferDTO offerDTO = OfferMapper.toDTO(offer);
+        offerChangedEvent.fire(OfferChangedEvent.created(offerDTO));
+        return offerDTO;
+    }
+
+    private Offer buildOffer(CreateOfferDTO createOfferDTO, Car car) {
+        return new Offer.Builder()
                 .customerFirstName(createOfferDTO.customerFirstName())
                 .customerLastName(createOfferDTO.customerLastName())
                 .price(createOfferDTO.price())
@@ -87,20 +159,16 @@ public class OfferServiceImpl implements OfferService {
                 .offerDate(LocalDateTime.now())
                 .lastModifiedDate(null)
                 .build();
-
-        offerRepository.persist(offer);
-        return OfferMapper.toDTO(offer);
     }
 
     @Override
     @Transactional
-    @CacheInvalidate(cacheName = "offer-cache")
-    @CacheInvalidateAll(cacheName = "offer-list-cache")
-    public OfferDTO updateOffer(@CacheKey Long id, UpdateOfferDTO offerDTO) {
+    public OfferDTO updateOffer(Long id, UpdateOfferDTO offerDTO) {
         log.info("Updating offer ID: {}", id);
 
         Offer offer = offerRepository.findOfferWithCarById(id)
                 .orElseThrow(() ->  new OfferNotFoundException(id));
+        OfferDTO previous = OfferMapper.toDTO(offer);
 
         offer.setCustomerFirstName(offerDTO.customerFirstName());
         offer.setCustomerLastName(offerDTO.customerLastName());
@@ -113,45 +181,60 @@ public class OfferServiceImpl implements OfferService {
             offer.setCar(car);
         }
 
-        return OfferMapper.toDTO(offer);
+        OfferDTO updated = OfferMapper.toDTO(offer);
+        offerChangedEvent.fire(OfferChangedEvent.updated(previous, updated));
+        return updated;
     }
 
     @Override
     @Transactional
-    @CacheInvalidate(cacheName = "offer-cache")
-    @CacheInvalidateAll(cacheName = "offer-list-cache")
-    public void deleteOffer(@CacheKey Long id) {
+    public void deleteOffer(Long id) {
         log.info("Deleting offer ID: {}", id);
         Offer offer = offerRepository.findByIdOptional(id)
                 .orElseThrow(() -> new EntityNotFoundException("Offer with ID " + id + " not found"));
+        OfferDTO previous = OfferMapper.toDTO(offer);
         offerRepository.delete(offer);
+        offerChangedEvent.fire(OfferChangedEvent.deleted(previous));
     }
 
     @Override
-    public PaginatedResponse<OfferDTO> getOffersByCustomerName(String firstName, String lastName, int page, int size) {
+    @ReadOnly
+    public PaginatedResponse<OfferDTO> getOffersByCustomerName(String firstName, String lastName, int page, int size, TotalMode totalMode) {
         if ((firstName == null || firstName.isBlank()) && (lastName == null || lastName.isBlank())) {
             throw new IllegalArgumentException("firstName or lastName must be provided.");
         }
-        PanacheQuery<Offer> offerQuery = offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged(firstName, lastName, page, size);
-        long totalItems = offerQuery.count();
-        List<OfferDTO> offerDTOS = offerQuery.stream()
+        PagedResult<Offer> result = offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged(
+                firstName, lastName, page, size, totalMode != TotalMode.NONE);
+        List<OfferDTO> offerDTOS = result.items().stream()
                 .map(OfferMapper::toDTO).toList();
 
-        return new PaginatedResponse<>(offerDTOS, totalItems, offerQuery.pageCount(), page, size);
+        return PaginatedResponse.of(offerDTOS, result.totalItems(), page, size);
     }
 
     @Override
-    public PaginatedResponse<OfferDTO> getOffersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+    @ReadOnly
+    public PaginatedResponse<OfferDTO> getOffersByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size, TotalMode totalMode) {
        validatePrices(minPrice, maxPrice);
-        PanacheQuery<Offer> offerQuery = offerRepository.findByPriceBetweenPaged(minPrice, maxPrice, page, size);
-        long totalItems = offerQuery.count();
+        PagedResult<Offer> result = offerRepository.findByPriceBetweenPaged(minPrice, maxPrice, page, size, totalMode != TotalMode.NONE);
 
-        List<OfferDTO> offerDTOs = offerQuery
+        List<OfferDTO> offerDTOs = result.items()
                 .stream().map(OfferMapper::toDTO).toList();
-        return new PaginatedResponse<>(offerDTOs, totalItems, offerQuery.pageCount(), page, size);
+        return PaginatedResponse.of(offerDTOs, result.totalItems(), page, size)
+                .withNextCursor(offer -> PageCursor.of(offer.price(), offer.id()));
     }
 
     @Override
+    @ReadOnly
+    public PaginatedResponse<OfferDTO> getOffersByPriceRangeAfter(BigDecimal minPrice, BigDecimal maxPrice, String cursor, int size) {
+        validatePrices(minPrice, maxPrice);
+        PageCursor after = PageCursor.decode(cursor);
+        List<OfferDTO> offerDTOs = offerRepository.findByPriceBetweenAfter(minPrice, maxPrice, after.sortKeyAsDecimal(), after.id(), size + 1)
+                .stream().map(OfferMapper::toDTO).toList();
+        return PaginatedResponse.ofKeyset(offerDTOs, size, offer -> PageCursor.of(offer.price(), offer.id()));
+    }
+
+    @Override
+    @ReadOnly
     public List<OfferDTO> searchOffers(OfferSearchCriteria criteria) {
         log.info("Searching offers with criteria: {}", criteria);
         if ((criteria.customerFirstName() == null || criteria.customerFirstName().isBlank()) &&
@@ -169,6 +252,35 @@ public class OfferServiceImpl implements OfferService {
                 .toList();
     }
 
+    @Override
+    @CacheResult(cacheName = "offer-facets-cache")
+    public OfferFacetsDTO getOfferFacets() {
+        log.info("Aggregating offer facets");
+        List<OfferFacetDTO> brands = new ArrayList<>();
+        List<OfferFacetDTO> fuelTypes = new ArrayList<>();
+        List<OfferFacetDTO> years = new ArrayList<>();
+
+        for (Object[] row : offerRepository.aggregateFacets()) {
+            if (row[0] != null) {
+                brands.add(toFacet(row[0], row));
+            } else if (row[1] != null) {
+                fuelTypes.add(toFacet(row[1], row));
+            } else if (row[2] != null) {
+                years.add(toFacet(row[2], row));
+            }
+        }
+        return new OfferFacetsDTO(brands, fuelTypes, years);
+    }
+
+    private OfferFacetDTO toFacet(Object value, Object[] row) {
+        return new OfferFacetDTO(value.toString(), ((Number) row[3]).longValue(),
+                toDecimal(row[4]), toDecimal(row[5]), toDecimal(row[6]));
+    }
+
+    private BigDecimal toDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
     //TODO kreirati ponudu s autom aka cijelim objektom audta (OptiMALNO)
 
 
@@ -0,0 +1,13 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+public interface ReactiveOfferService {
+
+    Uni<OfferDTO> findOfferById(Long id);
+
+    Multi<OfferDTO> searchOffers(OfferSearchCriteria offerSearchCriteria);
+}
@@ -0,0 +1,48 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.common.exceptions.OfferNotFoundException;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.repository.ReactiveOfferRepository;
+import io.quarkus.arc.profile.IfBuildProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking counterpart of the query side of {@link OfferServiceImpl}, active in the {@code reactive} build profile.
+ */
+@IfBuildProfile("reactive")
+@ApplicationScoped
+public class ReactiveOfferServiceImpl implements ReactiveOfferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOfferServiceImpl.class);
+    private final ReactiveOfferRepository offerRepository;
+
+    @Inject
+    public ReactiveOfferServiceImpl(ReactiveOfferRepository offerRepository) {
+        this.offerRepository = offerRepository;
+    }
+
+    @Override
+    public Uni<OfferDTO> findOfferById(Long id) {
+        log.info("Fetching offer by ID: {}", id);
+        return offerRepository.findById(id)
+                .onItem().ifNull().failWith(() -> new OfferNotFoundException(id));
+    }
+
+    @Override
+    public Multi<OfferDTO> searchOffers(OfferSearchCriteria criteria) {
+        log.info("Searching offers with criteria: {}", criteria);
+        if ((criteria.customerFirstName() == null || criteria.customerFirstName().isBlank()) &&
+                (criteria.customerLastName() == null || criteria.customerLastName().isBlank()) &&
+                criteria.minPrice() == null && criteria.maxPrice() == null &&
+                criteria.startDate() == null && criteria.endDate() == null) {
+            return Multi.createFrom().failure(new IllegalArgumentException("At least one search parameter must be provided."));
+        }
+        return offerRepository.searchOffers(criteria);
+    }
+}
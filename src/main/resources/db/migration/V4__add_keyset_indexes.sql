@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_year_id ON cars (year, id);
+
+CREATE INDEX IF NOT EXISTS idx_offer_price_id ON offers (price, id);
@@ -0,0 +1,2 @@
+ALTER SEQUENCE car_id_seq INCREMENT BY 50;
+ALTER SEQUENCE offer_seq INCREMENT BY 50;
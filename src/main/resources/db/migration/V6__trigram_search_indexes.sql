@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_car_brand_trgm ON cars USING gin (lower(brand) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_car_model_trgm ON cars USING gin (lower(model) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_car_color_trgm ON cars USING gin (lower(color) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_offer_first_name_trgm ON offers USING gin (lower(customer_first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_offer_last_name_trgm ON offers USING gin (lower(customer_last_name) gin_trgm_ops);
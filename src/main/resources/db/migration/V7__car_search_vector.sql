@@ -0,0 +1,6 @@
+ALTER TABLE cars ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        to_tsvector('simple', brand || ' ' || model || ' ' || color || ' ' || fuel_type || ' ' || year::text)
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_car_search_vector ON cars USING gin (search_vector);
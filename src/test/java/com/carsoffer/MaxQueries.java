@@ -0,0 +1,20 @@
+package com.carsoffer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a {@code @QuarkusTest} when one of its requests runs more SQL statements than {@link #value()}, as reported
+ * by the {@code X-Query-Count} header. Only requests with one of {@link #methods()} are checked, so a test can set up
+ * its data through the API without spending the budget of the request under test. See {@link QueryBudgetCallback}.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxQueries {
+
+    int value();
+
+    String[] methods() default { "GET" };
+}
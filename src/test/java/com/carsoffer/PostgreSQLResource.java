@@ -21,6 +21,9 @@ public class PostgreSQLResource implements QuarkusTestResourceLifecycleManager {
         properties.put("quarkus.datasource.jdbc.url", postgres.getJdbcUrl());
         properties.put("quarkus.datasource.username", postgres.getUsername());
         properties.put("quarkus.datasource.password", postgres.getPassword());
+        // only the reactive profile has a reactive datasource; other builds never read this key
+        properties.put("%reactive.quarkus.datasource.reactive.url", "postgresql://%s:%d/%s".formatted(
+                postgres.getHost(), postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), postgres.getDatabaseName()));
         properties.put("quarkus.flyway.migrate-at-start", "true");
 
 
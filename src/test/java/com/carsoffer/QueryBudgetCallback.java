@@ -0,0 +1,64 @@
+package com.carsoffer;
+
+import com.carsoffer.common.metrics.QueryBudgetFilter;
+import io.quarkus.test.junit.callback.QuarkusTestAfterEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestBeforeEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestMethodContext;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enforces {@link MaxQueries}: while an annotated test runs, a RestAssured filter collects the requests that went
+ * over budget, and the test fails after it finishes if there were any.
+ */
+public class QueryBudgetCallback implements QuarkusTestBeforeEachCallback, QuarkusTestAfterEachCallback {
+
+    private static List<Filter> previousFilters;
+    private static final List<String> violations = new ArrayList<>();
+
+    @Override
+    public void beforeEach(QuarkusTestMethodContext context) {
+        MaxQueries budget = budgetOf(context);
+        if (budget == null) {
+            return;
+        }
+        violations.clear();
+        previousFilters = new ArrayList<>(RestAssured.filters());
+        RestAssured.filters((request, response, filterContext) -> {
+            var result = filterContext.next(request, response);
+            if (Arrays.stream(budget.methods()).anyMatch(method -> method.equalsIgnoreCase(request.getMethod()))) {
+                String count = result.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER);
+                if (count == null) {
+                    violations.add(request.getMethod() + " " + request.getURI() + " did not report " + QueryBudgetFilter.QUERY_COUNT_HEADER
+                            + ", is carsoffer.query-budget.headers on?");
+                } else if (Integer.parseInt(count) > budget.value()) {
+                    violations.add(request.getMethod() + " " + request.getURI() + " ran " + count + " SQL statements, budget is " + budget.value());
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void afterEach(QuarkusTestMethodContext context) {
+        if (previousFilters == null) {
+            return;
+        }
+        RestAssured.replaceFiltersWith(previousFilters);
+        previousFilters = null;
+        if (!violations.isEmpty()) {
+            List<String> failures = List.copyOf(violations);
+            violations.clear();
+            throw new AssertionError("Query budget exceeded:\n" + String.join("\n", failures));
+        }
+    }
+
+    private static MaxQueries budgetOf(QuarkusTestMethodContext context) {
+        MaxQueries budget = context.getTestMethod().getAnnotation(MaxQueries.class);
+        return budget != null ? budget : context.getTestInstance().getClass().getAnnotation(MaxQueries.class);
+    }
+}
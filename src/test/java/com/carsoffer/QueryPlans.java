@@ -0,0 +1,52 @@
+package com.carsoffer;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans the SQL Hibernate actually generated, as captured by {@link com.carsoffer.common.metrics.CapturingQueryCounter}.
+ */
+public final class QueryPlans {
+
+    private QueryPlans() {
+    }
+
+    /**
+     * The generic plan of {@code sql}, whose {@code ?} placeholders are planned as unknown parameters. Sequential and
+     * plain index scans are switched off for the current transaction, so on the near-empty test tables the planner
+     * shows whether a bitmap index scan can serve the predicates rather than what is cheapest on a few rows.
+     */
+    public static String explain(EntityManager em, String sql) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set local enable_seqscan = off");
+                statement.execute("set local enable_indexscan = off");
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rows = statement.executeQuery("explain (generic_plan) " + numberPlaceholders(sql))) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    private static String numberPlaceholders(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.carsoffer;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Starts the application in the {@code reactive} profile, so the {@code @IfBuildProfile("reactive")} beans exist.
+ * Only compiled in the {@code -Dreactive} build, which has the reactive client on the classpath.
+ */
+public class ReactiveProfile implements QuarkusTestProfile {
+
+    @Override
+    public String getConfigProfile() {
+        return "reactive";
+    }
+}
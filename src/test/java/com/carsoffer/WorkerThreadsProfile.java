@@ -0,0 +1,16 @@
+package com.carsoffer;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Turns virtual threads off, so {@code @RunOnVirtualThread} endpoints run on the default worker pool instead.
+ */
+public class WorkerThreadsProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("quarkus.virtual-threads.enabled", "false");
+    }
+}
@@ -7,6 +7,7 @@ import com.carsoffer.car.dto.UpdateCarDTO;
 import com.carsoffer.car.service.CarService;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
@@ -239,7 +240,7 @@ class CarControllerHybridTest {
 
         PaginatedResponse<CarDTO> paginatedResponse = new PaginatedResponse<>(cars, 2, 1, 0, 20);
 
-        when(carService.getAllCars(0, 20)).thenReturn(paginatedResponse);
+        when(carService.getAllCars(0, 20, TotalMode.EXACT)).thenReturn(paginatedResponse);
 
 
         given()
@@ -289,7 +290,7 @@ class CarControllerHybridTest {
     @Test
     void testGetAllCars_EmptyList() {
         PaginatedResponse<CarDTO> emptyResponse = new PaginatedResponse<>(List.of(), 0, 1, 0, 20);
-        when(carService.getAllCars(0, 20)).thenReturn(emptyResponse);
+        when(carService.getAllCars(0, 20, TotalMode.EXACT)).thenReturn(emptyResponse);
 
         given()
                 .when()
@@ -314,7 +315,7 @@ class CarControllerHybridTest {
                 .body("errors[0].field", is("pageSize"))
                 .body("errors[0].message", is("must be greater than or equal to 1"));
 
-        verify(carService, never()).getAllCars(anyInt(), anyInt());
+        verify(carService, never()).getAllCars(anyInt(), anyInt(), any());
     }
 
     @Test
@@ -328,7 +329,7 @@ class CarControllerHybridTest {
                 .statusCode(400)
                 .body("errors[0].field", is("page"))
                 .body("errors[0].message", is("must be greater than or equal to 0"));
-        verify(carService, never()).getAllCars(anyInt(), anyInt());
+        verify(carService, never()).getAllCars(anyInt(), anyInt(), any());
 
     }
 
@@ -383,7 +384,7 @@ class CarControllerHybridTest {
         PaginatedResponse<CarDTO> paginatedResponse = new PaginatedResponse<>(cars, 1, 1, 0, 20);
 
 
-        when(carService.findByBrandAndModel("Audi", "A4", 0, 10)).thenReturn(paginatedResponse);
+        when(carService.findByBrandAndModel("Audi", "A4", 0, 10, TotalMode.EXACT)).thenReturn(paginatedResponse);
 
         given()
                 .queryParam("brand", "Audi")
@@ -415,7 +416,7 @@ class CarControllerHybridTest {
 
         PaginatedResponse<CarDTO> paginatedResponse = new PaginatedResponse<>(cars, 1, 1, 0, 20);
 
-        when(carService.findCarsByYearRange(2018, 2022, 0, 10)).thenReturn(paginatedResponse);
+        when(carService.findCarsByYearRange(2018, 2022, 0, 10, TotalMode.EXACT)).thenReturn(paginatedResponse);
 
         given()
                 .queryParam("startYear", 2018)
@@ -1,5 +1,6 @@
 package com.carsoffer.car.controller;
 
+import com.carsoffer.MaxQueries;
 import com.carsoffer.PostgreSQLResource;
 import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.entity.Car;
@@ -113,6 +114,7 @@ class CarControllerIntegrationTest {
     }
 
     @Test
+    @MaxQueries(1)
     public void testGetCarById() {
         Response response = given()
                 .pathParam("id", carId)
@@ -130,6 +132,7 @@ class CarControllerIntegrationTest {
 
 
     @Test
+    @MaxQueries(1)
     public void testGetCarByIdWithOffers() {
         String carJson = String.format("""
         {
@@ -283,6 +286,7 @@ class CarControllerIntegrationTest {
 
     @Test
     @Transactional
+    @MaxQueries(1)
     public void testFindByBrandAndModel() {
         Car car1 = createTestCar();
         car1.setBrand("Audi");
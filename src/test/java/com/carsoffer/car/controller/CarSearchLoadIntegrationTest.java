@@ -0,0 +1,170 @@
+package com.carsoffer.car.controller;
+
+import com.carsoffer.car.dto.CarImportRow;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.common.concurrency.AdmissionController;
+import com.carsoffer.common.concurrency.VirtualThreadPinningMonitor;
+import io.quarkus.test.common.http.TestHTTPResource;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends {@value #REQUESTS} requests to {@code GET /cars/search} over HTTP from {@value #CLIENTS} concurrent clients,
+ * so they go through request dispatch, {@code @RunOnVirtualThread} and the admission interceptor like production
+ * traffic. The subclasses run the endpoint on virtual threads and on the worker pool. Every response must be a 200
+ * or a 503 with {@code Retry-After}. The shed count must match the admission controller. Shed requests must come back
+ * within the admission max-wait and admitted ones well inside the pool's acquisition timeout. Run with
+ * {@code -DloadTest=true -Dtest='*CarSearchLoadIntegrationTest'}.
+ */
+abstract class CarSearchLoadIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CarSearchLoadIntegrationTest.class);
+    private static final int CARS = 5_000;
+    private static final int REQUESTS = 5_000;
+    private static final int CLIENTS = 200;
+    // a shed request waits max-wait for a permit; this leaves room for dispatch and a loaded test machine
+    private static final Duration SHED_SLACK = Duration.ofSeconds(1);
+    // well under quarkus.datasource.jdbc.acquisition-timeout, which admitted requests would approach without admission
+    private static final Duration ADMITTED_P99_LIMIT = Duration.ofSeconds(5);
+
+    @TestHTTPResource("/cars/search")
+    URI searchUri;
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    VirtualThreadPinningMonitor pinningMonitor;
+
+    @ConfigProperty(name = "carsoffer.admission.max-wait")
+    Duration maxWait;
+
+    record Result(String threads, int ok, int shed, int unexpected, int shedWithoutRetryAfter, double requestsPerSecond,
+                  long p50Millis, long p99Millis, long okP99Millis, long shedP99Millis) {
+    }
+
+    abstract String threads();
+
+    @Test
+    void searchUnderLoad() throws Exception {
+        seedCars();
+        long rejectedBefore = admissionController.stats().rejected();
+        long pinnedBefore = pinningMonitor.stats().pinnedEvents();
+
+        Result result = run();
+
+        log.info("{}", result);
+        log.info("Admission {}, pinning {}", admissionController.stats(), pinningMonitor.stats());
+        assertEquals(0, result.unexpected(), "every response is a 200 or a 503");
+        assertEquals(0, result.shedWithoutRetryAfter(), "every 503 tells the client when to retry");
+        assertTrue(result.ok() > 0, "admission let requests through");
+        assertEquals(admissionController.stats().rejected() - rejectedBefore, result.shed(),
+                "every 503 was shed by admission control, not by a pool timeout");
+        if (result.shed() > 0) {
+            assertTrue(result.shedP99Millis() <= maxWait.plus(SHED_SLACK).toMillis(),
+                    "shed requests fail fast instead of queueing: " + result);
+        }
+        assertTrue(result.okP99Millis() <= ADMITTED_P99_LIMIT.toMillis(), "admitted requests do not pile up: " + result);
+        assertPinning(pinningMonitor.stats().pinnedEvents() - pinnedBefore);
+    }
+
+    void assertPinning(long pinnedEvents) {
+    }
+
+    private Result run() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        int[] statuses = new int[REQUESTS];
+        boolean[] retryAfter = new boolean[REQUESTS];
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(CLIENTS);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int request = next.getAndIncrement(); request < REQUESTS; request = next.getAndIncrement()) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(search(request), HttpResponse.BodyHandlers.discarding());
+                        latencies[request] = System.nanoTime() - begin;
+                        statuses[request] = response.statusCode();
+                        retryAfter[request] = response.headers().firstValue("Retry-After").isPresent();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int ok = 0;
+        int shed = 0;
+        int shedWithoutRetryAfter = 0;
+        List<Long> okLatencies = new ArrayList<>();
+        List<Long> shedLatencies = new ArrayList<>();
+        for (int request = 0; request < REQUESTS; request++) {
+            if (statuses[request] == 200) {
+                ok++;
+                okLatencies.add(latencies[request]);
+            } else if (statuses[request] == 503) {
+                shed++;
+                shedLatencies.add(latencies[request]);
+                if (!retryAfter[request]) {
+                    shedWithoutRetryAfter++;
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(threads(), ok, shed, REQUESTS - ok - shed, shedWithoutRetryAfter, REQUESTS * 1_000_000_000.0 / elapsed,
+                latencies[REQUESTS / 2] / 1_000_000, latencies[REQUESTS * 99 / 100] / 1_000_000,
+                p99Millis(okLatencies), p99Millis(shedLatencies));
+    }
+
+    private HttpRequest search(int request) {
+        URI uri = URI.create(searchUri + "?brand=Brand" + (request % 50) + "&page=" + (request % 40) + "&size=10");
+        return HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(1)).GET().build();
+    }
+
+    private static long p99Millis(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return sorted.get(sorted.size() * 99 / 100) / 1_000_000;
+    }
+
+    private void seedCars() {
+        List<CarImportRow> cars = new ArrayList<>(CARS);
+        for (int i = 0; i < CARS; i++) {
+            cars.add(new CarImportRow(i + 1, new CreateCarDTO("Brand" + (i % 50), "Model" + (i % 200), 2000 + i % 25, "Color" + (i % 12),
+                    FuelType.values()[i % FuelType.values().length], "LOAD" + UUID.randomUUID().toString().substring(0, 13))));
+        }
+        carService.importChunk(cars);
+    }
+}
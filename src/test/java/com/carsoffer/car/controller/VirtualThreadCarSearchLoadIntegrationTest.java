@@ -0,0 +1,25 @@
+package com.carsoffer.car.controller;
+
+import com.carsoffer.PostgreSQLResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+@QuarkusTestResource(PostgreSQLResource.class)
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class VirtualThreadCarSearchLoadIntegrationTest extends CarSearchLoadIntegrationTest {
+
+    @Override
+    String threads() {
+        return "virtual";
+    }
+
+    @Override
+    void assertPinning(long pinnedEvents) {
+        // a pinned request holds a carrier thread while it waits on the pool or the database
+        assertEquals(0, pinnedEvents, "the search path never pins its carrier thread");
+    }
+}
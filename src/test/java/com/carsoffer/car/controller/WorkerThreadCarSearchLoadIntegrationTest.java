@@ -0,0 +1,20 @@
+package com.carsoffer.car.controller;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.WorkerThreadsProfile;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+@QuarkusTest
+@TestProfile(WorkerThreadsProfile.class)
+@QuarkusTestResource(PostgreSQLResource.class)
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class WorkerThreadCarSearchLoadIntegrationTest extends CarSearchLoadIntegrationTest {
+
+    @Override
+    String threads() {
+        return "worker";
+    }
+}
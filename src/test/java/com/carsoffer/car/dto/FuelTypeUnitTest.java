@@ -0,0 +1,44 @@
+package com.carsoffer.car.dto;
+
+import com.carsoffer.common.exceptions.InvalidFuelTypeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuelTypeUnitTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"DIESEL", "diesel", "Diesel", " dIeSeL ", "\tdiesel\n", "dıesel"})
+    void testFromString_MatchesIgnoringCaseAndWhitespace(String value) {
+        assertEquals(FuelType.DIESEL, FuelType.fromString(value));
+    }
+
+    @Test
+    void testFromString_EveryConstant() {
+        for (FuelType type : FuelType.values()) {
+            assertSame(type, FuelType.fromString(type.name().toLowerCase()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "GAS", "dies", "dieselx", "d iesel", "@DIESEL", "{", "ÿ", "ELECTRIC1"})
+    void testLookup_ReturnsNullForInvalidValues(String value) {
+        assertNull(FuelType.lookup(value));
+    }
+
+    @Test
+    void testFromString_InvalidValue() {
+        InvalidFuelTypeException thrown = assertThrows(InvalidFuelTypeException.class, () -> FuelType.fromString("steam"));
+
+        assertEquals("Invalid fuel type: steam. Allowed values are: [PETROL, DIESEL, ELECTRIC, HYBRID]", thrown.getMessage());
+        assertEquals(0, thrown.getStackTrace().length);
+    }
+
+    @Test
+    void testFromString_Null() {
+        assertNull(FuelType.lookup(null));
+        assertThrows(InvalidFuelTypeException.class, () -> FuelType.fromString(null));
+    }
+}
@@ -0,0 +1,126 @@
+package com.carsoffer.car.repository;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.entity.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.hibernate.ScrollableResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class CarFacetIndexUnitTest {
+
+    @Mock
+    CarRepository carRepository;
+
+    @Mock
+    ScrollableResults<Car> scrollableResults;
+
+    private CarFacetIndex carFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(carRepository.getEntityManager()).thenReturn(mock(EntityManager.class));
+        when(carRepository.scrollAll(anyInt())).thenReturn(scrollableResults);
+        carFacetIndex = new CarFacetIndex(carRepository);
+    }
+
+    @Test
+    void testSearch_IntersectsFilters() {
+        givenCars(
+                car(1L, "BMW", "X5", FuelType.DIESEL, "Black", 2020),
+                car(2L, "BMW", "X3", FuelType.PETROL, "Black", 2020),
+                car(3L, "Audi", "A4", FuelType.DIESEL, "White", 2019));
+        carFacetIndex.rebuild();
+
+        CarFacetIndex.Hits hits = carFacetIndex.search("bmw", null, FuelType.DIESEL, null, null, 0, 10);
+
+        assertEquals(List.of(1L), hits.ids());
+        assertEquals(1, hits.total());
+    }
+
+    @Test
+    void testSearch_ReturnsFacetCountsForMatches() {
+        givenCars(
+                car(1L, "BMW", "X5", FuelType.DIESEL, "Black", 2020),
+                car(2L, "BMW", "X3", FuelType.PETROL, "Black", 2020),
+                car(3L, "Audi", "A4", FuelType.DIESEL, "White", 2019));
+        carFacetIndex.rebuild();
+
+        CarFacetIndex.Hits hits = carFacetIndex.search(null, null, null, "black", null, 0, 10);
+
+        assertEquals(Map.of("BMW", 2), hits.facets().get("brand"));
+        assertEquals(Map.of("DIESEL", 1, "PETROL", 1), hits.facets().get("fuelType"));
+        assertFalse(hits.facets().containsKey("model"));
+    }
+
+    @Test
+    void testSearch_PagesThroughIds() {
+        givenCars(
+                car(1L, "BMW", "X5", FuelType.DIESEL, "Black", 2020),
+                car(2L, "BMW", "X3", FuelType.PETROL, "Black", 2020),
+                car(3L, "BMW", "M3", FuelType.PETROL, "White", 2019));
+        carFacetIndex.rebuild();
+
+        CarFacetIndex.Hits hits = carFacetIndex.search("BMW", null, null, null, null, 1, 1);
+
+        assertEquals(List.of(2L), hits.ids());
+        assertEquals(3, hits.total());
+        assertTrue(carFacetIndex.search("BMW", null, null, null, null, 3, 1).ids().isEmpty());
+    }
+
+    @Test
+    void testOnCarChanged_MovesUpdatedCarAndDropsDeletedCar() {
+        givenCars(
+                car(1L, "BMW", "X5", FuelType.DIESEL, "Black", 2020),
+                car(2L, "Audi", "A4", FuelType.DIESEL, "White", 2019));
+        carFacetIndex.rebuild();
+
+        carFacetIndex.onCarChanged(CarChangedEvent.saved(new CarDTO(1L, "BMW", "X5", 2020, "Red", FuelType.ELECTRIC, "WBA00000000000001")));
+        carFacetIndex.onCarChanged(CarChangedEvent.deleted(new CarDTO(2L, "Audi", "A4", 2019, "White", FuelType.DIESEL, "WAU00000000000002")));
+
+        assertEquals(0, carFacetIndex.search(null, null, FuelType.DIESEL, null, null, 0, 10).total());
+        assertEquals(List.of(1L), carFacetIndex.search(null, null, null, "red", null, 0, 10).ids());
+        assertEquals(Map.of("BMW", 1), carFacetIndex.search(null, null, null, null, null, 0, 10).facets().get("brand"));
+    }
+
+    @Test
+    void testSearch_UnknownValueMatchesNothing() {
+        givenCars(car(1L, "BMW", "X5", FuelType.DIESEL, "Black", 2020));
+        carFacetIndex.rebuild();
+
+        assertEquals(0, carFacetIndex.search("Tesla", null, null, null, null, 0, 10).total());
+    }
+
+    @Test
+    void testSearch_UnavailableWhenRebuildFails() {
+        when(carRepository.scrollAll(anyInt())).thenThrow(new IllegalStateException("database down"));
+        carFacetIndex.rebuild();
+
+        assertThrows(ServiceUnavailableException.class, () -> carFacetIndex.search(null, null, null, null, null, 0, 10));
+    }
+
+    private void givenCars(Car... cars) {
+        List<Car> rows = List.of(cars);
+        int[] position = {-1};
+        when(scrollableResults.next()).thenAnswer(invocation -> ++position[0] < rows.size());
+        when(scrollableResults.get()).thenAnswer(invocation -> rows.get(position[0]));
+    }
+
+    private Car car(Long id, String brand, String model, FuelType fuelType, String color, int year) {
+        return new Car.Builder().id(id).brand(brand).model(model).fuelType(fuelType).color(color).year(year)
+                .vin("VIN" + id).build();
+    }
+}
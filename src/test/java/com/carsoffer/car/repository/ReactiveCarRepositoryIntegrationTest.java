@@ -0,0 +1,62 @@
+package com.carsoffer.car.repository;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.ReactiveProfile;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.offer.repository.OfferRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@Testcontainers
+@TestProfile(ReactiveProfile.class)
+@QuarkusTestResource(PostgreSQLResource.class)
+class ReactiveCarRepositoryIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    ReactiveCarRepository reactiveCarRepository;
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    CarRepository carRepository;
+
+    @Inject
+    OfferRepository offerRepository;
+
+    private CarDTO golf;
+
+    @BeforeEach
+    void setUp() {
+        // the reactive client reads on its own connections, so the rows have to be committed
+        QuarkusTransaction.requiringNew().run(() -> {
+            offerRepository.deleteAll();
+            carRepository.deleteAll();
+        });
+        golf = carService.createCar(new CreateCarDTO("Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001"));
+        carService.createCar(new CreateCarDTO("Volkswagen", "Polo", 2021, "Red", FuelType.PETROL, "WVW00000000000002"));
+        carService.createCar(new CreateCarDTO("Toyota", "Corolla", 2020, "Blue", FuelType.HYBRID, "JTD00000000000003"));
+    }
+
+    @Test
+    void testFindById_MapsTheRow() {
+        assertEquals(golf, reactiveCarRepository.findById(golf.id()).await().atMost(TIMEOUT));
+        assertNull(reactiveCarRepository.findById(-1L).await().atMost(TIMEOUT));
+    }
+}
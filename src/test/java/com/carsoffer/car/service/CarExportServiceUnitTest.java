@@ -0,0 +1,104 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.entity.Car;
+import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.utils.DataFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollableResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class CarExportServiceUnitTest {
+
+    @Mock
+    CarRepository carRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    ScrollableResults<Car> scrollableResults;
+
+    private CarExportService carExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        carExportService = new CarExportService(carRepository, new ObjectMapper());
+        when(carRepository.getEntityManager()).thenReturn(entityManager);
+        when(carRepository.scrollAll(anyInt())).thenReturn(scrollableResults);
+    }
+
+    @Test
+    void testExportCars_Ndjson() throws IOException {
+        givenCars(car(1L, "WBA00000000000001"), car(2L, "WAU00000000000002"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = carExportService.exportCars(DataFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"vin\":\"WAU00000000000002\""));
+        verify(carRepository).scrollAll(CarExportService.EXPORT_FETCH_SIZE);
+        verify(scrollableResults).close();
+    }
+
+    @Test
+    void testExportCars_Csv() throws IOException {
+        givenCars(car(1L, "WBA00000000000001"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        carExportService.exportCars(DataFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,brand,model,year,color,fuelType,vin", lines[0]);
+        assertEquals("1,BMW,X5,2022,White,PETROL,WBA00000000000001", lines[1]);
+    }
+
+    @Test
+    void testExportCars_ClearsPersistenceContextPerFetchBatch() throws IOException {
+        Car[] cars = new Car[CarExportService.EXPORT_FETCH_SIZE * 2 + 1];
+        Arrays.setAll(cars, i -> car((long) i, "VIN" + i));
+        givenCars(cars);
+
+        long exported = carExportService.exportCars(DataFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(cars.length, exported);
+        verify(entityManager, times(2)).clear();
+    }
+
+    private void givenCars(Car... cars) {
+        List<Car> rows = List.of(cars);
+        int[] position = {-1};
+        when(scrollableResults.next()).thenAnswer(invocation -> ++position[0] < rows.size());
+        when(scrollableResults.get()).thenAnswer(invocation -> rows.get(position[0]));
+    }
+
+    private Car car(Long id, String vin) {
+        Car car = new Car();
+        car.setId(id);
+        car.setBrand("BMW");
+        car.setModel("X5");
+        car.setYear(2022);
+        car.setColor("White");
+        car.setFuelType(FuelType.PETROL);
+        car.setVin(vin);
+        return car;
+    }
+}
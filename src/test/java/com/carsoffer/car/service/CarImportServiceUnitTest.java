@@ -0,0 +1,176 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarImportResult;
+import com.carsoffer.car.dto.CarImportRow;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.DataFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CarImportServiceUnitTest {
+
+    @Mock
+    CarServiceImpl carService;
+
+    @Mock
+    Validator validator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CarImportService carImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        carImportService = new CarImportService(carService, validator, objectMapper);
+        when(validator.validate(any(CreateCarDTO.class))).thenReturn(Set.of());
+        when(carService.importChunk(anyList())).thenAnswer(invocation -> {
+            List<CarImportRow> rows = invocation.getArgument(0);
+            return rows.stream()
+                    .map(row -> CarImportResult.created(row.line(), row.car().vin(), row.line()))
+                    .toList();
+        });
+    }
+
+    @Test
+    void testImportCars_Ndjson() throws IOException {
+        String body = """
+                {"brand":"BMW","model":"X5","year":2022,"color":"White","fuelType":"petrol","vin":"WBA00000000000001"}
+                {"brand":"Audi","model":"A4","year":2021,"color":"Black","fuelType":"DIESEL","vin":"WAU00000000000002"}
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.NDJSON);
+
+        ArgumentCaptor<List<CarImportRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(carService, times(1)).importChunk(captor.capture());
+        assertEquals(FuelType.PETROL, captor.getValue().getFirst().car().fuelType());
+        assertEquals(2, results.size());
+        assertEquals(CarImportResult.Status.CREATED, results.getFirst().status());
+        assertEquals("WAU00000000000002", results.getLast().vin());
+        assertEquals(2L, results.getLast().line());
+    }
+
+    @Test
+    void testImportCars_Csv() throws IOException {
+        String body = """
+                brand,model,year,color,fuelType,vin
+                BMW,X5,2022,White,PETROL,WBA00000000000001
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.CSV);
+
+        assertEquals(1, results.size());
+        assertEquals("WBA00000000000001", results.getFirst().vin());
+        assertEquals(CarImportResult.Status.CREATED, results.getFirst().status());
+    }
+
+    @Test
+    void testImportCars_MalformedRecordDoesNotStopImport() throws IOException {
+        String body = """
+                {"brand":"BMW","model":"X5","year":2022,"color":"White","fuelType":"GAS","vin":"WBA00000000000001"}
+                {"brand":"Audi","model":"A4","year":2021,"color":"Black","fuelType":"DIESEL","vin":"WAU00000000000002"}
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.NDJSON);
+
+        assertEquals(2, results.size());
+        assertEquals(CarImportResult.Status.INVALID, results.getFirst().status());
+        assertEquals(1L, results.getFirst().line());
+        assertEquals(CarImportResult.Status.CREATED, results.getLast().status());
+    }
+
+    @Test
+    void testImportCars_BrokenJsonLineIsReportedAndTheNextLineImported() throws IOException {
+        String body = """
+                {"brand":"BMW","model":"X5","year":2022,"color":"White","fuelType":"PETROL","vin":"WBA00000000000001"}
+                {"brand":"BMW",
+                {"brand":"Audi","model":"A4","year":2021,"color":"Black","fuelType":"DIESEL","vin":"WAU00000000000002"}
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.NDJSON);
+
+        assertEquals(3, results.size());
+        CarImportResult broken = results.stream().filter(result -> result.line() == 2L).findFirst().orElseThrow();
+        assertEquals(CarImportResult.Status.INVALID, broken.status());
+        assertEquals(List.of(1L, 3L), results.stream()
+                .filter(result -> result.status() == CarImportResult.Status.CREATED)
+                .map(CarImportResult::line)
+                .toList());
+        verify(carService, times(1)).importChunk(anyList());
+    }
+
+    @Test
+    void testImportCars_BrokenCsvRecordStillImportsTheRowsBeforeIt() throws IOException {
+        String body = """
+                brand,model,year,color,fuelType,vin
+                BMW,X5,2022,White,PETROL,WBA00000000000001
+                Audi,"A4,2021,Black,DIESEL,WAU00000000000002
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.CSV);
+
+        assertEquals(2, results.size());
+        assertEquals(CarImportResult.Status.INVALID, results.getFirst().status());
+        assertEquals(2L, results.getFirst().line());
+        assertEquals(CarImportResult.Status.CREATED, results.getLast().status());
+        assertEquals(1L, results.getLast().line());
+    }
+
+    @Test
+    void testImportCars_ConstraintViolation() throws IOException {
+        ConstraintViolation<CreateCarDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("VIN must be exactly 17 characters");
+        when(validator.validate(new CreateCarDTO("BMW", "X5", 2022, "White", FuelType.PETROL, "short")))
+                .thenReturn(Set.of(violation));
+        String body = """
+                {"brand":"BMW","model":"X5","year":2022,"color":"White","fuelType":"PETROL","vin":"short"}
+                """;
+
+        List<CarImportResult> results = runImport(body, DataFormat.NDJSON);
+
+        assertEquals(1, results.size());
+        assertEquals(CarImportResult.Status.INVALID, results.getFirst().status());
+        assertEquals("VIN must be exactly 17 characters", results.getFirst().error());
+        verify(carService, never()).importChunk(anyList());
+    }
+
+    @Test
+    void testImportCars_CommitsInFixedChunks() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < CarImportService.IMPORT_CHUNK_SIZE + 1; i++) {
+            body.append(String.format("{\"brand\":\"BMW\",\"model\":\"X5\",\"year\":2022,\"color\":\"White\",\"fuelType\":\"PETROL\",\"vin\":\"WBA%014d\"}%n", i));
+        }
+
+        List<CarImportResult> results = runImport(body.toString(), DataFormat.NDJSON);
+
+        assertEquals(CarImportService.IMPORT_CHUNK_SIZE + 1, results.size());
+        verify(carService, times(2)).importChunk(anyList());
+    }
+
+    private List<CarImportResult> runImport(String body, DataFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        carImportService.importCars(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+        return objectMapper.readerFor(CarImportResult.class)
+                .<CarImportResult>readValues(output.toByteArray())
+                .readAll();
+    }
+}
@@ -0,0 +1,33 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+
+import java.util.List;
+
+/**
+ * The car search operations of {@link CarService} with their results collected into lists, so one set of cases can run
+ * against the blocking and the reactive implementation.
+ */
+interface CarSearch {
+
+    List<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType, String sortBy,
+                            boolean asc, int page, int size);
+
+    List<CarDTO> fullTextSearch(String query, int page, int size);
+
+    static CarSearch of(CarService carService) {
+        return new CarSearch() {
+            @Override
+            public List<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType,
+                                           String sortBy, boolean asc, int page, int size) {
+                return carService.searchCars(brand, model, year, color, fuelType, sortBy, asc, page, size);
+            }
+
+            @Override
+            public List<CarDTO> fullTextSearch(String query, int page, int size) {
+                return carService.fullTextSearch(query, page, size);
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.cache.OffHeapTier;
+import com.carsoffer.offer.repository.OfferRepository;
+import io.quarkus.cache.CacheManager;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The car search and filter cases. Every case runs against each implementation named by
+ * {@link #implementations()}, on the same committed rows, so the Criteria query and the hand-written reactive SQL
+ * cannot drift apart.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class CarSearchCases {
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    CarRepository carRepository;
+
+    @Inject
+    OfferRepository offerRepository;
+
+    @Inject
+    CacheManager cacheManager;
+
+    @Inject
+    OffHeapTier offHeapTier;
+
+    // plain names rather than CarSearch instances: Quarkus copies parameters into the application's class loader, and the
+    // services are only injected into the test instance that lives there
+    abstract Stream<String> implementations();
+
+    abstract CarSearch search(String implementation);
+
+    @BeforeEach
+    void cleanUp() {
+        // the reactive client reads on its own connections, so the rows are committed instead of rolled back
+        QuarkusTransaction.requiringNew().run(() -> {
+            offerRepository.deleteAll();
+            carRepository.deleteAll();
+        });
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name)
+                .ifPresent(cache -> cache.invalidateAll().await().indefinitely()));
+        offHeapTier.invalidateAll();
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchCars(String implementation) {
+        CarSearch search = search(implementation);
+        createCar("Nissan", "Altima", 2018, "Grey", FuelType.PETROL, "VIN1011121314");
+        createCar("Nissan", "Sentra", 2020, "Blue", FuelType.DIESEL, "VIN1213141516");
+        createCar("Nissan", "Maxima", 2022, "Red", FuelType.HYBRID, "VIN1314151617");
+
+        List<CarDTO> cars = search.searchCars("Nissan", null, null, null, null, "year", true, 0, 10);
+        assertEquals(List.of(2018, 2020, 2022), cars.stream().map(CarDTO::year).toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchCars_WithAllFilters(String implementation) {
+        CarSearch search = search(implementation);
+        CarDTO q5 = createCar("Audi", "Q5", 2021, "Black", FuelType.DIESEL, "VIN1819202122");
+        createCar("Audi", "Q7", 2022, "White", FuelType.PETROL, "VIN1920212223");
+
+        List<CarDTO> cars = search.searchCars("Audi", "Q5", 2021, "Black", FuelType.DIESEL, "brand", true, 0, 10);
+        assertEquals(List.of(q5), cars);
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchCars_NoResults(String implementation) {
+        CarSearch search = search(implementation);
+        createCar("Lexus", "RX", 2020, "Silver", FuelType.HYBRID, "VIN2021222324");
+
+        List<CarDTO> cars = search.searchCars("Lexus", "ES", 2021, "Blue", FuelType.PETROL, "year", true, 0, 10);
+        assertTrue(cars.isEmpty(), "No cars should match the search criteria");
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchCars_FiltersSortsAndPages(String implementation) {
+        CarSearch search = search(implementation);
+        CarDTO golf = createCar("Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+        CarDTO polo = createCar("Volkswagen", "Polo", 2021, "Red", FuelType.PETROL, "WVW00000000000002");
+        createCar("Toyota", "Corolla", 2020, "Blue", FuelType.HYBRID, "JTD00000000000003");
+
+        assertEquals(List.of(polo, golf), search.searchCars("volks", null, 2019, null, null, "year", false, 0, 10));
+        assertEquals(List.of(golf), search.searchCars("volks", null, null, null, null, "year", false, 1, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchCars_EscapesWildcards(String implementation) {
+        CarSearch search = search(implementation);
+        createCar("Audi", "Q5", 2021, "Black", FuelType.DIESEL, "WAU00000000000005");
+
+        assertTrue(search.searchCars("Au_i", null, null, null, null, "id", true, 0, 10).isEmpty(),
+                "Underscore must match literally, not as a single-character wildcard");
+        assertTrue(search.searchCars("%", null, null, null, null, null, true, 0, 10).isEmpty(),
+                "Percent must match literally, not as a wildcard");
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testFullTextSearch_MatchesAllTermsAcrossColumns(String implementation) {
+        CarSearch search = search(implementation);
+        createCar("Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+        createCar("Volkswagen", "Golf", 2019, "White", FuelType.PETROL, "WVW00000000000002");
+        createCar("Audi", "A3", 2019, "Black", FuelType.DIESEL, "WAU00000000000003");
+
+        List<CarDTO> cars = search.fullTextSearch("golf diesel black 2019", 0, 10);
+
+        assertEquals(List.of("WVW00000000000001"), cars.stream().map(CarDTO::vin).toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testFullTextSearch_RejectsBlankQuery(String implementation) {
+        CarSearch search = search(implementation);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> search.fullTextSearch(" ", 0, 10));
+
+        assertEquals("Search query must not be empty.", exception.getMessage());
+    }
+
+    private CarDTO createCar(String brand, String model, int year, String color, FuelType fuelType, String vin) {
+        return carService.createCar(new CreateCarDTO(brand, model, year, color, fuelType, vin));
+    }
+}
@@ -0,0 +1,24 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.PostgreSQLResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Stream;
+
+@QuarkusTest
+@Testcontainers
+@QuarkusTestResource(PostgreSQLResource.class)
+class CarSearchIntegrationTest extends CarSearchCases {
+
+    @Override
+    Stream<String> implementations() {
+        return Stream.of("blocking");
+    }
+
+    @Override
+    CarSearch search(String implementation) {
+        return CarSearch.of(carService);
+    }
+}
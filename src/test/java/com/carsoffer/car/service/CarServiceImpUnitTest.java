@@ -1,16 +1,29 @@
 package com.carsoffer.car.service;
 
+import com.carsoffer.car.dto.CarChangedEvent;
 import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CarFacetSearchDTO;
+import com.carsoffer.car.dto.CarImportResult;
+import com.carsoffer.car.dto.CarImportRow;
+import com.carsoffer.car.dto.CarOfferRow;
+import com.carsoffer.car.dto.CarWithOfferDTO;
 import com.carsoffer.car.dto.CreateCarDTO;
 import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.dto.UpdateCarDTO;
 import com.carsoffer.car.entity.Car;
+import com.carsoffer.car.repository.CarFacetIndex;
 import com.carsoffer.car.repository.CarRepository;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.DuplicateCarException;
+import com.carsoffer.common.mappers.CarMapper;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Page;
+import com.carsoffer.offer.dto.OfferDTO;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +31,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class CarServiceImpUnitTest {
@@ -31,6 +51,12 @@ class CarServiceImpUnitTest {
     @Mock
     CarRepository carRepository;
 
+    @Mock
+    CarFacetIndex carFacetIndex;
+
+    @Mock
+    Event<CarChangedEvent> carChangedEvent;
+
     @InjectMocks
     CarServiceImpl carService;
 
@@ -69,6 +95,108 @@ class CarServiceImpUnitTest {
         verify(carRepository, times(1)).persist(any(Car.class));
     }
 
+    @Test
+    void testImportChunk_FlushesPerChunk() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(carRepository.getEntityManager()).thenReturn(entityManager);
+        when(carRepository.findExistingVins(anyCollection())).thenReturn(Set.of());
+        List<CarImportRow> rows = IntStream.range(0, CarServiceImpl.BULK_CHUNK_SIZE + 1)
+                .mapToObj(i -> new CarImportRow(i + 1, new CreateCarDTO("BMW", "X5", 2022, "White", FuelType.PETROL, "VIN" + i)))
+                .toList();
+
+        List<CarImportResult> results = carService.importChunk(rows);
+
+        assertEquals(CarServiceImpl.BULK_CHUNK_SIZE + 1, results.size());
+        verify(carRepository, times(CarServiceImpl.BULK_CHUNK_SIZE + 1)).persist(any(Car.class));
+        verify(carRepository, times(1)).findExistingVins(anyCollection());
+        verify(carRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void testImportChunk_ReportsDuplicates() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(carRepository.getEntityManager()).thenReturn(entityManager);
+        when(carRepository.findExistingVins(anyCollection())).thenReturn(Set.of("WBA00000000000001"));
+        List<CarImportRow> rows = List.of(
+                new CarImportRow(1, new CreateCarDTO("BMW", "X5", 2022, "White", FuelType.PETROL, "WBA00000000000001")),
+                new CarImportRow(2, new CreateCarDTO("Audi", "A4", 2021, "Black", FuelType.DIESEL, "WAU00000000000002")),
+                new CarImportRow(3, new CreateCarDTO("Audi", "A6", 2021, "Black", FuelType.DIESEL, "WAU00000000000002")));
+
+        List<CarImportResult> results = carService.importChunk(rows);
+
+        assertEquals(List.of(CarImportResult.Status.DUPLICATE, CarImportResult.Status.CREATED, CarImportResult.Status.DUPLICATE),
+                results.stream().map(CarImportResult::status).toList());
+        verify(carRepository, times(1)).findExistingVins(anyCollection());
+        verify(carRepository, times(1)).persist(any(Car.class));
+    }
+
+    @Test
+    void testGetCarByIdWithOffers_LimitsOffers() {
+        List<CarOfferRow> rows = List.of(
+                offerRow(3L, LocalDateTime.of(2024, 3, 1, 0, 0)),
+                offerRow(2L, LocalDateTime.of(2024, 2, 1, 0, 0)),
+                offerRow(1L, LocalDateTime.of(2024, 1, 1, 0, 0)));
+        when(carRepository.findWithOffers(1L, 3)).thenReturn(rows);
+
+        CarWithOfferDTO carWithOffers = carService.getCarByIdWithOffers(1L, 2);
+
+        assertEquals("BMW", carWithOffers.brand());
+        assertEquals(List.of(3L, 2L), carWithOffers.offers().stream().map(OfferDTO::id).toList());
+        assertTrue(carWithOffers.hasMoreOffers());
+        verify(carRepository, never()).findByIdOptional(any());
+    }
+
+    @Test
+    void testGetCarByIdWithOffers_CarWithoutOffers() {
+        when(carRepository.findWithOffers(1L, 51)).thenReturn(List.of(
+                new CarOfferRow(1L, "BMW", "X5", 2022, "White", FuelType.PETROL, "WBA00000000000001",
+                        null, null, null, null, null, null)));
+
+        CarWithOfferDTO carWithOffers = carService.getCarByIdWithOffers(1L);
+
+        assertTrue(carWithOffers.offers().isEmpty());
+        assertFalse(carWithOffers.hasMoreOffers());
+    }
+
+    @Test
+    void testGetCarByIdWithOffers_NotFound() {
+        when(carRepository.findWithOffers(999L, 51)).thenReturn(List.of());
+
+        assertThrows(CarNotFoundException.class, () -> carService.getCarByIdWithOffers(999L));
+    }
+
+    @Test
+    void testGetCarByIdWithOffers_InvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> carService.getCarByIdWithOffers(1L, 0));
+        verify(carRepository, never()).findWithOffers(any(), anyInt());
+    }
+
+    private CarOfferRow offerRow(Long offerId, LocalDateTime offerDate) {
+        return new CarOfferRow(1L, "BMW", "X5", 2022, "White", FuelType.PETROL, "WBA00000000000001",
+                offerId, "Luka", "Borna", BigDecimal.valueOf(10000), offerDate, null);
+    }
+
+    @Test
+    void testFullTextSearch_BlankQuery() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> carService.fullTextSearch("  ", 0, 10));
+
+        assertEquals("Search query must not be empty.", thrown.getMessage());
+        verify(carRepository, never()).fullTextSearch(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFullTextSearch_MapsResults() {
+        Car car = new Car.Builder().id(1L).brand("Volkswagen").model("Golf").year(2019).color("Black")
+                .fuelType(FuelType.DIESEL).vin("WVW00000000000001").build();
+        when(carRepository.fullTextSearch("golf diesel", 0, 10)).thenReturn(List.of(car));
+
+        List<CarDTO> cars = carService.fullTextSearch(" golf diesel ", 0, 10);
+
+        assertEquals(1, cars.size());
+        assertEquals("Golf", cars.getFirst().model());
+    }
+
     @Test
     void testUpdateCar_Success() {
         Car existingCar = new Car();
@@ -84,6 +212,8 @@ class CarServiceImpUnitTest {
 
         assertEquals("Black", updatedCar.color());
         verify(carRepository, times(1)).findByIdOptional(1L);
+        verify(carChangedEvent, times(1)).fire(CarChangedEvent.updated(
+                new CarDTO(1L, "Ford", "Mustang", null, null, null, null), updatedCar));
     }
 
     @Test
@@ -113,6 +243,23 @@ class CarServiceImpUnitTest {
 
         verify(carRepository, times(1)).findByIdOptional(1L);
         verify(carRepository, times(1)).delete(existingCar);
+        verify(carChangedEvent, times(1)).fire(CarChangedEvent.deleted(CarMapper.toDTO(existingCar)));
+    }
+
+    @Test
+    void testFacetedSearch_LoadsOnlyThePageOfIds() {
+        Map<String, Map<String, Integer>> facets = Map.of("fuelType", Map.of("DIESEL", 2));
+        when(carFacetIndex.search("bmw", null, FuelType.DIESEL, null, null, 10, 10))
+                .thenReturn(new CarFacetIndex.Hits(List.of(11L), 11, facets));
+        Car car = new Car.Builder().id(11L).brand("BMW").model("X5").year(2020).color("Black")
+                .fuelType(FuelType.DIESEL).vin("WBA00000000000011").build();
+        when(carRepository.findByIds(List.of(11L))).thenReturn(List.of(car));
+
+        CarFacetSearchDTO result = carService.facetedSearch("bmw", null, FuelType.DIESEL, null, null, 1, 10);
+
+        assertEquals(11, result.totalItems());
+        assertEquals(11L, result.items().getFirst().id());
+        assertEquals(facets, result.facets());
     }
 
     @Test
@@ -191,12 +338,8 @@ class CarServiceImpUnitTest {
         car.setBrand("Audi");
         car.setModel("A4");
 
-        PanacheQuery<Car> query = mock(PanacheQuery.class);
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(car));
-        when(query.count()).thenReturn(1L);
-
-        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10)).thenReturn(query);
+        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(car), 1L));
 
         PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("Audi", "A4", 0, 10);
 
@@ -210,12 +353,8 @@ class CarServiceImpUnitTest {
 
     @Test
     void testFindByBrandAndModel_NoResults() {
-        PanacheQuery<Car> query = mock(PanacheQuery.class);
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.empty());
-        when(query.count()).thenReturn(0L);
-
-        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10)).thenReturn(query);
+        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(), 0L));
 
         PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("Audi", "A4", 0, 10);
 
@@ -224,6 +363,40 @@ class CarServiceImpUnitTest {
         assertEquals(0, cars.getTotalPages());
     }
 
+    @Test
+    void testFindByBrandAndModel_WithoutTotal() {
+        Car car = new Car();
+        car.setId(1L);
+        car.setBrand("Audi");
+        car.setModel("A4");
+
+        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10, false))
+                .thenReturn(new PagedResult<>(List.of(car), PaginatedResponse.UNKNOWN));
+
+        PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("Audi", "A4", 0, 10, TotalMode.NONE);
+
+        assertEquals(1, cars.getItems().size());
+        assertEquals(PaginatedResponse.UNKNOWN, cars.getTotalItems());
+        assertEquals(PaginatedResponse.UNKNOWN, cars.getTotalPages());
+    }
+
+    @Test
+    void testGetAllCars_EstimatedTotal() {
+        Car car = new Car();
+        car.setId(1L);
+        car.setBrand("Audi");
+
+        when(carRepository.findAllPaged(0, 10, false))
+                .thenReturn(new PagedResult<>(List.of(car), PaginatedResponse.UNKNOWN));
+        when(carRepository.estimateCount()).thenReturn(2005L);
+
+        PaginatedResponse<CarDTO> cars = carService.getAllCars(0, 10, TotalMode.ESTIMATED);
+
+        assertEquals(2005L, cars.getTotalItems());
+        assertEquals(201, cars.getTotalPages());
+        verify(carRepository, never()).count();
+    }
+
     @Test
     void testFindByBrandAndModel_InvalidParameters() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
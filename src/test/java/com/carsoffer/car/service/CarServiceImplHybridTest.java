@@ -6,10 +6,12 @@ import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.dto.UpdateCarDTO;
 import com.carsoffer.car.entity.Car;
 import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.cache.OffHeapTier;
 import com.carsoffer.common.customvalidations.Alphanumeric;
 import com.carsoffer.common.customvalidations.AlphanumericValidator;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.DuplicateCarException;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
 import io.quarkus.cache.Cache;
 import io.quarkus.cache.CacheManager;
@@ -45,10 +47,14 @@ class CarServiceImplHybridTest {
     @Inject
     CacheManager cacheManager;
 
+    @Inject
+    OffHeapTier offHeapTier;
+
     @BeforeEach
     public void setUp() {
         cacheManager.getCache("car-cache").ifPresent(carCache ->
                 carCache.invalidateAll().await().indefinitely());
+        offHeapTier.invalidateAll();
     }
 
     @Test
@@ -131,20 +137,13 @@ class CarServiceImplHybridTest {
 
     @Test
     void testFindByBrandAndModel() {
-        PanacheQuery<Car> query = mock(PanacheQuery.class);
-
         Car car = new Car();
         car.setId(1L);
         car.setBrand("Audi");
         car.setModel("A4");
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(car));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-
-        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10)).thenReturn(query);
+        when(carRepository.findByBrandAndModelPaged("Audi", "A4", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(car), 1L));
 
         PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("Audi", "A4", 0, 10);
         assertEquals(1, cars.getItems().size());
@@ -157,19 +156,13 @@ class CarServiceImplHybridTest {
 
     @Test
     void testFindByBrandAndModelWithBrandOnly() {
-        PanacheQuery<Car> query = mock(PanacheQuery.class);
-
         Car car = new Car();
         car.setId(1L);
         car.setBrand("Audi");
         car.setModel("A4");
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(car));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-        when(carRepository.findByBrandAndModelPaged("Audi", "", 0, 10)).thenReturn(query);
+        when(carRepository.findByBrandAndModelPaged("Audi", "", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(car), 1L));
 
         PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("Audi", "", 0, 10);
         assertEquals(1, cars.getItems().size());
@@ -182,19 +175,13 @@ class CarServiceImplHybridTest {
 
     @Test
     void testFindByBrandAndModelWithModelOnly() {
-        PanacheQuery<Car> query = mock(PanacheQuery.class);
-
         Car car = new Car();
         car.setId(1L);
         car.setBrand("Audi");
         car.setModel("A4");
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(car));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-        when(carRepository.findByBrandAndModelPaged("", "A4", 0, 10)).thenReturn(query);
+        when(carRepository.findByBrandAndModelPaged("", "A4", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(car), 1L));
 
         PaginatedResponse<CarDTO> cars = carService.findByBrandAndModel("", "A4", 0, 10);
         assertEquals(1, cars.getItems().size());
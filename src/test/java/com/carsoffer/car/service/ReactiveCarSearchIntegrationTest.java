@@ -0,0 +1,56 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.ReactiveProfile;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the shared car search cases against the reactive service next to the blocking one, in the same application.
+ */
+@QuarkusTest
+@Testcontainers
+@TestProfile(ReactiveProfile.class)
+@QuarkusTestResource(PostgreSQLResource.class)
+class ReactiveCarSearchIntegrationTest extends CarSearchCases {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    ReactiveCarService reactiveCarService;
+
+    @Override
+    Stream<String> implementations() {
+        return Stream.of("blocking", "reactive");
+    }
+
+    @Override
+    CarSearch search(String implementation) {
+        if ("blocking".equals(implementation)) {
+            return CarSearch.of(carService);
+        }
+        return new CarSearch() {
+            @Override
+            public List<CarDTO> searchCars(String brand, String model, Integer year, String color, FuelType fuelType,
+                                           String sortBy, boolean asc, int page, int size) {
+                return reactiveCarService.searchCars(brand, model, year, color, fuelType, sortBy, asc, page, size)
+                        .collect().asList().await().atMost(TIMEOUT);
+            }
+
+            @Override
+            public List<CarDTO> fullTextSearch(String query, int page, int size) {
+                return reactiveCarService.fullTextSearch(query, page, size)
+                        .collect().asList().await().atMost(TIMEOUT);
+            }
+        };
+    }
+}
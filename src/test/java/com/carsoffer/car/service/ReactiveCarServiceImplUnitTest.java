@@ -0,0 +1,95 @@
+package com.carsoffer.car.service;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.repository.ReactiveCarRepository;
+import com.carsoffer.common.exceptions.CarNotFoundException;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveCarServiceImplUnitTest {
+
+    @Mock
+    ReactiveCarRepository carRepository;
+
+    private ReactiveCarServiceImpl carService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        carService = new ReactiveCarServiceImpl(carRepository);
+    }
+
+    @Test
+    void testGetCarById_Success() {
+        when(carRepository.findById(1L)).thenReturn(Uni.createFrom().item(car(1L, "Toyota")));
+
+        CarDTO foundCar = carService.getCarById(1L).await().indefinitely();
+
+        assertEquals("Toyota", foundCar.brand());
+        verify(carRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetCarById_NotFound() {
+        when(carRepository.findById(999L)).thenReturn(Uni.createFrom().nullItem());
+
+        CarNotFoundException thrown = assertThrows(CarNotFoundException.class,
+                () -> carService.getCarById(999L).await().indefinitely());
+
+        assertEquals("Car with ID 999 not found", thrown.getMessage());
+    }
+
+    @Test
+    void testSearchCars_Success() {
+        when(carRepository.searchCar(anyString(), anyString(), any(), anyString(), any(), anyString(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Multi.createFrom().item(car(1L, "Mercedes")));
+
+        List<CarDTO> cars = carService.searchCars("M", "C-Class", 2021, "Black", FuelType.PETROL, "brand", true, 0, 10)
+                .collect().asList().await().indefinitely();
+
+        assertEquals(1, cars.size());
+        assertEquals("Mercedes", cars.getFirst().brand());
+    }
+
+    @Test
+    void testSearchCars_NoResult() {
+        when(carRepository.searchCar(anyString(), anyString(), any(), anyString(), any(), anyString(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Multi.createFrom().empty());
+
+        List<CarDTO> cars = carService.searchCars("NonExistentBrand", "", null, "", null, "", true, 0, 10)
+                .collect().asList().await().indefinitely();
+
+        assertTrue(cars.isEmpty());
+    }
+
+    @Test
+    void testFullTextSearch_BlankQuery() {
+        assertThrows(IllegalArgumentException.class,
+                () -> carService.fullTextSearch("  ", 0, 10).collect().asList().await().indefinitely());
+        verify(carRepository, never()).fullTextSearch(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testFullTextSearch_TrimsQuery() {
+        when(carRepository.fullTextSearch("bmw x5", 0, 10)).thenReturn(Multi.createFrom().item(car(1L, "BMW")));
+
+        List<CarDTO> cars = carService.fullTextSearch(" bmw x5 ", 0, 10).collect().asList().await().indefinitely();
+
+        assertEquals("BMW", cars.getFirst().brand());
+    }
+
+    private CarDTO car(Long id, String brand) {
+        return new CarDTO(id, brand, "Model", 2021, "Black", FuelType.PETROL, "VIN" + id);
+    }
+}
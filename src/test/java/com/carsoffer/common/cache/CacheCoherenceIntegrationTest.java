@@ -0,0 +1,161 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.dto.UpdateCarDTO;
+import com.carsoffer.car.service.CarServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheManager;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheImpl;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheInfo;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a second instance's caches and coherence listener next to the application, against the same database, and
+ * checks that writes on either side evict the other's entries.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgreSQLResource.class)
+class CacheCoherenceIntegrationTest {
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    CacheManager cacheManager;
+
+    @Inject
+    CacheCoherence coherence;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "carsoffer.cache.coherence.channel")
+    String channel;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String url;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    String username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    String password;
+
+    private final Cache otherCarCache = cache("car-cache");
+    private CacheCoherence otherNode;
+
+    @BeforeEach
+    void startOtherNode() throws Exception {
+        CarCacheDependencies dependencies = new CarCacheDependencies(otherCarCache, cache("car-offers-cache"),
+                cache("search-cache"), cache("offer-cache"), cache("offer-list-cache"), cache("offer-facets-cache"),
+                new OffHeapTier(new SimpleMeterRegistry(), Map.of(), System::nanoTime), new InvalidationGenerations());
+        otherNode = new CacheCoherence(true, channel, url, username, password, dependencies, objectMapper, null, null);
+        otherNode.start();
+        assertTrue(otherNode.awaitListening(Duration.ofSeconds(10)));
+        assertTrue(coherence.awaitListening(Duration.ofSeconds(10)));
+    }
+
+    @AfterEach
+    void stopOtherNode() {
+        otherNode.stop();
+    }
+
+    @Test
+    void testUpdateOnThisNodeEvictsTheOtherNodesEntry() throws Exception {
+        CarDTO car = carService.createCar(new CreateCarDTO("Skoda", "Octavia", 2021, "Grey", FuelType.DIESEL, vin()));
+        otherCarCache.get(car.id(), id -> car).await().indefinitely();
+
+        carService.updateCar(car.id(), new UpdateCarDTO("Skoda", "Octavia", 2021, "White", FuelType.DIESEL));
+
+        awaitTrue(() -> !otherCarCache.as(CaffeineCacheImpl.class).keySet().contains(car.id()));
+    }
+
+    @Test
+    void testRolledBackWriteEvictsNothing() throws Exception {
+        CarDTO kept = carService.createCar(new CreateCarDTO("Seat", "Leon", 2020, "Red", FuelType.PETROL, vin()));
+        CarDTO deleted = carService.createCar(new CreateCarDTO("Seat", "Ibiza", 2020, "Red", FuelType.PETROL, vin()));
+        otherCarCache.get(kept.id(), id -> kept).await().indefinitely();
+        otherCarCache.get(deleted.id(), id -> deleted).await().indefinitely();
+
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(false);
+            notify(connection, coherence.encode(new CacheCoherence.Invalidation("elsewhere",
+                    List.of(CarChangedEvent.deleted(kept)), List.of(), false)));
+            connection.rollback();
+            notify(connection, coherence.encode(new CacheCoherence.Invalidation("elsewhere",
+                    List.of(CarChangedEvent.deleted(deleted)), List.of(), false)));
+            connection.commit();
+        }
+
+        // notifications arrive in commit order, so once the committed one is applied the other would have been too
+        awaitTrue(() -> !otherCarCache.as(CaffeineCacheImpl.class).keySet().contains(deleted.id()));
+        assertTrue(otherCarCache.as(CaffeineCacheImpl.class).keySet().contains(kept.id()));
+    }
+
+    @Test
+    void testChangeFromTheOtherNodeEvictsThisNodesEntry() throws Exception {
+        CarDTO car = carService.createCar(new CreateCarDTO("Kia", "Ceed", 2022, "Blue", FuelType.HYBRID, vin()));
+        carService.getCarById(car.id());
+        Cache carCache = cacheManager.getCache("car-cache").orElseThrow();
+        assertTrue(carCache.as(CaffeineCacheImpl.class).keySet().contains(car.id()));
+
+        CarDTO repainted = new CarDTO(car.id(), car.brand(), car.model(), car.year(), "Green", car.fuelType(), car.vin());
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            notify(connection, otherNode.encode(new CacheCoherence.Invalidation("other-node",
+                    List.of(CarChangedEvent.updated(car, repainted)), List.of(), false)));
+        }
+
+        awaitTrue(() -> !carCache.as(CaffeineCacheImpl.class).keySet().contains(car.id()));
+    }
+
+    private void notify(Connection connection, String payload) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 10s");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static String vin() {
+        return "VIN-" + UUID.randomUUID();
+    }
+
+    private static Cache cache(String name) {
+        CaffeineCacheInfo info = new CaffeineCacheInfo();
+        info.name = name;
+        return new CaffeineCacheImpl(info, false);
+    }
+}
@@ -0,0 +1,159 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.offer.dto.OfferChangedEvent;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheCoherenceUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final CarCacheDependencies dependencies = mock(CarCacheDependencies.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final Query query = mock(Query.class);
+    private final TransactionSynchronizationRegistry transactions = mock(TransactionSynchronizationRegistry.class);
+    private final Map<Object, Object> resources = new ConcurrentHashMap<>();
+    private CacheCoherence node;
+    private CacheCoherence peer;
+
+    @BeforeEach
+    void setUp() {
+        node = coherence();
+        peer = coherence();
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyInt(), any())).thenReturn(query);
+        when(transactions.getTransactionKey()).thenReturn("tx");
+        when(transactions.getResource(any())).thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(transactions).putResource(any(), any());
+    }
+
+    @Test
+    void testChangesOfATransactionArePublishedOnceBeforeCommit() throws Exception {
+        CarDTO repainted = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Blue", FuelType.DIESEL, GOLF.vin());
+        node.onCarChanged(CarChangedEvent.updated(GOLF, repainted));
+        node.onOfferChanged(OfferChangedEvent.created(offer(10L)));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactions, times(1)).registerInterposedSynchronization(synchronization.capture());
+        verify(entityManager, never()).createNativeQuery(anyString());
+
+        synchronization.getValue().beforeCompletion();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(query).setParameter(eq(1), eq("carsoffer_cache"));
+        verify(query).setParameter(eq(2), payload.capture());
+        CacheCoherence.Invalidation sent = objectMapper.readValue((String) payload.getValue(), CacheCoherence.Invalidation.class);
+        assertEquals(List.of(CarChangedEvent.updated(GOLF, repainted)), sent.cars());
+        assertEquals(List.of(OfferChangedEvent.created(offer(10L))), sent.offers());
+        assertFalse(sent.flush());
+    }
+
+    @Test
+    void testBulkOfferCreateIsPublishedAsOneFlush() throws Exception {
+        node.onOfferChanged(OfferChangedEvent.created(offer(10L)));
+        node.onOffersCreated(new OffersCreatedEvent(200_000, Set.of(1L, 2L)));
+        node.onCarChanged(CarChangedEvent.saved(GOLF));
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactions, times(1)).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().beforeCompletion();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(query, times(1)).setParameter(eq(2), payload.capture());
+        CacheCoherence.Invalidation sent = objectMapper.readValue((String) payload.getValue(), CacheCoherence.Invalidation.class);
+        assertTrue(sent.flush());
+        assertTrue(sent.cars().isEmpty());
+        assertTrue(sent.offers().isEmpty());
+    }
+
+    @Test
+    void testReceive_AppliesChangesFromOtherInstances() {
+        CarChangedEvent deleted = CarChangedEvent.deleted(GOLF);
+        OfferChangedEvent updated = OfferChangedEvent.updated(offer(10L), offer(10L));
+
+        node.receive(peer.encode(new CacheCoherence.Invalidation("peer", List.of(deleted), List.of(updated), false)));
+
+        verify(dependencies).onCarChanged(deleted);
+        verify(dependencies).onOfferChanged(updated);
+    }
+
+    @Test
+    void testReceive_IgnoresItsOwnMessages() throws Exception {
+        node.onCarChanged(CarChangedEvent.saved(GOLF));
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactions).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().beforeCompletion();
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(query).setParameter(eq(2), payload.capture());
+
+        node.receive((String) payload.getValue());
+
+        verifyNoInteractions(dependencies);
+    }
+
+    @Test
+    void testEncode_TooLargeForANotificationBecomesAFlush() {
+        List<CarChangedEvent> bulk = LongStream.range(0, 200)
+                .mapToObj(id -> CarChangedEvent.saved(new CarDTO(id, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "VIN" + id)))
+                .toList();
+
+        String payload = peer.encode(new CacheCoherence.Invalidation("peer", bulk, List.of(), false));
+        node.receive(payload);
+
+        assertTrue(payload.length() < CacheCoherence.MAX_PAYLOAD_BYTES);
+        verify(dependencies).invalidateAll();
+        verify(dependencies, never()).onCarChanged(any());
+    }
+
+    @Test
+    void testReceive_MalformedMessageClearsTheCaches() {
+        node.receive("{not json");
+
+        verify(dependencies).invalidateAll();
+    }
+
+    @Test
+    void testDisabled_PublishesNothing() {
+        CacheCoherence disabled = new CacheCoherence(false, "carsoffer_cache", null, null, null, dependencies, objectMapper,
+                entityManager, transactions);
+
+        disabled.onCarChanged(CarChangedEvent.saved(GOLF));
+
+        verifyNoInteractions(transactions, entityManager);
+    }
+
+    private CacheCoherence coherence() {
+        return new CacheCoherence(true, "carsoffer_cache", null, null, null, dependencies, objectMapper, entityManager,
+                transactions);
+    }
+
+    private static OfferDTO offer(Long id) {
+        return new OfferDTO(id, "Ana", "Horvat", new BigDecimal("9000.00"), LocalDateTime.of(2024, 5, 1, 10, 0), null, 1L);
+    }
+}
@@ -0,0 +1,110 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CarWithOfferDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.offer.dto.OfferDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueCodecUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+    private static final OfferDTO OFFER = new OfferDTO(10L, "Ana", "Horvat", new BigDecimal("18999.99"),
+            LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000), LocalDateTime.of(2024, 5, 2, 8, 0), 1L);
+
+    @Test
+    void testCar_PacksDictionaryIdsAndTheVinAsAscii() {
+        byte[] bytes = CacheValueCodec.CAR.encode(GOLF);
+
+        assertEquals(GOLF, CacheValueCodec.CAR.decode(bytes));
+        // flags, id, brand, model, year (2 bytes), color, fuel type and 17 VIN bytes
+        assertEquals(1 + 1 + 1 + 1 + 2 + 1 + 1 + 17, bytes.length);
+    }
+
+    @Test
+    void testCar_KeepsNullsAndVinsOfAnotherLength() {
+        CarDTO sparse = new CarDTO(2L, "Renault", null, null, null, null, null);
+        CarDTO shortVin = new CarDTO(3L, "Škoda", "Octavia", -1, "Bijela", FuelType.PETROL, "VIN1415161718");
+
+        assertEquals(sparse, CacheValueCodec.CAR.decode(CacheValueCodec.CAR.encode(sparse)));
+        assertEquals(shortVin, CacheValueCodec.CAR.decode(CacheValueCodec.CAR.encode(shortVin)));
+    }
+
+    @Test
+    void testOffer_RoundTripsPricesAndTimestampsExactly() {
+        OfferDTO otherScale = new OfferDTO(11L, null, "Horvat", BigDecimal.TEN, null, null, null);
+        OfferDTO huge = new OfferDTO(12L, "Ivo", "Ivić", new BigDecimal("123456789012345678901234.56"),
+                LocalDateTime.of(1960, 1, 1, 0, 0, 0, 999_999_999), LocalDateTime.of(2024, 1, 1, 0, 0, 0, 1_000), 2L);
+
+        assertEquals(OFFER, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(OFFER)));
+        assertEquals(otherScale, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(otherScale)));
+        assertEquals(0, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(otherScale)).price().scale());
+        assertEquals(huge, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(huge)));
+        assertEquals(1L, CacheValueCodec.OFFER.tag(OFFER));
+    }
+
+    @Test
+    void testCarWithOffers_KeepsTheOfferOrder() {
+        LinkedHashSet<OfferDTO> offers = new LinkedHashSet<>();
+        for (long id = 20; id > 10; id--) {
+            offers.add(new OfferDTO(id, "Ana", "Horvat", BigDecimal.valueOf(id * 1000, 2), OFFER.offerDate(), null, null));
+        }
+        CarWithOfferDTO car = new CarWithOfferDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL,
+                "WVW00000000000001", offers, true);
+
+        CarWithOfferDTO decoded = CacheValueCodec.CAR_WITH_OFFERS.decode(CacheValueCodec.CAR_WITH_OFFERS.encode(car));
+
+        assertEquals(car, decoded);
+        assertEquals(List.copyOf(offers), List.copyOf(decoded.offers()));
+    }
+
+    @Test
+    void testOfferPage_RoundTripsItemsTotalsAndCursor() {
+        PaginatedResponse<OfferDTO> page = PaginatedResponse.of(List.of(OFFER), PaginatedResponse.UNKNOWN, 0, 10);
+        page.setNextCursor("eyJpZCI6MTB9");
+
+        PaginatedResponse<OfferDTO> decoded = CacheValueCodec.OFFER_PAGE.decode(CacheValueCodec.OFFER_PAGE.encode(page));
+
+        assertEquals(List.of(OFFER), decoded.getItems());
+        assertEquals(PaginatedResponse.UNKNOWN, decoded.getTotalItems());
+        assertEquals(PaginatedResponse.UNKNOWN, decoded.getTotalPages());
+        assertEquals(0, decoded.getCurrentPage());
+        assertEquals(10, decoded.getPageSize());
+        assertEquals("eyJpZCI6MTB9", decoded.getNextCursor());
+    }
+
+    @Test
+    void testForValue_PicksTheCodecByValue() {
+        assertSame(CacheValueCodec.CAR, CacheValueCodec.forValue(GOLF));
+        assertSame(CacheValueCodec.OFFER_PAGE, CacheValueCodec.forValue(PaginatedResponse.of(List.of(OFFER), 1, 0, 10)));
+        assertNull(CacheValueCodec.forValue(PaginatedResponse.of(List.of(GOLF), 1, 0, 10)));
+        assertNull(CacheValueCodec.forValue("plain"));
+        assertNull(CacheValueCodec.forValue(null));
+    }
+
+    @Test
+    void testStringDictionary_StoresValuesInlineOnceFull() {
+        StringDictionary dictionary = new StringDictionary(2);
+        PackedWriter out = new PackedWriter();
+        out.writeInterned(dictionary, "Black");
+        out.writeInterned(dictionary, "White");
+        out.writeInterned(dictionary, "Red");
+        out.writeInterned(dictionary, "Black");
+
+        PackedReader in = new PackedReader(out.toByteArray());
+
+        assertEquals("Black", in.readInterned(dictionary));
+        assertEquals("White", in.readInterned(dictionary));
+        assertEquals("Red", in.readInterned(dictionary));
+        assertEquals("Black", in.readInterned(dictionary));
+        assertEquals(2, dictionary.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheImpl;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValuePackerUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testPack_PacksValuesWithACodecOnly() {
+        CacheValuePacker packer = new CacheValuePacker(registry, name -> 0);
+        Cache cache = cache("car-cache", 100L);
+
+        Object packed = packer.pack(cache, GOLF);
+
+        assertInstanceOf(CacheValuePacker.Packed.class, packed);
+        assertEquals(GOLF, CacheValuePacker.unpack(packed));
+        assertEquals("plain", packer.pack(cache, "plain"));
+        assertEquals("plain", CacheValuePacker.unpack("plain"));
+        assertEquals(1, registry.summary(CacheValuePacker.SIZE, "cache", "car-cache").count());
+        assertEquals(100L, maximumSize(cache), "no max-weight, the entry limit is left alone");
+    }
+
+    @Test
+    void testPack_BoundsTheCacheByWeight() {
+        long maxWeight = 100_000;
+        CacheValuePacker packer = new CacheValuePacker(registry, name -> maxWeight);
+        Cache cache = cache("car-cache", 100L);
+
+        CacheValuePacker.Packed packed = (CacheValuePacker.Packed) packer.pack(cache, GOLF);
+
+        assertEquals(maxWeight / (packed.bytes().length + CacheValuePacker.ENTRY_OVERHEAD), maximumSize(cache));
+    }
+
+    @Test
+    void testPack_LeavesCachesWithoutAMaximumSizeUnbounded() {
+        CacheValuePacker packer = new CacheValuePacker(registry, name -> 100_000);
+        Cache cache = cache("car-cache", null);
+
+        assertEquals(GOLF, CacheValuePacker.unpack(packer.pack(cache, GOLF)));
+        assertEquals(GOLF, CacheValuePacker.unpack(packer.pack(cache, GOLF)));
+        assertNull(maximumSize(cache));
+    }
+
+    private static Long maximumSize(Cache cache) {
+        return ((CaffeineCacheImpl) cache).getCacheInfo().maximumSize;
+    }
+
+    private static Cache cache(String name, Long maximumSize) {
+        CaffeineCacheInfo info = new CaffeineCacheInfo();
+        info.name = name;
+        info.maximumSize = maximumSize;
+        return new CaffeineCacheImpl(info, false);
+    }
+}
@@ -0,0 +1,204 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarChangedEvent;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.offer.dto.OfferChangedEvent;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CompositeCacheKey;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheImpl;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheInfo;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarCacheDependenciesUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+    private static final CarDTO CLIO = new CarDTO(2L, "Renault", "Clio", 2015, "Red", FuelType.PETROL, "VF100000000000002");
+
+    private final Cache carCache = cache("car-cache");
+    private final Cache carOffersCache = cache("car-offers-cache");
+    private final Cache searchCache = cache("search-cache");
+    private final Cache offerCache = cache("offer-cache");
+    private final Cache offerListCache = cache("offer-list-cache");
+    private final Cache offerFacetsCache = cache("offer-facets-cache");
+    private final OffHeapTier offHeapTier = new OffHeapTier(new SimpleMeterRegistry(), Map.of(
+            "car-cache", new OffHeapTier.Tier<>(new OffHeapStore(1 << 20, 1 << 16, 100), CacheValueCodec.CAR, Duration.ofHours(1)),
+            "offer-cache", new OffHeapTier.Tier<>(new OffHeapStore(1 << 20, 1 << 16, 100), CacheValueCodec.OFFER, Duration.ofHours(1))),
+            System::nanoTime);
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+    private CarCacheDependencies dependencies;
+
+    @BeforeEach
+    void setUp() {
+        dependencies = new CarCacheDependencies(carCache, carOffersCache, searchCache, offerCache, offerListCache, offerFacetsCache,
+                offHeapTier, generations);
+        offHeapTier.put("car-cache", 1L, GOLF);
+        offHeapTier.put("car-cache", 2L, CLIO);
+        offHeapTier.put("offer-cache", 10L, offer(10L, 1L, 9000));
+        offHeapTier.put("offer-cache", 20L, offer(20L, 2L, 5000));
+        put(carCache, 1L, GOLF);
+        put(carCache, 2L, CLIO);
+        put(carOffersCache, 1L, "golf offers");
+        put(carOffersCache, 2L, "clio offers");
+        put(offerCache, 10L, offer(10L, 1L, 9000));
+        put(offerCache, 20L, offer(20L, 2L, 5000));
+        put(offerListCache, new CompositeCacheKey(0, 10, "EXACT"),
+                new RefreshAheadCache.Loaded(PaginatedResponse.of(List.of(offer(10L, 1L, 9000)), 2, 0, 10), 0, 0));
+        put(offerListCache, new CompositeCacheKey(1, 10, "EXACT"),
+                new RefreshAheadCache.Loaded(PaginatedResponse.of(List.of(offer(20L, 2L, 5000)), 2, 1, 10), 0, 0));
+        put(offerFacetsCache, "facets", "facets");
+    }
+
+    @Test
+    void testOnCarChanged_UpdateEvictsTheCarAndSearchesMatchingOldOrNewState() {
+        CompositeCacheKey byBrand = search("volks", null, null, null, null);
+        CompositeCacheKey byNewColor = search(null, null, null, "blue", null);
+        CompositeCacheKey byYear = search(null, null, 2018, null, null);
+        CompositeCacheKey unrelated = search("renault", null, null, null, null);
+        CompositeCacheKey otherFuel = search(null, "golf", null, null, FuelType.PETROL);
+        List.of(byBrand, byNewColor, byYear, unrelated, otherFuel).forEach(key -> put(searchCache, key, List.of()));
+
+        CarDTO repainted = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Blue", FuelType.DIESEL, GOLF.vin());
+        dependencies.onCarChanged(CarChangedEvent.updated(GOLF, repainted));
+
+        assertCached(carCache, 2L);
+        assertEvicted(carCache, 1L);
+        assertNull(offHeapTier.get("car-cache", 1L));
+        assertEquals(CLIO, offHeapTier.get("car-cache", 2L));
+        assertEvicted(carOffersCache, 1L);
+        assertEvicted(searchCache, byBrand);
+        assertEvicted(searchCache, byNewColor);
+        assertEvicted(searchCache, byYear);
+        assertCached(searchCache, unrelated);
+        assertCached(searchCache, otherFuel);
+        assertCached(offerCache, 10L);
+        assertCached(offerFacetsCache, "facets");
+    }
+
+    @Test
+    void testOnCarChanged_CreateOnlyEvictsSearchesTheNewCarMatches() {
+        CompositeCacheKey byBrand = search("škoda", "", null, "", null);
+        CompositeCacheKey unrelated = search("volkswagen", null, null, null, null);
+        put(searchCache, byBrand, List.of());
+        put(searchCache, unrelated, List.of(GOLF));
+
+        dependencies.onCarChanged(CarChangedEvent.saved(new CarDTO(3L, "Škoda", "Octavia", 2021, "White", FuelType.DIESEL, "TMB00000000000003")));
+
+        assertEvicted(searchCache, byBrand);
+        assertCached(searchCache, unrelated);
+        assertCached(carCache, 1L);
+        assertCached(offerListCache, new CompositeCacheKey(0, 10, "EXACT"));
+        assertCached(offerFacetsCache, "facets");
+    }
+
+    @Test
+    void testOnCarChanged_DeleteEvictsTheCarsOffers() {
+        dependencies.onCarChanged(CarChangedEvent.deleted(GOLF));
+
+        assertEvicted(carCache, 1L);
+        assertEvicted(carOffersCache, 1L);
+        assertEvicted(offerCache, 10L);
+        assertCached(offerCache, 20L);
+        assertNull(offHeapTier.get("offer-cache", 10L));
+        assertEquals(offer(20L, 2L, 5000), offHeapTier.get("offer-cache", 20L));
+        assertCached(carOffersCache, 2L);
+        assertEvicted(offerListCache, new CompositeCacheKey(1, 10, "EXACT"));
+        assertEvicted(offerFacetsCache, "facets");
+    }
+
+    @Test
+    void testOnOfferChanged_MovingAnOfferEvictsBothCarsAndOnlyItsPage() {
+        OfferDTO previous = offer(10L, 1L, 9000);
+        dependencies.onOfferChanged(OfferChangedEvent.updated(previous, offer(10L, 2L, 9000)));
+
+        assertEvicted(offerCache, 10L);
+        assertCached(offerCache, 20L);
+        assertEvicted(carOffersCache, 1L);
+        assertEvicted(carOffersCache, 2L);
+        assertEvicted(offerListCache, new CompositeCacheKey(0, 10, "EXACT"));
+        assertCached(offerListCache, new CompositeCacheKey(1, 10, "EXACT"));
+        assertEvicted(offerFacetsCache, "facets");
+        assertCached(carCache, 1L);
+    }
+
+    @Test
+    void testOnOfferChanged_RenamingTheCustomerKeepsFacets() {
+        OfferDTO previous = offer(20L, 2L, 5000);
+        OfferDTO renamed = new OfferDTO(20L, "Ivana", "Horvat", new BigDecimal("5000.00"), null, null, 2L);
+
+        dependencies.onOfferChanged(OfferChangedEvent.updated(previous, renamed));
+
+        assertEvicted(offerCache, 20L);
+        assertNull(offHeapTier.get("offer-cache", 20L));
+        assertEvicted(carOffersCache, 2L);
+        assertCached(carOffersCache, 1L);
+        assertCached(offerFacetsCache, "facets");
+    }
+
+    @Test
+    void testOnOfferChanged_CreateClearsTheOfferPages() {
+        dependencies.onOfferChanged(OfferChangedEvent.created(offer(30L, 2L, 7000)));
+
+        assertEvicted(carOffersCache, 2L);
+        assertCached(carOffersCache, 1L);
+        assertCached(offerCache, 10L);
+        assertEvicted(offerListCache, new CompositeCacheKey(0, 10, "EXACT"));
+        assertEvicted(offerFacetsCache, "facets");
+    }
+
+    @Test
+    void testOnOffersCreated_EvictsTheCarsAndClearsTheOfferPagesOnce() {
+        dependencies.onOffersCreated(new OffersCreatedEvent(500, Set.of(2L)));
+
+        assertEvicted(carOffersCache, 2L);
+        assertCached(carOffersCache, 1L);
+        assertCached(offerCache, 10L);
+        assertEquals(offer(10L, 1L, 9000), offHeapTier.get("offer-cache", 10L));
+        assertEvicted(offerListCache, new CompositeCacheKey(0, 10, "EXACT"));
+        assertEvicted(offerFacetsCache, "facets");
+    }
+
+    private static CompositeCacheKey search(String brand, String model, Integer year, String color, FuelType fuelType) {
+        return new CompositeCacheKey(brand, model, year, color, fuelType, "id", true, 0, 10);
+    }
+
+    private static OfferDTO offer(Long id, Long carId, int price) {
+        return new OfferDTO(id, "Luka", "Borna", BigDecimal.valueOf(price), null, null, carId);
+    }
+
+    private static Cache cache(String name) {
+        CaffeineCacheInfo info = new CaffeineCacheInfo();
+        info.name = name;
+        return new CaffeineCacheImpl(info, false);
+    }
+
+    private static void put(Cache cache, Object key, Object value) {
+        cache.get(key, k -> value).await().indefinitely();
+    }
+
+    private static void assertCached(Cache cache, Object key) {
+        assertTrue(isCached(cache, key), cache.getName() + " should still hold " + key);
+    }
+
+    private static void assertEvicted(Cache cache, Object key) {
+        assertFalse(isCached(cache, key), cache.getName() + " should have evicted " + key);
+    }
+
+    private static boolean isCached(Cache cache, Object key) {
+        return cache.getAsync(key, k -> Uni.createFrom().nullItem()).await().indefinitely() != null;
+    }
+}
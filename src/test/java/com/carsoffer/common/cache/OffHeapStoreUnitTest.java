@@ -0,0 +1,194 @@
+package com.carsoffer.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStoreUnitTest {
+
+    // 28 header bytes per record
+    private static final int RECORD = 28 + 100;
+
+    @Test
+    void testPutAndGet() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+
+        assertTrue(store.put(1L, 0, bytes(1, 100), 0));
+        assertTrue(store.put(2L, 0, bytes(2, 10), 0));
+
+        assertArrayEquals(bytes(1, 100), store.get(1L, 0));
+        assertArrayEquals(bytes(2, 10), store.get(2L, 0));
+        assertNull(store.get(3L, 0));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testPut_OverwriteSupersedesTheOldRecord() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+        store.put(1L, 0, bytes(1, 100), 0);
+
+        store.put(1L, 0, bytes(9, 50), 0);
+
+        assertArrayEquals(bytes(9, 50), store.get(1L, 0));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testPut_EvictsOldestRecordsToFreeTheBytesNeeded() {
+        // 8 records fill a page, 2 pages
+        OffHeapStore store = new OffHeapStore(2 * 1024, 1024, 100);
+        for (long key = 0; key < 16; key++) {
+            store.put(key, 0, bytes((int) key, 100), 0);
+        }
+        assertEquals(16, store.size());
+
+        store.put(100L, 0, bytes(7, 900), 0);
+
+        for (long key = 0; key < 8; key++) {
+            assertNull(store.get(key, 0), "record " + key + " was among the oldest bytes");
+        }
+        for (long key = 8; key < 16; key++) {
+            assertArrayEquals(bytes((int) key, 100), store.get(key, 0));
+        }
+        assertArrayEquals(bytes(7, 900), store.get(100L, 0));
+        assertEquals(9, store.size());
+    }
+
+    @Test
+    void testPut_SkipsThePageRestWhenTheRecordDoesNotFit() {
+        OffHeapStore store = new OffHeapStore(2 * 1024, 1024, 100);
+        store.put(1L, 0, bytes(1, 600), 0);
+        store.put(2L, 0, bytes(2, 600), 0);
+        store.put(3L, 0, bytes(3, 600), 0);
+
+        assertNull(store.get(1L, 0));
+        assertArrayEquals(bytes(2, 600), store.get(2L, 0));
+        assertArrayEquals(bytes(3, 600), store.get(3L, 0));
+    }
+
+    @Test
+    void testPut_EvictsOldestWhenTheIndexIsFull() {
+        OffHeapStore store = new OffHeapStore(64 * 1024, 1024, 4);
+        for (long key = 0; key < 6; key++) {
+            store.put(key, 0, bytes((int) key, 10), 0);
+        }
+
+        assertEquals(4, store.size());
+        assertNull(store.get(0L, 0));
+        assertNull(store.get(1L, 0));
+        assertArrayEquals(bytes(5, 10), store.get(5L, 0));
+    }
+
+    @Test
+    void testPut_RejectsValuesLargerThanAPage() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+
+        assertFalse(store.put(1L, 0, new byte[1024], 0));
+        assertNull(store.get(1L, 0));
+    }
+
+    @Test
+    void testGet_IgnoresRecordsWrittenBeforeTheCutoff() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+        store.put(1L, 0, bytes(1, 10), 100);
+
+        assertNotNull(store.get(1L, 100));
+        assertNull(store.get(1L, 101));
+    }
+
+    @Test
+    void testRemoveIf_MatchesLiveRecordsByTag() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+        store.put(10L, 1, bytes(1, 10), 0);
+        store.put(11L, 1, bytes(2, 10), 0);
+        store.put(20L, 2, bytes(3, 10), 0);
+        // 11 moves to car 2, its old record is dead and must not count
+        store.put(11L, 2, bytes(4, 10), 0);
+
+        assertEquals(1, store.removeIf(tag -> tag == 1));
+
+        assertNull(store.get(10L, 0));
+        assertArrayEquals(bytes(4, 10), store.get(11L, 0));
+        assertArrayEquals(bytes(3, 10), store.get(20L, 0));
+    }
+
+    @Test
+    void testPut_AllocatesPagesOnlyAsTheRingReachesThem() {
+        OffHeapStore store = new OffHeapStore(4 * 1024, 1024, 100);
+        assertEquals(0, store.allocatedBytes());
+
+        store.put(1L, 0, bytes(1, 100), 0);
+        assertEquals(1024, store.allocatedBytes());
+
+        for (long key = 2; key <= 9; key++) {
+            store.put(key, 0, bytes((int) key, 100), 0);
+        }
+        assertEquals(2 * 1024, store.allocatedBytes());
+        assertEquals(4 * 1024 + 256 * 16, OffHeapStore.directBytes(4 * 1024, 1024, 100));
+    }
+
+    @Test
+    void testClear() {
+        OffHeapStore store = new OffHeapStore(4096, 1024, 100);
+        store.put(1L, 0, bytes(1, 10), 0);
+
+        store.clear();
+
+        assertNull(store.get(1L, 0));
+        assertEquals(0, store.size());
+        assertEquals(0, store.usedBytes());
+        assertTrue(store.put(2L, 0, bytes(2, 10), 0));
+    }
+
+    @Test
+    void testRandomOperationsAgreeWithAMap() {
+        OffHeapStore store = new OffHeapStore(64 * 1024, 4 * 1024, 256);
+        Map<Long, byte[]> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(300) - 150;
+            if (random.nextInt(4) == 0) {
+                store.remove(key);
+                expected.remove(key);
+            } else {
+                byte[] value = bytes(i, random.nextInt(200));
+                store.put(key, key, value, 0);
+                expected.put(key, value);
+            }
+        }
+        // entries may have been evicted, but never return anything but their latest value
+        int present = 0;
+        for (long key = -150; key < 150; key++) {
+            byte[] value = store.get(key, 0);
+            if (value != null) {
+                present++;
+                assertArrayEquals(expected.get(key), value, "key " + key);
+            }
+        }
+        assertEquals(store.size(), present);
+        assertTrue(present > 0);
+    }
+
+    @Test
+    void testWrapsAroundTheRingRepeatedly() {
+        OffHeapStore store = new OffHeapStore(4 * 1024, 1024, 100);
+        for (long key = 0; key < 1_000; key++) {
+            store.put(key, 0, bytes((int) key, 100), 0);
+            assertArrayEquals(bytes((int) key, 100), store.get(key, 0));
+        }
+        assertTrue(store.size() <= 4 * 1024 / RECORD);
+        assertArrayEquals(bytes(999, 100), store.get(999L, 0));
+    }
+
+    private static byte[] bytes(int seed, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,93 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.offer.dto.OfferDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTierUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+    private static final OfferDTO OFFER = new OfferDTO(10L, "Ana", "Horvat", new BigDecimal("18999.99"),
+            LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000), null, 1L);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong ticker = new AtomicLong();
+    private final OffHeapTier offHeapTier = new OffHeapTier(registry, Map.of(
+            "car-cache", new OffHeapTier.Tier<>(new OffHeapStore(1 << 20, 1 << 16, 100), CacheValueCodec.CAR, Duration.ofHours(1)),
+            "offer-cache", new OffHeapTier.Tier<>(new OffHeapStore(1 << 20, 1 << 16, 100), CacheValueCodec.OFFER, Duration.ofHours(1))),
+            ticker::get);
+
+    @Test
+    void testCodecs_RoundTripIncludingNulls() {
+        CarDTO sparse = new CarDTO(2L, "Renault", null, null, null, null, null);
+        OfferDTO unpriced = new OfferDTO(11L, null, "Horvat", null, null, null, null);
+
+        assertEquals(GOLF, CacheValueCodec.CAR.decode(CacheValueCodec.CAR.encode(GOLF)));
+        assertEquals(sparse, CacheValueCodec.CAR.decode(CacheValueCodec.CAR.encode(sparse)));
+        assertEquals(OFFER, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(OFFER)));
+        assertEquals(unpriced, CacheValueCodec.OFFER.decode(CacheValueCodec.OFFER.encode(unpriced)));
+        assertEquals(1L, CacheValueCodec.OFFER.tag(OFFER));
+    }
+
+    @Test
+    void testGet_ServesStoredValuesAndCountsHitsAndMisses() {
+        offHeapTier.put("car-cache", 1L, GOLF);
+
+        assertEquals(GOLF, offHeapTier.get("car-cache", 1L));
+        assertNull(offHeapTier.get("car-cache", 2L));
+
+        assertEquals(1, registry.counter(OffHeapTier.REQUESTS, "cache", "car-cache", "result", "hit").count());
+        assertEquals(1, registry.counter(OffHeapTier.REQUESTS, "cache", "car-cache", "result", "miss").count());
+        assertEquals(1, registry.get("carsoffer.cache.off-heap.entries").tag("cache", "car-cache").gauge().value());
+    }
+
+    @Test
+    void testGet_ExpiresEntriesAfterTheTtl() {
+        offHeapTier.put("car-cache", 1L, GOLF);
+
+        ticker.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertEquals(GOLF, offHeapTier.get("car-cache", 1L));
+        ticker.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertNull(offHeapTier.get("car-cache", 1L));
+    }
+
+    @Test
+    void testInvalidateTagged_DropsTheOffersOfACar() {
+        offHeapTier.put("offer-cache", 10L, OFFER);
+        offHeapTier.put("offer-cache", 20L, new OfferDTO(20L, "Ivo", "Ivić", BigDecimal.TEN, null, null, 2L));
+
+        offHeapTier.invalidateTagged("offer-cache", 1L);
+
+        assertNull(offHeapTier.get("offer-cache", 10L));
+        assertNotNull(offHeapTier.get("offer-cache", 20L));
+    }
+
+    @Test
+    void testCheckDirectMemory_RejectsTiersLargerThanTheLimit() {
+        assertDoesNotThrow(() -> OffHeapTier.checkDirectMemory(1 << 20, 1 << 20));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> OffHeapTier.checkDirectMemory((1 << 20) + 1, 1 << 20));
+        assertTrue(e.getMessage().contains("-XX:MaxDirectMemorySize"));
+    }
+
+    @Test
+    void testCachesWithoutATierAreIgnored() {
+        offHeapTier.put("search-cache", 1L, GOLF);
+        offHeapTier.put("offer-cache", 1L, GOLF);
+
+        assertFalse(offHeapTier.handles("search-cache"));
+        assertNull(offHeapTier.get("search-cache", 1L));
+        assertNull(offHeapTier.get("offer-cache", 1L));
+    }
+}
@@ -0,0 +1,217 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.common.exceptions.CarNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheImpl;
+import io.quarkus.cache.runtime.caffeine.CaffeineCacheInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheUnitTest {
+
+    private static final Duration FRESH_FOR = Duration.ofMinutes(5);
+    private static final Duration STALE_FOR = Duration.ofMinutes(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong ticker = new AtomicLong();
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor();
+    private final Cache cache = cache("car-cache");
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+    private final AtomicInteger loads = new AtomicInteger();
+    private double random = 1.0;
+    private RefreshAheadCache refreshAheadCache;
+
+    @BeforeEach
+    void setUp() {
+        refreshAheadCache = new RefreshAheadCache(registry, new CacheValuePacker(registry, name -> 0), generations,
+                name -> new RefreshAheadCache.Policy(FRESH_FOR, STALE_FOR, 1.0), reloader, ticker::get, () -> random);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reloader.shutdownNow();
+    }
+
+    @Test
+    void testGet_LoadsOnceAndServesFreshEntriesFromCache() throws Exception {
+        assertEquals("v1", get());
+        ticker.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertEquals("v1", get());
+
+        assertEquals(1, loads.get());
+        assertEquals(0, registry.find(RefreshAheadCache.COUNTER).counters().size());
+    }
+
+    @Test
+    void testGet_ConcurrentMissesWaitForTheLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> getOrFail(() -> {
+            loading.countDown();
+            release.await();
+            return "slow";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> getOrFail(() -> "duplicate"));
+        while (count("coalesced") == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("slow", first.get(5, TimeUnit.SECONDS));
+        assertEquals("slow", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGet_ServesStaleEntryWhileReloadingItInTheBackground() throws Exception {
+        get();
+        ticker.addAndGet(FRESH_FOR.plusSeconds(10).toNanos());
+
+        assertEquals("v1", get());
+        awaitReloads();
+        assertEquals("v2", get());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, count("stale-served"));
+    }
+
+    @Test
+    void testGet_RefreshesEarlyWhenXFetchDrawsALargeGap() throws Exception {
+        ticker.set(0);
+        refreshAheadCache.get(cache, 1L, () -> {
+            ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+            return "v" + loads.incrementAndGet();
+        }, this::load);
+        ticker.addAndGet(Duration.ofMinutes(4).toNanos());
+
+        // ln(0.5) keeps the gap below the minute left, a draw this small stretches it well beyond
+        random = 0.5;
+        assertEquals("v1", get());
+        awaitReloads();
+        assertEquals(0, count("early-refresh"));
+
+        random = 1e-30;
+        assertEquals("v1", get());
+        awaitReloads();
+        assertEquals("v2", get());
+        assertEquals(1, count("early-refresh"));
+    }
+
+    @Test
+    void testGet_LoadsEntriesOlderThanTheStaleWindowOnTheCaller() throws Exception {
+        get();
+        ticker.addAndGet(FRESH_FOR.plus(STALE_FOR).toNanos());
+
+        assertEquals("v2", get());
+        assertEquals(0, count("stale-served"));
+    }
+
+    @Test
+    void testGet_ReloadDoesNotRestoreAnEntryInvalidatedMeanwhile() throws Exception {
+        get();
+        ticker.addAndGet(FRESH_FOR.plusSeconds(10).toNanos());
+
+        refreshAheadCache.get(cache, 1L, this::load, () -> {
+            cache.invalidate(1L).await().indefinitely();
+            return "reloaded before the write";
+        });
+        awaitReloads();
+
+        assertEquals("v2", get());
+        assertEquals(1, count("refresh-discarded"));
+    }
+
+    @Test
+    void testGet_ReloadIsDroppedWhenItsKeyIsEvictedBeforeTheEntryIsRemoved() throws Exception {
+        get();
+        ticker.addAndGet(FRESH_FOR.plusSeconds(10).toNanos());
+
+        // an eviction is counted first and removes the entry after the reload checked it is still there
+        refreshAheadCache.get(cache, 1L, this::load, () -> {
+            generations.invalidated("car-cache", 1L);
+            return "reloaded before the write";
+        });
+        awaitReloads();
+
+        assertEquals(1, count("refresh-discarded"));
+        assertEquals("v1", RefreshAheadCache.unwrap(cache.as(CaffeineCache.class).getIfPresent(1L).get()));
+    }
+
+    @Test
+    void testGet_FailedLoadIsRethrownAndNotCached() throws Exception {
+        assertThrows(CarNotFoundException.class, () -> refreshAheadCache.get(cache, 1L,
+                () -> { throw new CarNotFoundException(1L); }, this::load));
+
+        assertEquals("v1", get());
+    }
+
+    @Test
+    void testGet_StoresDtosPackedAndDecodesThemOnEveryRead() throws Exception {
+        CarDTO golf = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+
+        Object first = refreshAheadCache.get(cache, 1L, () -> golf, () -> golf);
+        Object second = refreshAheadCache.get(cache, 1L, () -> golf, () -> golf);
+
+        assertEquals(golf, first);
+        assertEquals(golf, second);
+        assertNotSame(first, second);
+        RefreshAheadCache.Loaded stored = (RefreshAheadCache.Loaded) cache.as(CaffeineCache.class).getIfPresent(1L).get();
+        assertInstanceOf(CacheValuePacker.Packed.class, stored.value());
+        assertEquals(golf, RefreshAheadCache.unwrap(stored));
+    }
+
+    @Test
+    void testUnwrap_ReturnsTheLoadedValue() {
+        assertEquals("v", RefreshAheadCache.unwrap(new RefreshAheadCache.Loaded("v", 0, 0)));
+        assertEquals("plain", RefreshAheadCache.unwrap("plain"));
+    }
+
+    private Object get() throws Exception {
+        return refreshAheadCache.get(cache, 1L, this::load, this::load);
+    }
+
+    private Object getOrFail(Callable<Object> load) {
+        try {
+            return refreshAheadCache.get(cache, 1L, load, this::load);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object load() {
+        return "v" + loads.incrementAndGet();
+    }
+
+    private void awaitReloads() throws Exception {
+        reloader.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private double count(String event) {
+        var counter = registry.find(RefreshAheadCache.COUNTER).tag("event", event).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static Cache cache(String name) {
+        CaffeineCacheInfo info = new CaffeineCacheInfo();
+        info.name = name;
+        return new CaffeineCacheImpl(info, false);
+    }
+}
@@ -0,0 +1,66 @@
+package com.carsoffer.common.cache;
+
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.FuelType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecondTierInterceptorUnitTest {
+
+    private static final CarDTO GOLF = new CarDTO(1L, "Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001");
+
+    @Mock
+    InvocationContext context;
+
+    @Mock
+    SecondTier binding;
+
+    private final OffHeapTier offHeapTier = new OffHeapTier(new SimpleMeterRegistry(), Map.of(
+            "car-cache", new OffHeapTier.Tier<>(new OffHeapStore(1 << 20, 1 << 16, 100), CacheValueCodec.CAR, Duration.ofHours(1))),
+            System::nanoTime);
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+    private SecondTierInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        interceptor = new SecondTierInterceptor(offHeapTier, generations);
+        when(binding.cacheName()).thenReturn("car-cache");
+        when(context.getInterceptorBinding(SecondTier.class)).thenReturn(binding);
+        when(context.getParameters()).thenReturn(new Object[]{1L});
+    }
+
+    @Test
+    void testTiered_WritesLoadedValuesAndServesThemOnTheNextMiss() throws Exception {
+        when(context.proceed()).thenReturn(GOLF);
+
+        assertEquals(GOLF, interceptor.tiered(context));
+        assertEquals(GOLF, interceptor.tiered(context));
+
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    void testTiered_DoesNotWriteAValueWhoseKeyWasEvictedWhileItLoaded() throws Exception {
+        when(context.proceed()).thenAnswer(invocation -> {
+            // a write commits and evicts the car after the database read
+            generations.invalidated("car-cache", 1L);
+            offHeapTier.invalidate("car-cache", 1L);
+            return GOLF;
+        });
+
+        assertEquals(GOLF, interceptor.tiered(context));
+
+        assertNull(offHeapTier.get("car-cache", 1L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.carsoffer.common.concurrency;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.interceptor.InvocationContext;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionInterceptorUnitTest {
+
+    @Mock
+    InvocationContext context;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AdmissionController admissionController;
+    private AdmissionInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        MockitoAnnotations.openMocks(this);
+        admissionController = new AdmissionController(registry, 1, Duration.ofMillis(50), Duration.ofSeconds(2));
+        interceptor = new AdmissionInterceptor(admissionController);
+        when(context.getMethod()).thenReturn(Object.class.getMethod("toString"));
+    }
+
+    @Test
+    void testAdmit_RunsAndReleasesPermit() throws Exception {
+        when(context.proceed()).thenReturn("result");
+
+        assertEquals("result", interceptor.admit(context));
+
+        assertEquals(new AdmissionController.Stats(1, 1, 0, 1, 0), admissionController.stats());
+    }
+
+    @Test
+    void testAdmit_ReleasesPermitWhenMethodFails() throws Exception {
+        when(context.proceed()).thenThrow(new IllegalArgumentException("boom"));
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.admit(context));
+
+        assertEquals(1, admissionController.stats().available());
+    }
+
+    @Test
+    void testAdmit_ShedsLoadWithRetryAfterWhenSaturated() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(context.proceed()).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return "slow";
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> slow = executor.submit(() -> interceptor.admit(context));
+            entered.await();
+
+            ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class, () -> interceptor.admit(context));
+            assertEquals(503, rejected.getResponse().getStatus());
+            assertEquals("2", rejected.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+
+            release.countDown();
+            assertEquals("slow", slow.get());
+        }
+        assertEquals(1, admissionController.stats().rejected());
+        assertEquals(1, admissionController.stats().available());
+        assertEquals(1, registry.get(AdmissionController.SHED).counter().count());
+        Timer rejectedWait = registry.get(AdmissionController.WAIT).tag("result", "rejected").timer();
+        assertEquals(1, rejectedWait.count());
+        assertTrue(rejectedWait.totalTime(TimeUnit.MILLISECONDS) >= 50, "a shed request waited the full max-wait");
+        assertEquals(1, registry.get(AdmissionController.WAIT).tag("result", "admitted").timer().count());
+    }
+
+    @Test
+    void testAdmit_HoldsAPermitWhileAStreamingBodyIsWritten() throws Exception {
+        StreamingOutput body = output -> {
+            assertEquals(0, admissionController.stats().available(), "the body runs under a permit");
+            output.write('x');
+        };
+        when(context.proceed()).thenReturn(Response.ok(body, "text/csv").build());
+
+        Response response = (Response) interceptor.admit(context);
+        assertEquals(1, admissionController.stats().available(), "nothing is held between the method and the write");
+        assertEquals("text/csv", response.getMediaType().toString());
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(written);
+
+        assertEquals("x", written.toString());
+        assertEquals(1, admissionController.stats().available());
+    }
+
+    @Test
+    void testAdmit_ShedsAStreamingBodyThatCannotGetAPermit() throws Exception {
+        StreamingOutput body = output -> fail("the body must not run without a permit");
+        when(context.proceed()).thenReturn(body);
+
+        StreamingOutput admitted = (StreamingOutput) interceptor.admit(context);
+        assertTrue(admissionController.tryAcquire());
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> admitted.write(new ByteArrayOutputStream()));
+        } finally {
+            admissionController.release();
+        }
+
+        assertEquals(1, admissionController.stats().rejected());
+        assertEquals(1, admissionController.stats().available());
+    }
+
+    @Test
+    void testAdmissionController_RejectsInvalidPermits() {
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionController(registry, 0, Duration.ZERO, Duration.ZERO));
+    }
+}
@@ -0,0 +1,61 @@
+package com.carsoffer.common.concurrency;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorUnitTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(registry, true, Duration.ofMillis(10));
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void testStats_CountsPinnedVirtualThreads() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        }).join();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.stats().pinnedEvents() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.stats().pinnedEvents() >= 1);
+        assertTrue(monitor.stats().pinnedMillis() >= 40);
+        Timer pinned = registry.get(VirtualThreadPinningMonitor.PINNED).timer();
+        assertEquals(monitor.stats().pinnedEvents(), pinned.count());
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 40);
+    }
+
+    @Test
+    void testStats_DisabledMonitorRecordsNothing() {
+        VirtualThreadPinningMonitor disabled = new VirtualThreadPinningMonitor(registry, false, Duration.ofMillis(10));
+        disabled.start();
+
+        assertEquals(new VirtualThreadPinningMonitor.Stats(0, 0), disabled.stats());
+        disabled.stop();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.carsoffer.common.controller;
+
+import com.carsoffer.common.concurrency.AdmissionController;
+import com.carsoffer.common.concurrency.VirtualThreadPinningMonitor;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+class RuntimeStatsControllerHybridTest {
+
+    @InjectMock
+    AdmissionController admissionController;
+
+    @InjectMock
+    VirtualThreadPinningMonitor pinningMonitor;
+
+    @ConfigProperty(name = "quarkus.management.test-port", defaultValue = "9001")
+    int managementPort;
+
+    @Test
+    void testStats_ServedOnTheManagementPort() {
+        when(admissionController.stats()).thenReturn(new AdmissionController.Stats(20, 18, 0, 41, 3));
+        when(pinningMonitor.stats()).thenReturn(new VirtualThreadPinningMonitor.Stats(2, 75));
+
+        given()
+                .port(managementPort)
+                .when()
+                .get(RuntimeStatsController.PATH)
+                .then()
+                .statusCode(200)
+                .body("admission.rejected", is(3))
+                .body("virtualThreads.pinnedEvents", is(2));
+    }
+
+    @Test
+    void testStats_NotServedOnThePublicPort() {
+        given()
+                .when()
+                .get(RuntimeStatsController.PATH)
+                .then()
+                .statusCode(404);
+    }
+}
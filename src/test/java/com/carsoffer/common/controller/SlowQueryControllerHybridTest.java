@@ -0,0 +1,62 @@
+package com.carsoffer.common.controller;
+
+import com.carsoffer.common.persistence.SlowQueryLog;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+class SlowQueryControllerHybridTest {
+
+    @InjectMock
+    SlowQueryLog slowQueryLog;
+
+    @ConfigProperty(name = "quarkus.management.test-port", defaultValue = "9001")
+    int managementPort;
+
+    @Test
+    void testSlowQueries_ServedOnTheManagementPort() {
+        when(slowQueryLog.top()).thenReturn(List.of(new SlowQueryLog.SlowQuery(
+                "select * from car where id=?", "select * from car where id=1", 3, 900, 400, Instant.now(), null, null)));
+
+        given()
+                .port(managementPort)
+                .when()
+                .get(SlowQueryController.PATH)
+                .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].count", is(3));
+
+        given()
+                .port(managementPort)
+                .when()
+                .delete(SlowQueryController.PATH)
+                .then()
+                .statusCode(204);
+        verify(slowQueryLog, times(1)).clear();
+    }
+
+    @Test
+    void testSlowQueries_NotServedOnThePublicPort() {
+        given()
+                .when()
+                .get(SlowQueryController.PATH)
+                .then()
+                .statusCode(404);
+        given()
+                .when()
+                .delete(SlowQueryController.PATH)
+                .then()
+                .statusCode(anyOf(is(404), is(405)));
+        verify(slowQueryLog, never()).clear();
+    }
+}
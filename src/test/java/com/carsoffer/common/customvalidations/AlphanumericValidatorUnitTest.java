@@ -0,0 +1,141 @@
+package com.carsoffer.common.customvalidations;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.StringLength;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the scanner against the regular expressions it replaced, over strings drawn mostly from the characters
+ * around the edges of the accepted ranges.
+ */
+class AlphanumericValidatorUnitTest {
+
+    @Property(tries = 2000)
+    void isValid_MatchesRegexSemantics(@ForAll("values") String value,
+                                       @ForAll boolean lettersOnly,
+                                       @ForAll boolean allowSpecialCharacters,
+                                       @ForAll @IntRange(min = 0, max = 5) int min,
+                                       @ForAll @IntRange(min = 0, max = 12) int max) {
+        AlphanumericValidator validator = validator(min, max, lettersOnly, allowSpecialCharacters);
+
+        assertEquals(regexIsValid(value, min, max, lettersOnly, allowSpecialCharacters), validator.isValid(value, null),
+                () -> "value=" + escape(value));
+    }
+
+    @Property(tries = 1000)
+    void isValid_MatchesRegexSemanticsForAnyString(@ForAll @StringLength(max = 20) String value,
+                                                   @ForAll boolean lettersOnly,
+                                                   @ForAll boolean allowSpecialCharacters) {
+        AlphanumericValidator validator = validator(1, 50, lettersOnly, allowSpecialCharacters);
+
+        assertEquals(regexIsValid(value, 1, 50, lettersOnly, allowSpecialCharacters), validator.isValid(value, null),
+                () -> "value=" + escape(value));
+    }
+
+    @Provide
+    Arbitrary<String> values() {
+        Arbitrary<Character> edges = Arbitraries.of(
+                'A', 'Z', 'a', 'z', '@', '[', '_', '`', '{', '~', '\u007F', '\u0080', ' ', '×',
+                'Č', 'Ž', 'ž', 'ſ', 'Ω', '0', '9', '/', ':', '-', ' ', '\t', '\n', '\u000B', '\f', '\r',
+                '\u001F', '\u0000', ' ', '\uD83D', '\uDE97');
+        return Arbitraries.oneOf(edges, Arbitraries.chars())
+                .list().ofMaxSize(14)
+                .map(chars -> {
+                    StringBuilder value = new StringBuilder(chars.size());
+                    chars.forEach(value::append);
+                    return value.toString();
+                });
+    }
+
+    @Test
+    void isValid_TrimsBeforeCheckingLength() {
+        AlphanumericValidator validator = validator(2, 4, false, true);
+
+        assertTrue(validator.isValid("   ab   ", null));
+        assertTrue(validator.isValid(" \t ", null));
+        assertTrue(validator.isValid(null, null));
+        assertFalse(validator.isValid(" a ", null));
+        assertFalse(validator.isValid(" abcde ", null));
+    }
+
+    @Test
+    void isValid_AcceptsCroatianLettersAndRejectsSymbols() {
+        AlphanumericValidator validator = validator(1, 50, true, false);
+
+        assertTrue(validator.isValid("Čćžšđ", null));
+        assertFalse(validator.isValid("Ana1", null));
+        assertFalse(validator.isValid("Ana Marija", null));
+    }
+
+    // The implementation before the scanner, kept as the reference.
+    private static boolean regexIsValid(String value, int min, int max, boolean lettersOnly, boolean allowSpecialCharacters) {
+        if (value == null || value.trim().isEmpty()) {
+            return true;
+        }
+        value = value.trim();
+        String regex = lettersOnly
+                ? "^[A-Ža-ž]+$"
+                : (allowSpecialCharacters
+                ? "^[A-Ža-ž0-9\\s-_]+$"
+                : "^[A-Ža-ž0-9]+$");
+        return value.matches(regex) && value.length() >= min && value.length() <= max;
+    }
+
+    private static AlphanumericValidator validator(int min, int max, boolean lettersOnly, boolean allowSpecialCharacters) {
+        AlphanumericValidator validator = new AlphanumericValidator();
+        validator.initialize(new Alphanumeric() {
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return Alphanumeric.class;
+            }
+
+            @Override
+            public String message() {
+                return "";
+            }
+
+            @Override
+            public int min() {
+                return min;
+            }
+
+            @Override
+            public int max() {
+                return max;
+            }
+
+            @Override
+            public boolean lettersOnly() {
+                return lettersOnly;
+            }
+
+            @Override
+            public boolean allowSpecialCharacters() {
+                return allowSpecialCharacters;
+            }
+
+            @Override
+            public Class<?>[] groups() {
+                return new Class<?>[0];
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Class<? extends jakarta.validation.Payload>[] payload() {
+                return new Class[0];
+            }
+        });
+        return validator;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder();
+        value.chars().forEach(c -> escaped.append(c >= 0x20 && c < 0x7F ? String.valueOf((char) c) : String.format("\\u%04X", c)));
+        return escaped.toString();
+    }
+}
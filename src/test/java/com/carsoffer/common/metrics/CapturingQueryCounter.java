@@ -0,0 +1,50 @@
+package com.carsoffer.common.metrics;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces {@link RequestQueryCounter} in tests so a test can see the SQL Hibernate generates. Statements are only
+ * kept between {@link #start()} and {@link #stop()}, by the thread that called {@code start()}.
+ */
+@Alternative
+@Priority(1)
+@PersistenceUnitExtension
+@ApplicationScoped
+public class CapturingQueryCounter extends RequestQueryCounter {
+
+    private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    @Inject
+    public CapturingQueryCounter(RequestQueryStats stats) {
+        super(stats);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return super.inspect(sql);
+    }
+
+    public void start() {
+        captured.set(new ArrayList<>());
+    }
+
+    /**
+     * The statements prepared on this thread since {@link #start()}, with {@code ?} placeholders for their parameters.
+     */
+    public List<String> stop() {
+        List<String> statements = captured.get();
+        captured.remove();
+        return statements == null ? List.of() : statements;
+    }
+}
@@ -0,0 +1,74 @@
+package com.carsoffer.common.metrics;
+
+import com.carsoffer.car.controller.CarController;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryBudgetFilterUnitTest {
+
+    @Mock
+    ContainerResponseContext response;
+
+    @Mock
+    SimpleResourceInfo resource;
+
+    private final RequestQueryStats stats = new RequestQueryStats();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(response.getHeaders()).thenReturn(headers);
+        doReturn(CarController.class).when(resource).getResourceClass();
+        when(resource.getMethodName()).thenReturn("getCarById");
+        stats.statementPrepared();
+        stats.statementPrepared();
+        stats.entityLoaded();
+    }
+
+    @Test
+    void testRecord_RecordsHistogramsPerEndpointWhenTheRequestEnds() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(stats, registry, false);
+        filter.report(response, resource);
+        assertTrue(registry.getMeters().isEmpty(), "a streamed body still runs after the response filter");
+
+        stats.statementPrepared();
+        filter.record(null);
+
+        DistributionSummary statements = registry.find(QueryBudgetFilter.STATEMENTS).tag("endpoint", "CarController.getCarById").summary();
+        assertNotNull(statements);
+        assertEquals(3, statements.totalAmount());
+        assertEquals(1, registry.find(QueryBudgetFilter.ENTITY_LOADS).summary().totalAmount());
+        assertTrue(headers.isEmpty());
+    }
+
+    @Test
+    void testReport_AddsHeadersWhenEnabled() {
+        new QueryBudgetFilter(stats, registry, true).report(response, resource);
+
+        assertEquals(2, headers.getFirst(QueryBudgetFilter.QUERY_COUNT_HEADER));
+        assertEquals(1, headers.getFirst(QueryBudgetFilter.ENTITY_LOAD_COUNT_HEADER));
+    }
+
+    @Test
+    void testReport_SkipsUnmatchedRequests() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(stats, registry, true);
+        filter.report(response, null);
+        filter.record(null);
+
+        assertTrue(registry.getMeters().isEmpty());
+        assertTrue(headers.isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package com.carsoffer.common.metrics;
+
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.interceptor.InvocationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryTimedInterceptorUnitTest {
+
+    @Mock
+    InvocationContext context;
+
+    private SimpleMeterRegistry registry;
+    private QueryTimedInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        interceptor = new QueryTimedInterceptor(registry);
+    }
+
+    @Test
+    void testTime_TagsCallWithPresentFilters() throws Exception {
+        invoke("search", new Object[]{"Škoda", null, 2020, 0, 10});
+        when(context.proceed()).thenReturn(List.of());
+
+        assertEquals(List.of(), interceptor.time(context));
+
+        Timer timer = registry.find(QueryTimedInterceptor.TIMER)
+                .tags("repository", "SampleRepository", "method", "search", "filters", "brand+year", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testTime_BlankFiltersCountAsAbsent() throws Exception {
+        invoke("search", new Object[]{" ", "", null, 0, 10});
+
+        interceptor.time(context);
+
+        assertNotNull(registry.find(QueryTimedInterceptor.TIMER).tag("filters", QueryTimedInterceptor.NO_FILTERS).timer());
+    }
+
+    @Test
+    void testTime_UsesMarkedRecordComponents() throws Exception {
+        OfferSearchCriteria criteria = new OfferSearchCriteria(null, "Horvat", 1000.0, null,
+                LocalDate.of(2024, 1, 1), null, "price", true, 0, 10);
+        invoke("searchOffers", new Object[]{criteria});
+
+        interceptor.time(context);
+
+        assertNotNull(registry.find(QueryTimedInterceptor.TIMER)
+                .tag("filters", "customerLastName+minPrice+startDate").timer());
+    }
+
+    @Test
+    void testTime_RecordsFailedCallsAsErrors() throws Exception {
+        invoke("search", new Object[]{"Škoda", null, null, 0, 10});
+        when(context.proceed()).thenThrow(new IllegalArgumentException("boom"));
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.time(context));
+
+        assertEquals(1, registry.find(QueryTimedInterceptor.TIMER).tags("filters", "brand", "outcome", "error").timer().count());
+    }
+
+    private void invoke(String methodName, Object[] arguments) {
+        Method method = List.of(SampleRepository.class.getDeclaredMethods()).stream()
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        when(context.getMethod()).thenReturn(method);
+        when(context.getParameters()).thenReturn(arguments);
+    }
+
+    static class SampleRepository {
+
+        List<Object> search(@QueryFilter String brand, @QueryFilter String model, @QueryFilter Integer year, int page, int size) {
+            return List.of();
+        }
+
+        List<Object> searchOffers(@QueryFilter OfferSearchCriteria criteria) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.carsoffer.common.persistence;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Uses in-memory H2 databases as stand-ins for the primary and its replicas.
+ */
+class DataSourceRouterUnitTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final DataSource primary = h2("primary");
+    private final DataSource replica1 = h2("replica1");
+    private final DataSource replica2 = h2("replica2");
+    private final SlowQueryLog slowQueryLog = mock(SlowQueryLog.class);
+    private DataSourceRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new DataSourceRouter(List.of("replica1", "replica2"), Duration.ofSeconds(30), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.routeReadsToReplica(false);
+    }
+
+    @Test
+    void testGetConnection_SpreadsReplicaReadsRoundRobin() throws SQLException {
+        router.routeReadsToReplica(true);
+
+        assertEquals("REPLICA1", databaseOf(provider()));
+        assertEquals("REPLICA2", databaseOf(provider()));
+        assertEquals("REPLICA1", databaseOf(provider()));
+    }
+
+    @Test
+    void testGetConnection_KeepsOtherReadsOnPrimary() throws SQLException {
+        assertEquals("PRIMARY", databaseOf(provider()));
+
+        boolean previous = router.routeReadsToReplica(true);
+        router.routeReadsToReplica(previous);
+
+        assertEquals("PRIMARY", databaseOf(provider()));
+    }
+
+    @Test
+    void testResolveTarget_UsesPrimaryWithoutReplicas() {
+        router = new DataSourceRouter(List.of(), Duration.ofSeconds(30), clock);
+        router.routeReadsToReplica(true);
+
+        assertEquals(DataSourceRouter.PRIMARY, router.resolveTarget());
+    }
+
+    @Test
+    void testGetConnection_FailsOverToPrimaryAndSkipsReplicaUntilRetry() throws SQLException {
+        JdbcDataSource unreachable = new JdbcDataSource();
+        unreachable.setURL("jdbc:h2:mem:unreachable;IFEXISTS=TRUE");
+        RoutingConnectionProvider provider = new RoutingConnectionProvider(primary,
+                replica -> "replica1".equals(replica) ? unreachable : replica2, router, slowQueryLog);
+        router.routeReadsToReplica(true);
+
+        assertEquals("PRIMARY", databaseOf(provider));
+        assertFalse(router.isAvailable("replica1"));
+
+        assertEquals("REPLICA2", databaseOf(provider));
+        assertEquals("REPLICA2", databaseOf(provider));
+
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(router.isAvailable("replica1"));
+        assertEquals(List.of("replica1", "replica2"), List.of(router.resolveTarget(), router.resolveTarget()));
+    }
+
+    @Test
+    void testGetConnection_ReplicaRecoversAfterSuccessfulConnection() throws SQLException {
+        router.markDown("replica1", new SQLException("connection refused"));
+        clock.advance(Duration.ofSeconds(31));
+        router.routeReadsToReplica(true);
+
+        assertEquals("REPLICA1", databaseOf(provider()));
+        clock.advance(Duration.ofSeconds(-31));
+        assertTrue(router.isAvailable("replica1"));
+    }
+
+    @Test
+    void testGetConnection_TimesStatementsAndExplainsOnTheDatasourceThatRanThem() throws SQLException {
+        when(slowQueryLog.isEnabled()).thenReturn(true);
+        when(slowQueryLog.wrap(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        router.routeReadsToReplica(true);
+
+        databaseOf(provider());
+        router.routeReadsToReplica(false);
+        databaseOf(provider());
+
+        verify(slowQueryLog).wrap(any(), eq(replica1));
+        verify(slowQueryLog).wrap(any(), eq(primary));
+    }
+
+    private RoutingConnectionProvider provider() {
+        return new RoutingConnectionProvider(primary, replica -> switch (replica) {
+            case "replica1" -> replica1;
+            case "replica2" -> replica2;
+            default -> throw new IllegalArgumentException(replica);
+        }, router, slowQueryLog);
+    }
+
+    private static String databaseOf(RoutingConnectionProvider provider) throws SQLException {
+        Connection connection = provider.getConnection();
+        try {
+            return connection.getCatalog();
+        } finally {
+            provider.closeConnection(connection);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
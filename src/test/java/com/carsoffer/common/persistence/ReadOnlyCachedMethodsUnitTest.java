@@ -0,0 +1,32 @@
+package com.carsoffer.common.persistence;
+
+import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.common.cache.RefreshAhead;
+import com.carsoffer.offer.service.OfferServiceImpl;
+import io.quarkus.cache.CacheResult;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadOnlyCachedMethodsUnitTest {
+
+    @Test
+    void testCachedMethodsNeverReadFromReplicas() {
+        List<Method> cached = Stream.of(CarServiceImpl.class, OfferServiceImpl.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(CacheResult.class) || method.isAnnotationPresent(RefreshAhead.class))
+                .toList();
+
+        assertFalse(cached.isEmpty());
+        for (Method method : cached) {
+            ReadOnly readOnly = method.getAnnotation(ReadOnly.class);
+            assertTrue(readOnly == null || !readOnly.replica(),
+                    method.getName() + " caches what it reads, so it must not read from a lagging replica");
+        }
+    }
+}
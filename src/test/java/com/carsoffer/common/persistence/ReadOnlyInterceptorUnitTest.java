@@ -0,0 +1,151 @@
+package com.carsoffer.common.persistence;
+
+import jakarta.interceptor.InvocationContext;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadOnlyInterceptorUnitTest {
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    TransactionManager transactionManager;
+
+    // Hibernate's SPI interfaces carry annotations that are not on the test classpath
+    SessionImplementor session = mock(SessionImplementor.class, withSettings().withoutAnnotations());
+
+    @Mock
+    JdbcCoordinator jdbcCoordinator;
+
+    @Mock
+    LogicalConnectionImplementor connection;
+
+    @Mock
+    InvocationContext context;
+
+    @Mock
+    DataSourceRouter router;
+
+    private ReadOnlyInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        interceptor = new ReadOnlyInterceptor(entityManager, transactionManager, router);
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.getHibernateFlushMode()).thenReturn(FlushMode.AUTO);
+        when(session.getJdbcCoordinator()).thenReturn(jdbcCoordinator);
+        when(jdbcCoordinator.getLogicalConnection()).thenReturn(connection);
+        when(connection.isPhysicallyConnected()).thenReturn(true);
+        when(router.replicas()).thenReturn(List.of("replica1"));
+    }
+
+    @Test
+    void testReadOnly_SwitchesSessionAndRestoresIt() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        when(context.proceed()).thenReturn("result");
+
+        Object result = interceptor.readOnly(context);
+
+        assertEquals("result", result);
+        var inOrder = inOrder(session, context);
+        inOrder.verify(session).setDefaultReadOnly(true);
+        inOrder.verify(session).setHibernateFlushMode(FlushMode.MANUAL);
+        inOrder.verify(context).proceed();
+        inOrder.verify(session).setDefaultReadOnly(false);
+        inOrder.verify(session).setHibernateFlushMode(FlushMode.AUTO);
+    }
+
+    @Test
+    void testReadOnly_RestoresSessionWhenMethodFails() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        when(context.proceed()).thenThrow(new IllegalArgumentException("boom"));
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.readOnly(context));
+
+        verify(session).setDefaultReadOnly(false);
+        verify(session).setHibernateFlushMode(FlushMode.AUTO);
+    }
+
+    @Test
+    void testReadOnly_LeavesCallerTransactionAlone() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+
+        interceptor.readOnly(context);
+
+        verify(context).proceed();
+        verifyNoInteractions(session, router);
+    }
+
+    @Test
+    void testReadOnly_RoutesOnlyConnectionsAcquiredByTheMethodToReplica() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        interceptor.readOnly(context);
+
+        var inOrder = inOrder(router, connection, context);
+        inOrder.verify(router).routeReadsToReplica(true);
+        inOrder.verify(connection).manualDisconnect();
+        inOrder.verify(context).proceed();
+        inOrder.verify(connection).manualDisconnect();
+        inOrder.verify(router).routeReadsToReplica(false);
+    }
+
+    @Test
+    void testReadOnly_KeepsReadYourWritesMethodsOnPrimary() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        ReadOnly primaryOnly = mock(ReadOnly.class);
+        when(primaryOnly.replica()).thenReturn(false);
+        when(context.getInterceptorBinding(ReadOnly.class)).thenReturn(primaryOnly);
+
+        interceptor.readOnly(context);
+
+        verify(router, never()).routeReadsToReplica(true);
+        verify(connection, never()).manualDisconnect();
+    }
+
+    @Test
+    void testReadOnly_ReadYourWritesMethodInsideReplicaReadSwitchesBackToPrimary() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        ReadOnly primaryOnly = mock(ReadOnly.class);
+        when(primaryOnly.replica()).thenReturn(false);
+        when(context.getInterceptorBinding(ReadOnly.class)).thenReturn(primaryOnly);
+        when(router.routeReadsToReplica(false)).thenReturn(true);
+
+        interceptor.readOnly(context);
+
+        var inOrder = inOrder(router, connection, context);
+        inOrder.verify(router).routeReadsToReplica(false);
+        inOrder.verify(connection).manualDisconnect();
+        inOrder.verify(context).proceed();
+        inOrder.verify(connection).manualDisconnect();
+        inOrder.verify(router).routeReadsToReplica(true);
+    }
+
+    @Test
+    void testReadOnly_KeepsConnectionWithoutReplicas() throws Exception {
+        when(transactionManager.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        when(router.replicas()).thenReturn(List.of());
+
+        interceptor.readOnly(context);
+
+        verify(router, never()).routeReadsToReplica(true);
+        verify(connection, never()).manualDisconnect();
+        verify(session).setDefaultReadOnly(true);
+    }
+}
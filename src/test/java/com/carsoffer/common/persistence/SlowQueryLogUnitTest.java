@@ -0,0 +1,145 @@
+package com.carsoffer.common.persistence;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times statements against an in-memory H2 database. H2 does not understand {@code EXPLAIN (ANALYZE, BUFFERS)},
+ * which also covers the failed-explain path.
+ */
+class SlowQueryLogUnitTest {
+
+    private final DataSource dataSource = h2();
+    private final ExecutorService explainer = Executors.newSingleThreadExecutor();
+    private final List<List<SlowQueryLog.Bind>> recordedBinds = new ArrayList<>();
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        slowQueryLog = slowQueryLog(Duration.ZERO, 2);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists cars (id bigint primary key, brand varchar(50))");
+            statement.execute("merge into cars values (1, 'Škoda'), (2, 'Audi')");
+        }
+    }
+
+    @Test
+    void testFingerprint_CollapsesLiteralsAndInLists() {
+        assertEquals("select * from cars c1_0 where c1_0.brand = ? and c1_0.id in (?...) and c1_0.year > ?",
+                SlowQueryLog.fingerprint("select *  from cars c1_0\n where c1_0.brand = 'O''Neil' and c1_0.id in (?, ?,?) and c1_0.year > 2020"));
+    }
+
+    @Test
+    void testWrap_GroupsSlowStatementsByFingerprint() throws Exception {
+        try (Connection connection = slowQueryLog.wrap(dataSource.getConnection(), dataSource);
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("select brand from cars where id = 1").close();
+            statement.executeQuery("select brand from cars where id = 2").close();
+            statement.executeUpdate("update cars set brand = 'Audi' where id = 2");
+            statement.executeQuery("select count(*) from cars").close();
+        }
+        awaitExplains();
+
+        List<SlowQueryLog.SlowQuery> top = slowQueryLog.top();
+        assertEquals(2, top.size());
+        SlowQueryLog.SlowQuery byId = top.stream()
+                .filter(query -> query.fingerprint().equals("select brand from cars where id = ?"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, byId.count());
+        assertNull(byId.plan(), "statements without captured binds are not explained");
+    }
+
+    @Test
+    void testWrap_IgnoresStatementsUnderThreshold() throws Exception {
+        slowQueryLog = slowQueryLog(Duration.ofMinutes(1), 20);
+
+        try (Connection connection = slowQueryLog.wrap(dataSource.getConnection(), dataSource);
+             PreparedStatement statement = connection.prepareStatement("select brand from cars where id = ?")) {
+            statement.setLong(1, 1);
+            statement.executeQuery().close();
+        }
+
+        assertTrue(slowQueryLog.top().isEmpty());
+    }
+
+    @Test
+    void testWrap_CapturesBindsThatReplayTheQuery() throws Exception {
+        try (Connection connection = slowQueryLog.wrap(dataSource.getConnection(), dataSource);
+             PreparedStatement statement = connection.prepareStatement("select brand from cars where id = ? and brand <> ?")) {
+            statement.setLong(1, 1);
+            statement.setString(2, "Audi");
+            statement.executeQuery().close();
+        }
+        awaitExplains();
+
+        assertEquals(1, recordedBinds.size());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement replay = connection.prepareStatement("select brand from cars where id = ? and brand <> ?")) {
+            for (SlowQueryLog.Bind bind : recordedBinds.get(0)) {
+                bind.setter().invoke(replay, bind.arguments());
+            }
+            try (ResultSet rows = replay.executeQuery()) {
+                assertTrue(rows.next());
+                assertEquals("Škoda", rows.getString(1));
+            }
+        }
+        String plan = slowQueryLog.top().get(0).plan();
+        assertNotNull(plan);
+        assertTrue(plan.startsWith("EXPLAIN failed"), plan);
+    }
+
+    @Test
+    void testWrap_DoesNotExplainWrites() throws Exception {
+        try (Connection connection = slowQueryLog.wrap(dataSource.getConnection(), dataSource);
+             PreparedStatement statement = connection.prepareStatement("update cars set brand = ? where id = ?")) {
+            statement.setString(1, "Škoda");
+            statement.setLong(2, 1);
+            statement.executeUpdate();
+        }
+        awaitExplains();
+
+        assertTrue(recordedBinds.isEmpty());
+        assertNull(slowQueryLog.top().get(0).plan());
+    }
+
+    private SlowQueryLog slowQueryLog(Duration threshold, int top) {
+        return new SlowQueryLog(true, threshold, top, 100, Duration.ofMinutes(10), Duration.ofSeconds(5), explainer, Clock.systemUTC()) {
+            @Override
+            void record(String sql, List<Bind> binds, long elapsedNanos, DataSource explainSource) {
+                if (binds != null && isSelect(sql) && elapsedNanos >= threshold.toNanos()) {
+                    recordedBinds.add(List.copyOf(binds));
+                }
+                super.record(sql, binds, elapsedNanos, explainSource);
+            }
+        };
+    }
+
+    private void awaitExplains() throws InterruptedException {
+        explainer.shutdown();
+        assertTrue(explainer.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slow-queries;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
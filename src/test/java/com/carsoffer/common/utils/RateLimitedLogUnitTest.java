@@ -0,0 +1,40 @@
+package com.carsoffer.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitedLogUnitTest {
+
+    private final Logger logger = mock(Logger.class);
+
+    @Test
+    void testWarn_DropsMessagesWithinInterval() {
+        RateLimitedLog log = new RateLimitedLog(logger, Duration.ofHours(1));
+
+        log.warn("Invalid value: {}", "a");
+        log.warn("Invalid value: {}", "b");
+        log.warn("Invalid value: {}", "c");
+
+        verify(logger).warn("Invalid value: {}", "a");
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void testWarn_ReportsSuppressedCountOnNextMessage() throws InterruptedException {
+        RateLimitedLog log = new RateLimitedLog(logger, Duration.ofMillis(20));
+
+        log.warn("Invalid value: {}", "a");
+        log.warn("Invalid value: {}", "b");
+        log.warn("Invalid value: {}", "c");
+        Thread.sleep(40);
+        log.warn("Invalid value: {}", "d");
+
+        verify(logger).warn("Invalid value: {}", "a");
+        verify(logger).warn(eq("Invalid value: {} ({} similar messages suppressed)"), eq("d"), eq(2L));
+    }
+}
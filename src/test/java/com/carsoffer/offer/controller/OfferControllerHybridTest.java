@@ -4,6 +4,7 @@ import com.carsoffer.common.exceptions.dto.ErrorResponse;
 import com.carsoffer.common.exceptions.GlobalExceptionHandler;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
@@ -38,7 +39,7 @@ class OfferControllerHybridTest {
         OfferDTO offerDTO = new OfferDTO(1L, "Luka", "Borna", BigDecimal.valueOf(10000),
                 LocalDateTime.now(), LocalDateTime.now(), 2L);        PaginatedResponse<OfferDTO> paginatedResponse = new PaginatedResponse<>(List.of(offerDTO), 1, 1, 0, 10);
 
-        when(offerService.getAllOffer(0, 10)).thenReturn(paginatedResponse);
+        when(offerService.getAllOffer(0, 10, TotalMode.EXACT)).thenReturn(paginatedResponse);
 
         given()
                 .queryParam("page", 0)
@@ -326,7 +327,7 @@ class OfferControllerHybridTest {
     @Test
     void testGetAllOffers_EmptyList() {
         PaginatedResponse<OfferDTO> emptyResponse = new PaginatedResponse<>(List.of(), 0, 1, 0, 10);
-        when(offerService.getAllOffer(0, 10)).thenReturn(emptyResponse);
+        when(offerService.getAllOffer(0, 10, TotalMode.EXACT)).thenReturn(emptyResponse);
 
         given()
                 .queryParam("page", 0)
@@ -402,7 +403,7 @@ class OfferControllerHybridTest {
 
     @Test
     public void testValidatePrices_InvalidRangeDirectCall() {
-        OfferServiceImpl service = new OfferServiceImpl(null, null);
+        OfferServiceImpl service = new OfferServiceImpl(null, null, null, null);
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             service.validatePrices(BigDecimal.valueOf(500), BigDecimal.valueOf(100));
         });
@@ -1,5 +1,6 @@
 package com.carsoffer.offer.controller;
 
+import com.carsoffer.MaxQueries;
 import com.carsoffer.PostgreSQLResource;
 import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.entity.Car;
@@ -140,6 +141,7 @@ class OfferControllerIntegrationTest {
 
 
     @Test
+    @MaxQueries(1)
     public void testGetOfferById() {
         String jsonBody = String.format("""
         {
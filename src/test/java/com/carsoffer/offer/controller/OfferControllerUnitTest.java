@@ -4,6 +4,7 @@ import com.carsoffer.common.exceptions.dto.ErrorResponse;
 import com.carsoffer.common.exceptions.GlobalExceptionHandler;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
 import com.carsoffer.common.utils.PaginatedResponse;
+import com.carsoffer.common.utils.TotalMode;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
@@ -85,7 +86,7 @@ class OfferControllerUnitTest {
 
     @Test
     public void testValidatePrices_InvalidRangeDirectCall() {
-        OfferServiceImpl service = new OfferServiceImpl(null, null);
+        OfferServiceImpl service = new OfferServiceImpl(null, null, null, null);
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             service.validatePrices(BigDecimal.valueOf(500), BigDecimal.valueOf(100));
         });
@@ -133,9 +134,9 @@ class OfferControllerUnitTest {
                 LocalDateTime.now(), LocalDateTime.now(), 2L);
         PaginatedResponse<OfferDTO> paginatedResponse = new PaginatedResponse<>(List.of(offerDTO), 1, 1, 0, 10);
 
-        when(offerService.getAllOffer(0, 10)).thenReturn(paginatedResponse);
+        when(offerService.getAllOffer(0, 10, TotalMode.EXACT)).thenReturn(paginatedResponse);
 
-        Response response = offerController.getAllOffers(0, 10);
+        Response response = offerController.getAllOffers(0, 10, null, true, false);
 
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
 
@@ -250,11 +251,11 @@ class OfferControllerUnitTest {
 
     @Test
     void testGetAllOffers_InvalidPagination() {
-        when(offerService.getAllOffer(-1, 10))
+        when(offerService.getAllOffer(-1, 10, TotalMode.EXACT))
                 .thenThrow(new IllegalArgumentException("Page number cannot be negative"));
 
         try {
-            offerController.getAllOffers(-1, 10);
+            offerController.getAllOffers(-1, 10, null, true, false);
         } catch (IllegalArgumentException e) {
             Response response = handleException(e);
             assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -0,0 +1,78 @@
+package com.carsoffer.offer.repository;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.ReactiveProfile;
+import com.carsoffer.car.dto.CarDTO;
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.offer.dto.CreateOfferDTO;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.service.OfferServiceImpl;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@Testcontainers
+@TestProfile(ReactiveProfile.class)
+@QuarkusTestResource(PostgreSQLResource.class)
+class ReactiveOfferRepositoryIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    ReactiveOfferRepository reactiveOfferRepository;
+
+    @Inject
+    OfferServiceImpl offerService;
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    OfferRepository offerRepository;
+
+    @Inject
+    CarRepository carRepository;
+
+    private CarDTO car;
+    private OfferDTO cheap;
+
+    @BeforeEach
+    void setUp() {
+        // the reactive client reads on its own connections, so the rows have to be committed
+        QuarkusTransaction.requiringNew().run(() -> {
+            offerRepository.deleteAll();
+            carRepository.deleteAll();
+        });
+        car = carService.createCar(new CreateCarDTO("Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001"));
+        cheap = offerService.createOffer(new CreateOfferDTO("John", "Doe", new BigDecimal("15000.00"), car.id()));
+        offerService.createOffer(new CreateOfferDTO("Jane", "Doerr", new BigDecimal("25000.00"), car.id()));
+        offerService.createOffer(new CreateOfferDTO("Max", "Mustermann", new BigDecimal("20000.00"), car.id()));
+    }
+
+    @Test
+    void testFindById_MapsTheRow() {
+        OfferDTO offer = reactiveOfferRepository.findById(cheap.id()).await().atMost(TIMEOUT);
+
+        assertEquals(cheap.id(), offer.id());
+        assertEquals("John", offer.customerFirstName());
+        assertEquals("Doe", offer.customerLastName());
+        assertEquals(0, new BigDecimal("15000").compareTo(offer.price()));
+        assertNotNull(offer.offerDate());
+        assertEquals(car.id(), offer.carId());
+        assertNull(reactiveOfferRepository.findById(-1L).await().atMost(TIMEOUT));
+    }
+}
@@ -0,0 +1,16 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+
+import java.util.List;
+
+/**
+ * {@link OfferService#searchOffers(OfferSearchCriteria)} with its result collected into a list, so one set of cases can
+ * run against the blocking and the reactive implementation.
+ */
+@FunctionalInterface
+interface OfferSearch {
+
+    List<OfferDTO> searchOffers(OfferSearchCriteria criteria);
+}
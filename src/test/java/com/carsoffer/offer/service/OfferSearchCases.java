@@ -0,0 +1,136 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.car.dto.CreateCarDTO;
+import com.carsoffer.car.dto.FuelType;
+import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.car.service.CarServiceImpl;
+import com.carsoffer.common.cache.OffHeapTier;
+import com.carsoffer.offer.dto.CreateOfferDTO;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.repository.OfferRepository;
+import io.quarkus.cache.CacheManager;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The offer search and filter cases. Every case runs against each implementation named by
+ * {@link #implementations()}, on the same committed rows, so the Criteria query and the hand-written reactive SQL
+ * cannot drift apart.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class OfferSearchCases {
+
+    @Inject
+    OfferServiceImpl offerService;
+
+    @Inject
+    CarServiceImpl carService;
+
+    @Inject
+    OfferRepository offerRepository;
+
+    @Inject
+    CarRepository carRepository;
+
+    @Inject
+    CacheManager cacheManager;
+
+    @Inject
+    OffHeapTier offHeapTier;
+
+    private Long carId;
+
+    abstract Stream<String> implementations();
+
+    abstract OfferSearch search(String implementation);
+
+    @BeforeEach
+    void setUp() {
+        // the reactive client reads on its own connections, so the rows are committed instead of rolled back
+        QuarkusTransaction.requiringNew().run(() -> {
+            offerRepository.deleteAll();
+            carRepository.deleteAll();
+        });
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name)
+                .ifPresent(cache -> cache.invalidateAll().await().indefinitely()));
+        offHeapTier.invalidateAll();
+        carId = carService.createCar(new CreateCarDTO("Volkswagen", "Golf", 2019, "Black", FuelType.DIESEL, "WVW00000000000001")).id();
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchOffers_ValidCriteria(String implementation) {
+        OfferSearch search = search(implementation);
+        createOffer("Alice", "Smith", 10000);
+        createOffer("Bob", "Smith", 15000);
+        createOffer("Alice", "Johnson", 20000);
+
+        OfferSearchCriteria criteria = new OfferSearchCriteria(
+                "Alice", null, null, null, null, null, null, true, 0, 10);
+
+        List<OfferDTO> offers = search.searchOffers(criteria);
+
+        assertEquals(2, offers.size());
+        offers.forEach(offer -> assertEquals("Alice", offer.customerFirstName()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchOffers_NoCriteriaProvided(String implementation) {
+        OfferSearch search = search(implementation);
+        OfferSearchCriteria criteria = new OfferSearchCriteria(
+                null, null, null, null, null, null, null, true, 0, 10);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> search.searchOffers(criteria));
+
+        assertEquals("At least one search parameter must be provided.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchOffers_FiltersSortsAndPages(String implementation) {
+        OfferSearch search = search(implementation);
+        OfferDTO cheap = createOffer("John", "Doe", 15000);
+        OfferDTO expensive = createOffer("Jane", "Doerr", 25000);
+        OfferDTO middle = createOffer("Max", "Mustermann", 20000);
+
+        OfferSearchCriteria doe = new OfferSearchCriteria(null, "doe", 10000.0, 30000.0,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), "price", false, 0, 10);
+        assertEquals(List.of(expensive.id(), cheap.id()), ids(search, doe));
+
+        OfferSearchCriteria secondPage = new OfferSearchCriteria(null, null, 0.0, null, null, null, "price", true, 1, 1);
+        assertEquals(List.of(middle.id()), ids(search, secondPage));
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    void testSearchOffers_PriceBoundsAreInclusive(String implementation) {
+        OfferSearch search = search(implementation);
+        OfferDTO cheap = createOffer("John", "Doe", 15000);
+        createOffer("Jane", "Doerr", 25000);
+
+        OfferSearchCriteria exact = new OfferSearchCriteria(null, null, 15000.0, 15000.0, null, null, null, true, 0, 10);
+
+        assertEquals(List.of(cheap.id()), ids(search, exact));
+    }
+
+    private OfferDTO createOffer(String firstName, String lastName, long price) {
+        return offerService.createOffer(new CreateOfferDTO(firstName, lastName, BigDecimal.valueOf(price), carId));
+    }
+
+    private static List<Long> ids(OfferSearch search, OfferSearchCriteria criteria) {
+        return search.searchOffers(criteria).stream().map(OfferDTO::id).toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.PostgreSQLResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Stream;
+
+@QuarkusTest
+@Testcontainers
+@QuarkusTestResource(PostgreSQLResource.class)
+class OfferSearchIntegrationTest extends OfferSearchCases {
+
+    @Override
+    Stream<String> implementations() {
+        return Stream.of("blocking");
+    }
+
+    @Override
+    OfferSearch search(String implementation) {
+        return offerService::searchOffers;
+    }
+}
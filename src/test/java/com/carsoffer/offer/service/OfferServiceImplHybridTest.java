@@ -2,8 +2,10 @@ package com.carsoffer.offer.service;
 
 import com.carsoffer.car.entity.Car;
 import com.carsoffer.car.repository.CarRepository;
+import com.carsoffer.common.cache.OffHeapTier;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
@@ -13,8 +15,6 @@ import com.carsoffer.offer.entity.Offer;
 import com.carsoffer.offer.repository.OfferRepository;
 import io.quarkus.cache.Cache;
 import io.quarkus.cache.CacheManager;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
-import io.quarkus.panache.common.Page;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 
@@ -28,7 +28,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -48,10 +47,14 @@ class OfferServiceImplHybridTest {
     @Inject
     CacheManager cacheManager;
 
+    @Inject
+    OffHeapTier offHeapTier;
+
     @BeforeEach
     public void setUp() {
         cacheManager.getCache("offer-cache").ifPresent(carCache ->
                 carCache.invalidateAll().await().indefinitely());
+        offHeapTier.invalidateAll();
     }
 
     @Test
@@ -210,8 +213,6 @@ class OfferServiceImplHybridTest {
 
     @Test
     void testGetOffersByCustomerName() {
-        PanacheQuery<Offer> query = mock(PanacheQuery.class);
-
         Offer offer = new Offer.Builder()
                 .id(1L)
                 .customerFirstName("Luka")
@@ -219,12 +220,7 @@ class OfferServiceImplHybridTest {
                 .price(BigDecimal.valueOf(10000))
                 .build();
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(offer));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-        when(offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10)).thenReturn(query);
+        when(offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10, true)).thenReturn(new PagedResult<>(List.of(offer), 1L));
 
         PaginatedResponse<OfferDTO> response = offerService.getOffersByCustomerName("Luka", "Borna", 0, 10);
 
@@ -236,8 +232,6 @@ class OfferServiceImplHybridTest {
 
     @Test
     void testGetOffersByPriceRange() {
-        PanacheQuery<Offer> query = mock(PanacheQuery.class);
-
         Offer offer = new Offer.Builder()
                 .id(1L)
                 .customerFirstName("Luka")
@@ -245,12 +239,7 @@ class OfferServiceImplHybridTest {
                 .price(BigDecimal.valueOf(10000))
                 .build();
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(offer));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-        when(offerRepository.findByPriceBetweenPaged(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10)).thenReturn(query);
+        when(offerRepository.findByPriceBetweenPaged(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10, true)).thenReturn(new PagedResult<>(List.of(offer), 1L));
 
         PaginatedResponse<OfferDTO> response = offerService.getOffersByPriceRange(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10);
 
@@ -305,8 +294,6 @@ class OfferServiceImplHybridTest {
 
     @Test
     void testGetAllOffer_CacheEnabled() {
-        PanacheQuery<Offer> query = mock(PanacheQuery.class);
-
         Offer offer = new Offer.Builder()
                 .id(1L)
                 .customerFirstName("Luka")
@@ -314,12 +301,7 @@ class OfferServiceImplHybridTest {
                 .price(BigDecimal.valueOf(10000))
                 .build();
 
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.stream()).thenReturn(Stream.of(offer));
-        when(query.count()).thenReturn(1L);
-        when(query.pageCount()).thenReturn(1);
-
-        when(offerRepository.findAllPaged(0, 10)).thenReturn(query);
+        when(offerRepository.findAllPaged(0, 10, true)).thenReturn(new PagedResult<>(List.of(offer), 1L));
 
         PaginatedResponse<OfferDTO> response1 = offerService.getAllOffer(0, 10);
         assertEquals(1, response1.getItems().size());
@@ -329,7 +311,7 @@ class OfferServiceImplHybridTest {
         assertEquals(1, response2.getItems().size());
         assertEquals(1L, response2.getTotalItems());
 
-        verify(offerRepository, times(1)).findAllPaged(0, 10);
+        verify(offerRepository, times(1)).findAllPaged(0, 10, true);
     }
 
     @Test
@@ -1,6 +1,7 @@
 package com.carsoffer.offer.service;
 
 import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.QueryPlans;
 import com.carsoffer.car.dto.CarDTO;
 import com.carsoffer.car.dto.FuelType;
 import com.carsoffer.car.entity.Car;
@@ -8,13 +9,20 @@ import com.carsoffer.car.repository.CarRepository;
 import com.carsoffer.car.service.CarService;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
+import com.carsoffer.common.metrics.CapturingQueryCounter;
 import com.carsoffer.common.utils.PaginatedResponse;
 import com.carsoffer.offer.dto.CreateOfferDTO;
 import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferFacetDTO;
+import com.carsoffer.offer.dto.OfferFacetsDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
 import com.carsoffer.offer.dto.UpdateOfferDTO;
 import com.carsoffer.offer.entity.Offer;
 import com.carsoffer.offer.repository.OfferRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
@@ -32,6 +40,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +67,14 @@ class OfferServiceImplIntegrationTest {
     @Inject
     DataSource dataSource;
 
+    @Inject
+    @PersistenceUnitExtension
+    CapturingQueryCounter queryCounter;
+
+    @Inject
+    @CacheName("car-cache")
+    Cache carCache;
+
 
     @BeforeEach
     void cleanUp() {
@@ -168,9 +185,12 @@ class OfferServiceImplIntegrationTest {
     public void testCacheUsageForGetCarById() {
         Long carId = createCar();
         CarDTO firstCall = carService.getCarById(carId);
+        Object cached = cachedEntry(carId);
         CarDTO secondCall = carService.getCarById(carId);
 
-        assertSame(firstCall, secondCall);
+        // cached values are packed and decoded on every read, so the entry, not the DTO, stays the same
+        assertEquals(firstCall, secondCall);
+        assertSame(cached, cachedEntry(carId));
     }
 
 
@@ -270,36 +290,6 @@ class OfferServiceImplIntegrationTest {
     }
 
 
-    @Test
-    public void testSearchOffers_ValidCriteria() {
-        Long carId = createCar();
-
-        offerService.createOffer(new CreateOfferDTO("Alice", "Smith", BigDecimal.valueOf(10000), carId));
-        offerService.createOffer(new CreateOfferDTO("Bob", "Smith", BigDecimal.valueOf(15000), carId));
-        offerService.createOffer(new CreateOfferDTO("Alice", "Johnson", BigDecimal.valueOf(20000), carId));
-
-        OfferSearchCriteria criteria = new OfferSearchCriteria(
-                "Alice", null, null, null, null, null, null, true, 0, 10);
-
-        List<OfferDTO> offers = offerService.searchOffers(criteria);
-
-        assertNotNull(offers);
-        assertEquals(2, offers.size());
-        offers.forEach(offer -> assertEquals("Alice", offer.customerFirstName()));
-    }
-
-
-    @Test
-    public void testSearchOffers_NoCriteriaProvided() {
-        OfferSearchCriteria criteria = new OfferSearchCriteria(
-                null, null, null, null, null, null, null, true, 0, 10);
-
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            offerService.searchOffers(criteria);
-        });
-
-        assertEquals("At least one search parameter must be provided.", exception.getMessage());
-    }
 
     @Test
     public void testCacheInvalidationAfterCreateOffer() {
@@ -406,6 +396,39 @@ class OfferServiceImplIntegrationTest {
     }
 
 
+    @Test
+    public void testGetOfferFacets() {
+        Long carId = createCar();
+        offerService.createOffer(new CreateOfferDTO("Luka", "Borna", BigDecimal.valueOf(10000), carId));
+        offerService.createOffer(new CreateOfferDTO("Ana", "Horvat", BigDecimal.valueOf(20000), carId));
+
+        OfferFacetsDTO facets = offerService.getOfferFacets();
+
+        assertEquals(1, facets.brands().size());
+        OfferFacetDTO bmw = facets.brands().getFirst();
+        assertEquals("BMW", bmw.value());
+        assertEquals(2, bmw.count());
+        assertEquals(0, new BigDecimal("10000").compareTo(bmw.minPrice()));
+        assertEquals(0, new BigDecimal("15000").compareTo(bmw.avgPrice()));
+        assertEquals(0, new BigDecimal("20000").compareTo(bmw.maxPrice()));
+        assertEquals("HYBRID", facets.fuelTypes().getFirst().value());
+        assertEquals("2006", facets.years().getFirst().value());
+    }
+
+    @Test
+    public void testCustomerNameSearch_UsesTrigramIndex() {
+        queryCounter.start();
+        offerService.searchOffers(new OfferSearchCriteria(null, "orn", null, null, null, null, "id", true, 0, 10));
+        List<String> statements = queryCounter.stop();
+
+        String sql = statements.stream()
+                .filter(statement -> statement.contains(" like "))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("searchOffers issued no LIKE query: " + statements));
+        String plan = QueryPlans.explain(offerRepository.getEntityManager(), sql);
+
+        assertTrue(plan.contains("idx_offer_last_name_trgm"), sql + "\n" + plan);
+    }
 
 
     private Long createCar() {
@@ -422,4 +445,9 @@ class OfferServiceImplIntegrationTest {
         return car.getId();
     }
 
+    private Object cachedEntry(Long carId) {
+        CompletableFuture<Object> entry = carCache.as(CaffeineCache.class).getIfPresent(carId);
+        assertNotNull(entry);
+        return entry.join();
+    }
 }
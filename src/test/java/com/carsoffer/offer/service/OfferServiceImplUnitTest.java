@@ -4,28 +4,35 @@ import com.carsoffer.car.entity.Car;
 import com.carsoffer.car.repository.CarRepository;
 import com.carsoffer.common.exceptions.CarNotFoundException;
 import com.carsoffer.common.exceptions.OfferNotFoundException;
+import com.carsoffer.common.utils.PageCursor;
+import com.carsoffer.common.utils.PagedResult;
 import com.carsoffer.common.utils.PaginatedResponse;
 import com.carsoffer.offer.dto.CreateOfferDTO;
+import com.carsoffer.offer.dto.OfferChangedEvent;
 import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferFacetDTO;
+import com.carsoffer.offer.dto.OfferFacetsDTO;
 import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.dto.OffersCreatedEvent;
 import com.carsoffer.offer.dto.UpdateOfferDTO;
 import com.carsoffer.offer.entity.Offer;
 import com.carsoffer.offer.repository.OfferRepository;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
-import io.quarkus.panache.common.Page;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 class OfferServiceImplUnitTest {
@@ -36,12 +43,18 @@ class OfferServiceImplUnitTest {
     @Mock
     CarRepository carRepository;
 
-    @InjectMocks
+    @Mock
+    Event<OfferChangedEvent> offerChangedEvent;
+
+    @Mock
+    Event<OffersCreatedEvent> offersCreatedEvent;
+
     OfferServiceImpl offerService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        offerService = new OfferServiceImpl(offerRepository, carRepository, offerChangedEvent, offersCreatedEvent);
     }
 
     @Test
@@ -62,6 +75,59 @@ class OfferServiceImplUnitTest {
     }
 
 
+    @Test
+    void testCreateOffers_ValidatesCarsOncePerChunk() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Car car = new Car();
+        car.setId(1L);
+        when(offerRepository.getEntityManager()).thenReturn(entityManager);
+        when(entityManager.getReference(Car.class, 1L)).thenReturn(car);
+        when(carRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        List<CreateOfferDTO> createOfferDTOs = IntStream.range(0, OfferServiceImpl.BULK_CHUNK_SIZE + 1)
+                .mapToObj(i -> new CreateOfferDTO("Luka", "Borna", BigDecimal.valueOf(10000 + i), 1L))
+                .toList();
+
+        int created = offerService.createOffers(createOfferDTOs);
+
+        assertEquals(OfferServiceImpl.BULK_CHUNK_SIZE + 1, created);
+        verify(carRepository, times(2)).findExistingIds(anyCollection());
+        verify(carRepository, never()).findByIdOptional(any());
+        verify(offerRepository, times(OfferServiceImpl.BULK_CHUNK_SIZE + 1)).persist(any(Offer.class));
+        verify(entityManager, times(2)).clear();
+        verify(offersCreatedEvent, times(1)).fire(new OffersCreatedEvent(OfferServiceImpl.BULK_CHUNK_SIZE + 1, Set.of(1L)));
+        verifyNoInteractions(offerChangedEvent);
+    }
+
+    @Test
+    void testCreateOffers_CarNotFound() {
+        when(carRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        List<CreateOfferDTO> createOfferDTOs = List.of(
+                new CreateOfferDTO("Luka", "Borna", BigDecimal.valueOf(10000), 1L),
+                new CreateOfferDTO("Ana", "Horvat", BigDecimal.valueOf(12000), 999L));
+
+        CarNotFoundException thrown = assertThrows(CarNotFoundException.class, () -> offerService.createOffers(createOfferDTOs));
+
+        assertEquals("Car with ID 999 not found", thrown.getMessage());
+        verify(offerRepository, never()).persist(any(Offer.class));
+        verifyNoInteractions(offersCreatedEvent);
+    }
+
+    @Test
+    void testGetOfferFacets_SplitsGroupingSets() {
+        when(offerRepository.aggregateFacets()).thenReturn(List.of(
+                new Object[]{"BMW", null, null, 2L, new BigDecimal("10000.00"), new BigDecimal("15000.00"), new BigDecimal("20000.00")},
+                new Object[]{null, "DIESEL", null, 2L, new BigDecimal("10000.00"), new BigDecimal("15000.00"), new BigDecimal("20000.00")},
+                new Object[]{null, null, 2020, 1L, new BigDecimal("10000.00"), new BigDecimal("10000.00"), new BigDecimal("10000.00")}));
+
+        OfferFacetsDTO facets = offerService.getOfferFacets();
+
+        assertEquals(List.of(new OfferFacetDTO("BMW", 2, new BigDecimal("10000.00"), new BigDecimal("15000.00"), new BigDecimal("20000.00"))),
+                facets.brands());
+        assertEquals("DIESEL", facets.fuelTypes().getFirst().value());
+        assertEquals("2020", facets.years().getFirst().value());
+        assertEquals(1, facets.years().getFirst().count());
+    }
+
     @Test
     void testUpdateOffer_OfferNotFound() {
         when(offerRepository.findOfferWithCarById(999L)).thenReturn(Optional.empty());
@@ -152,6 +218,8 @@ class OfferServiceImplUnitTest {
             assertEquals("Luka", existingOffer.getCustomerFirstName());
             assertEquals(BigDecimal.valueOf(20000), existingOffer.getPrice());
             assertEquals(car, existingOffer.getCar());  
+            verify(offerChangedEvent).fire(OfferChangedEvent.updated(
+                    new OfferDTO(1L, "Luka", "Borna", BigDecimal.valueOf(10000), null, null, 1L), updatedOffer));
         }
 
     @Test
@@ -172,6 +240,8 @@ class OfferServiceImplUnitTest {
 
         Offer deletedOffer = captor.getValue();
         assertEquals(existingOffer.getId(), deletedOffer.getId());
+        verify(offerChangedEvent).fire(OfferChangedEvent.deleted(
+                new OfferDTO(1L, "Luka", "Borna", BigDecimal.valueOf(10000), null, null, null)));
     }
 
     @Test
@@ -224,21 +294,15 @@ class OfferServiceImplUnitTest {
                 .price(BigDecimal.valueOf(10000))
                 .build();
 
-        PanacheQuery<Offer> query = mock(PanacheQuery.class);
-
-        when(query.stream()).thenReturn(Stream.of(offer));
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.count()).thenReturn(1L);
-
-        when(offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10))
-                .thenReturn(query);
+        when(offerRepository.findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(offer), 1L));
 
         PaginatedResponse<OfferDTO> response = offerService.getOffersByCustomerName("Luka", "Borna", 0, 10);
         assertEquals(1, response.getItems().size());
         assertEquals("Luka", response.getItems().getFirst().customerFirstName());
 
         verify(offerRepository, times(1))
-                .findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10);
+                .findByCustomerByFirstNameAndCustomerByLastNamePaged("Luka", "Borna", 0, 10, true);
     }
 
     @Test
@@ -250,15 +314,54 @@ class OfferServiceImplUnitTest {
                 .price(BigDecimal.valueOf(10000))
                 .build();
 
-        PanacheQuery<Offer> mockQuery = mockPanacheQuery(List.of(offer));
-
-        when(offerRepository.findByPriceBetweenPaged(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10))
-                .thenReturn(mockQuery);
+        when(offerRepository.findByPriceBetweenPaged(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10, true))
+                .thenReturn(new PagedResult<>(List.of(offer), 1L));
         PaginatedResponse<OfferDTO> response = offerService.getOffersByPriceRange(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), 0, 10);
         assertEquals(1, response.getItems().size());
         assertEquals(BigDecimal.valueOf(10000), response.getItems().getFirst().price());
     }
 
+    @Test
+    void testGetOffersByPriceRangeAfter_ReturnsNextCursor() {
+        Offer first = new Offer.Builder().id(4L).customerFirstName("Luka").customerLastName("Borna")
+                .price(BigDecimal.valueOf(9000)).build();
+        Offer second = new Offer.Builder().id(2L).customerFirstName("Ana").customerLastName("Horvat")
+                .price(BigDecimal.valueOf(12000)).build();
+        Offer extra = new Offer.Builder().id(7L).customerFirstName("Ivo").customerLastName("Kovac")
+                .price(BigDecimal.valueOf(12000)).build();
+        String cursor = PageCursor.of(BigDecimal.valueOf(8000), 3L).encode();
+
+        when(offerRepository.findByPriceBetweenAfter(BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), new BigDecimal("8000"), 3L, 3))
+                .thenReturn(List.of(first, second, extra));
+
+        PaginatedResponse<OfferDTO> response = offerService.getOffersByPriceRangeAfter(
+                BigDecimal.valueOf(5000), BigDecimal.valueOf(15000), cursor, 2);
+
+        assertEquals(2, response.getItems().size());
+        assertEquals(PaginatedResponse.UNKNOWN, response.getTotalItems());
+        assertEquals(new PageCursor("12000", 2L), PageCursor.decode(response.getNextCursor()));
+    }
+
+    @Test
+    void testGetAllOfferAfter_LastPageHasNoCursor() {
+        Offer offer = new Offer.Builder().id(11L).customerFirstName("Luka").customerLastName("Borna")
+                .price(BigDecimal.valueOf(10000)).build();
+        when(offerRepository.findAllAfter(10L, 11)).thenReturn(List.of(offer));
+
+        PaginatedResponse<OfferDTO> response = offerService.getAllOfferAfter(PageCursor.of(10L, 10L).encode(), 10);
+
+        assertEquals(1, response.getItems().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetAllOfferAfter_InvalidCursor() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> offerService.getAllOfferAfter("not-a-cursor", 10));
+        assertEquals("Invalid cursor.", thrown.getMessage());
+        verifyNoInteractions(offerRepository);
+    }
+
     @Test
     void testValidatePrices_Success() {
         assertDoesNotThrow(() -> offerService.validatePrices(BigDecimal.valueOf(100), BigDecimal.valueOf(200)));
@@ -272,12 +375,5 @@ class OfferServiceImplUnitTest {
         assertEquals("minPrice must be less than or equal to maxPrice.", thrown.getMessage());
     }
 
-    private PanacheQuery<Offer> mockPanacheQuery(List<Offer> results) {
-        PanacheQuery<Offer> query = mock(PanacheQuery.class);
-        when(query.stream()).thenReturn(results.stream());
-        when(query.page(any(Page.class))).thenReturn(query);
-        when(query.count()).thenReturn((long) results.size());
-        return query;
-    }
 
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.PostgreSQLResource;
+import com.carsoffer.ReactiveProfile;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Runs the shared offer search cases against the reactive service next to the blocking one, in the same application.
+ */
+@QuarkusTest
+@Testcontainers
+@TestProfile(ReactiveProfile.class)
+@QuarkusTestResource(PostgreSQLResource.class)
+class ReactiveOfferSearchIntegrationTest extends OfferSearchCases {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Inject
+    ReactiveOfferService reactiveOfferService;
+
+    @Override
+    Stream<String> implementations() {
+        return Stream.of("blocking", "reactive");
+    }
+
+    @Override
+    OfferSearch search(String implementation) {
+        if ("blocking".equals(implementation)) {
+            return offerService::searchOffers;
+        }
+        return criteria -> reactiveOfferService.searchOffers(criteria).collect().asList().await().atMost(TIMEOUT);
+    }
+}
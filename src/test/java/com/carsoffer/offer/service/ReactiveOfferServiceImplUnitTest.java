@@ -0,0 +1,74 @@
+package com.carsoffer.offer.service;
+
+import com.carsoffer.common.exceptions.OfferNotFoundException;
+import com.carsoffer.offer.dto.OfferDTO;
+import com.carsoffer.offer.dto.OfferSearchCriteria;
+import com.carsoffer.offer.repository.ReactiveOfferRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveOfferServiceImplUnitTest {
+
+    @Mock
+    ReactiveOfferRepository offerRepository;
+
+    private ReactiveOfferServiceImpl offerService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        offerService = new ReactiveOfferServiceImpl(offerRepository);
+    }
+
+    @Test
+    void testFindOfferById_Success() {
+        when(offerRepository.findById(1L)).thenReturn(Uni.createFrom().item(offer(1L, "Luka")));
+
+        OfferDTO result = offerService.findOfferById(1L).await().indefinitely();
+
+        assertEquals("Luka", result.customerFirstName());
+    }
+
+    @Test
+    void testFindOfferById_NotFound() {
+        when(offerRepository.findById(999L)).thenReturn(Uni.createFrom().nullItem());
+
+        assertThrows(OfferNotFoundException.class, () -> offerService.findOfferById(999L).await().indefinitely());
+    }
+
+    @Test
+    void testSearchOffers_WithCriteria() {
+        OfferSearchCriteria criteria = new OfferSearchCriteria("Luka", "Borna", 5000.0, 15000.0, null, null, "id", true, 0, 10);
+        when(offerRepository.searchOffers(criteria)).thenReturn(Multi.createFrom().item(offer(1L, "Luka")));
+
+        List<OfferDTO> result = offerService.searchOffers(criteria).collect().asList().await().indefinitely();
+
+        assertEquals(1, result.size());
+        assertEquals("Luka", result.getFirst().customerFirstName());
+    }
+
+    @Test
+    void testSearchOffers_NoCriteria() {
+        OfferSearchCriteria criteria = new OfferSearchCriteria(null, " ", null, null, null, null, "id", true, 0, 10);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> offerService.searchOffers(criteria).collect().asList().await().indefinitely());
+        verify(offerRepository, never()).searchOffers(any());
+    }
+
+    private OfferDTO offer(Long id, String firstName) {
+        return new OfferDTO(id, firstName, "Borna", BigDecimal.valueOf(10000), LocalDateTime.of(2024, 1, 1, 0, 0), null, 1L);
+    }
+}